@@ -1,5 +1,11 @@
 package javaML;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+import javaML.data.Dataset;
+import javaML.data.Normalizer;
+
 /**
  * The DataTransformations class is a class consisting only of static functions meant to modify a given dataset.<br>
  * Dataset modifications are commonly used in Data Science and Statistics to make data more readable, and is
@@ -12,6 +18,9 @@ package javaML;
 
 public final class DataTransformations {
 	
+	//Number of datapoints above which reverseDifference() sums the dataset in parallel
+	private static final int PARALLEL_THRESHOLD = 1 << 15;
+	
 	/**
 	 * Simple function to create a deep copy of a 3 dimensional double array
 	 * @param data 3D array to be copied
@@ -53,7 +62,9 @@ public final class DataTransformations {
 	 * Function to transform a basic 2D array into a labeled Time Series Dataset.<br>
 	 * The implication is that the user should invoke this function with sequential data as input.
 	 * The function then creates a dataset array where the input is one time-step and the target
-	 * output is the time-step from one iteration in the future
+	 * output is the time-step from one iteration in the future.<br>
+	 * Every time-step is copied; Dataset.window() creates the same datapoints, or datapoints with more lags and a
+	 * longer horizon, as a view over the series that copies nothing
 	 * @param data 2D array representing sequential data
 	 * @return 3D dataset array of the reformatted input data
 	 */
@@ -140,6 +151,24 @@ public final class DataTransformations {
 		return dataset;
 	}
 	
+	/**
+	 * Function to normalize a Dataset to a specified range
+	 * @param dataset Dataset to be normalized
+	 * @param min Desired minimum
+	 * @param max Desired maximum
+	 * @param deepCopy Set to true to normalize a copy of the Dataset instead of modifying its values
+	 * @return returns the normalized Dataset
+	 */
+	public static Dataset normalize(Dataset dataset, double min, double max, boolean deepCopy) {
+		
+		if(deepCopy) dataset = dataset.copy();
+		
+		//Gather the statistics of every column in one parallel pass, then normalize the rows in parallel
+		Normalizer.fit(dataset, min, max).normalize(dataset);
+		
+		return dataset;
+	}
+	
 	/**
 	 * Helper function to perform the actual normalization
 	 * @param x Value to be normalized
@@ -187,7 +216,10 @@ public final class DataTransformations {
 	
 	/**
 	 * Function to perform the reverse of the affects of differencing. This will be useful to accurately read data
-	 * after the network has been trained.
+	 * after the network has been trained.<br>
+	 * Reversing is a running sum of the differences. Long datasets are split into blocks that are summed in
+	 * parallel, after which the total of every block before it is added to each block, also in parallel. Summing
+	 * in a different order can change the last bits of the result compared to summing in order
 	 * @param dataset differenced dataset to be returned to normal
 	 * @param initialVals datapoint of the original initial values that were erased when differencing the dataset
 	 * @return Reversed Difference transform of the dataset
@@ -195,31 +227,82 @@ public final class DataTransformations {
 	public static double[][][] reverseDifference(double[][][] dataset, double[][] initialVals) {
 		double[][][] ret = new double[dataset.length + 1][2][];
 		
-		ret[0][0] = new double[initialVals[0].length];
-		ret[0][1] = new double[initialVals[1].length];
+		ret[0][0] = initialVals[0].clone();
+		ret[0][1] = initialVals[1].clone();
 		
-		for(int arr = 0; arr < 2; arr++) {
-			for(int i = 0; i < initialVals[arr].length; i++) {
-				ret[0][arr][i] = initialVals[arr][i];
-			}
-		}
+		int blocks = dataset.length < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors() * 4;
+		int blockSize = (dataset.length + blocks - 1) / Math.max(blocks, 1);
 		
-		for(int i = 1; i < ret.length; i++) {
-			ret[i][0] = new double[initialVals[0].length];
-			ret[i][1] = new double[initialVals[1].length];
+		//First pass sums every block on its own, the first block starting from the initial values
+		forEachBlock(blocks, block -> {
+			int first = 1 + block * blockSize;
+			int last = Math.min(dataset.length, (block + 1) * blockSize);
 			
-			for(int z = 0; z < ret[i][0].length; z++) {
-				ret[i][0][z] = ret[i - 1][0][z] + dataset[i - 1][0][z];
+			for(int i = first; i <= last; i++) {
+				ret[i][0] = new double[initialVals[0].length];
+				ret[i][1] = new double[initialVals[1].length];
+				
+				for(int arr = 0; arr < 2; arr++) {
+					for(int z = 0; z < ret[i][arr].length; z++) {
+						ret[i][arr][z] = (i == first && block > 0 ? 0 : ret[i - 1][arr][z]) + dataset[i - 1][arr][z];
+					}
+				}
 			}
+		});
+		
+		if(blocks == 1) return ret;
+		
+		//Total of every block before each block, which only depends on the last datapoint of every block
+		double[][][] carry = new double[blocks][][];
+		for(int block = 1; block < blocks; block++) {
+			int previous = Math.min(dataset.length, block * blockSize);
+			if(previous < 1 + (block - 1) * blockSize) break;
+			
+			carry[block] = new double[][] {ret[previous][0].clone(), ret[previous][1].clone()};
+			if(block == 1) continue;
 			
-			for(int z = 0; z < ret[i][1].length; z++) {
-				ret[i][1][z] = ret[i - 1][1][z] + dataset[i - 1][1][z];
+			for(int arr = 0; arr < 2; arr++) {
+				for(int z = 0; z < carry[block][arr].length; z++) carry[block][arr][z] += carry[block - 1][arr][z];
 			}
 		}
 		
+		//Second pass adds the total of the blocks before it to every block
+		forEachBlock(blocks, block -> {
+			if(block == 0 || carry[block] == null) return;
+			
+			int first = 1 + block * blockSize;
+			int last = Math.min(dataset.length, (block + 1) * blockSize);
+			
+			for(int i = first; i <= last; i++) {
+				for(int arr = 0; arr < 2; arr++) {
+					for(int z = 0; z < ret[i][arr].length; z++) ret[i][arr][z] += carry[block][arr][z];
+				}
+			}
+		});
+		
 		return ret;
 	}
 	
+	/**
+	 * Helper function to run a task for every block, in parallel when there is more than one block
+	 * @param blocks Number of blocks
+	 * @param task Task to be run with the index of every block
+	 */
+	private static void forEachBlock(int blocks, IntConsumer task) {
+		if(blocks == 1) {
+			task.accept(0);
+			return;
+		}
+		
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[blocks];
+		for(int block = 0; block < blocks; block++) {
+			int index = block;
+			tasks[block] = CompletableFuture.runAsync(() -> task.accept(index));
+		}
+		
+		CompletableFuture.allOf(tasks).join();
+	}
+	
 	/**
 	 * Function to create a dataset array with "Contextual Input"<br>
 	 * Contextual Input involves having 2 distinct time steps as input with the goal to compute one new timestep
@@ -229,7 +312,9 @@ public final class DataTransformations {
 	 * Using this function with with a typical dataset array consisting of {{input[t]}, {target[t + 1]}} 
 	 * vectors, the first datapoint is erased to create an new array with the format 
 	 * {{input[t], input[t - 1}, {target[t + 1]}}.<br>
-	 * As an example, a dataset with { { {1}, {1} }, { {2}, {2} } will become { { {2, 1}, {2} } }
+	 * As an example, a dataset with { { {1}, {1} }, { {2}, {2} } will become { { {2, 1}, {2} } }<br>
+	 * A new array is created for every input; Dataset.window() builds inputs of any number of lags from a series
+	 * without creating any arrays
 	 * @param dataset Dataset to be transformed
 	 * @param deepCopy Set to true to deep copy the dataset array
 	 * @return transformed dataset array
@@ -275,6 +360,23 @@ public final class DataTransformations {
 		return ret;
 	}
 	
+	/**
+	 * Function to down-size a Dataset by keeping its last rows.<br>
+	 * Used by the network class to turn a dataset into a perfect multiple of the network's memory length.<br>
+	 * If this function is used to attempt to up-size a dataset a null will be returned
+	 * @param dataset Dataset to be resized
+	 * @param newSize New size for the dataset
+	 * @param deepCopy Set to true to copy the values, otherwise a view of the Dataset is returned
+	 * @return The resized Dataset
+	 */
+	public static Dataset resize(Dataset dataset, int newSize, boolean deepCopy) {
+		if(newSize > dataset.size()) return null;
+		
+		Dataset ret = dataset.view(dataset.size() - newSize, dataset.size());
+		
+		return deepCopy ? ret.copy() : ret;
+	}
+	
 	/**
 	 * Function to split a dataset into 2 separate datasets.<br>
 	 * Used by the network class to create a difference between training and validation data.<br>
@@ -308,4 +410,26 @@ public final class DataTransformations {
 		return new double[][][][] {trainData, validateData};
 	}
 	
+	/**
+	 * Function to split a Dataset into 2 separate Datasets.<br>
+	 * Used by the network class to create a difference between training and validation data.<br>
+	 * If splitpoint is set to be larger than the dataset already, a null will be returned
+	 * @param dataset Dataset to be split
+	 * @param splitPoint Spot to split the data; the datapoint at the splitpoint will be included in the second
+	 * Dataset as the first datapoint
+	 * @param deepCopy Set to true to copy the values, otherwise both Datasets are views of the original
+	 * @return Returns an array of size 2 where ret[0] is the first Dataset and ret[1] is the second
+	 */
+	public static Dataset[] splitDataset(Dataset dataset, int splitPoint, boolean deepCopy) {
+		if(splitPoint > dataset.size()) return null;
+		
+		Dataset[] ret = dataset.split(splitPoint);
+		if(deepCopy) {
+			ret[0] = ret[0].copy();
+			ret[1] = ret[1].copy();
+		}
+		
+		return ret;
+	}
+	
 }
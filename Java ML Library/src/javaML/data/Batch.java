@@ -0,0 +1,61 @@
+package javaML.data;
+
+/**
+ * A Batch holds the input and target vectors of a fixed number of rows, filled by a BatchLoader.<br>
+ * The arrays of a Batch are reused for every batch read into it, so a row should be copied if it is needed after
+ * the next batch is read.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class Batch {
+	
+	//Swapped with the arrays of a prefetched Batch instead of being copied
+	double[][] inputs, targets;
+	
+	//First row and generation of a Batch filled by a PrefetchLoader, and the reason it could not be filled
+	int start;
+	long generation;
+	Throwable error;
+	
+	/**
+	 * Constructor for a Batch with every value set to 0
+	 * @param rows Number of rows in the Batch
+	 * @param inputWidth Number of values in every input vector
+	 * @param targetWidth Number of values in every target vector
+	 */
+	public Batch(int rows, int inputWidth, int targetWidth) {
+		if(rows <= 0) throw new IllegalArgumentException("A batch must hold at least one row");
+		
+		this.inputs = new double[rows][inputWidth];
+		this.targets = new double[rows][targetWidth];
+	}
+	
+	/**
+	 * Function to get the number of rows in the Batch
+	 * @return Number of rows
+	 */
+	public int size() {
+		return inputs.length;
+	}
+	
+	/**
+	 * Function to get the array holding the input vector of a row
+	 * @param row Row of the Batch
+	 * @return Input vector, which a BatchLoader writes to directly
+	 */
+	public double[] getInput(int row) {
+		return inputs[row];
+	}
+	
+	/**
+	 * Function to get the array holding the target vector of a row
+	 * @param row Row of the Batch
+	 * @return Target vector, which a BatchLoader writes to directly
+	 */
+	public double[] getTarget(int row) {
+		return targets[row];
+	}
+}
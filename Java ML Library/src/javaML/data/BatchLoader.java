@@ -0,0 +1,47 @@
+package javaML.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A BatchLoader supplies the training data of a network one batch of consecutive rows at a time.<br>
+ * The rows of a loader are numbered from 0 to size() - 1 and a batch that runs past the last row continues from
+ * row 0, so a network can train through the rows of the loader epoch after epoch.
+ * <br><br>
+ * Rows are written into the arrays of a Batch supplied by the caller, so the same Batch can be reused for every
+ * batch. Any preparation of the rows, such as decoding, windowing or normalization, is done by the loader, which
+ * lets a PrefetchLoader run it on a background thread while the network trains on the previous batch.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public interface BatchLoader extends Closeable {
+	
+	/**
+	 * Function to get the number of values in every input vector
+	 * @return Input width
+	 */
+	public int getInputWidth();
+	
+	/**
+	 * Function to get the number of values in every target vector
+	 * @return Target width
+	 */
+	public int getTargetWidth();
+	
+	/**
+	 * Function to get the number of rows the loader cycles through
+	 * @return Number of rows in an epoch
+	 */
+	public int size();
+	
+	/**
+	 * Function to read a batch of consecutive rows
+	 * @param start First row of the batch
+	 * @param batch Batch whose rows are filled, one row for every row of the Batch
+	 * @throws IOException if the rows could not be read
+	 */
+	public void read(int start, Batch batch) throws IOException;
+}
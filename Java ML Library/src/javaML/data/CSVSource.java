@@ -0,0 +1,411 @@
+package javaML.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The CSVSource streams the rows of a numeric CSV file, such as a time series with one timestep per line, so that
+ * files far larger than the heap can be trained on.<br>
+ * The file is read in fixed size chunks and numbers are parsed directly from the bytes of the file, so reading a
+ * row allocates nothing. Only the current row and the rows needed to look ahead to the target are held in memory.
+ * <br><br>
+ * Every line must hold the same number of comma separated numbers; quoted fields are not supported. Blank lines are
+ * skipped and the first line can be skipped as a header. Each row of the source is built from the columns of a
+ * line:
+ * <ul>
+ * <li>The input vector is made of the input columns of the line</li>
+ * <li>The target vector is made of the target columns of the line a horizon of lines later; a horizon of 0 takes
+ * the target from the same line, a horizon of 1 predicts the next timestep</li>
+ * </ul>
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class CSVSource implements DataSource {
+	
+	private static final int CHUNK_SIZE = 1 << 16;
+	
+	//Powers of ten that are exactly representable as doubles
+	private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13,
+			1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+	
+	private final int[] inputColumns, targetColumns;
+	private final boolean header;
+	
+	//Parsed lines from the current line up to the line holding its target
+	private final double[][] lines;
+	private int first = 0;
+	
+	private int columns = -1;
+	private long lineNumber = 0;
+	private boolean eof = false;
+	
+	//Position in the buffer where the number being parsed starts, or -1 when not parsing a number
+	private int tokenStart = -1;
+	
+	/**
+	 * Constructor for a CSVSource that predicts one timestep ahead from every column of the file
+	 * @param file CSV file to be read
+	 * @param header Set to true to skip the first line of the file
+	 * @throws IOException if the file could not be opened or its first row could not be read
+	 */
+	public CSVSource(File file, boolean header) throws IOException {
+		this(file, null, null, 1, header);
+	}
+	
+	/**
+	 * Constructor for a CSVSource
+	 * @param file CSV file to be read
+	 * @param inputColumns Columns of a line that make up the input vector, or null for every column
+	 * @param targetColumns Columns of a line that make up the target vector, or null for every column
+	 * @param horizon Number of lines between a line and the line its target is taken from
+	 * @param header Set to true to skip the first line of the file
+	 * @throws IOException if the file could not be opened or its first row could not be read
+	 */
+	public CSVSource(File file, int[] inputColumns, int[] targetColumns, int horizon, boolean header)
+			throws IOException {
+		if(horizon < 0) throw new IllegalArgumentException("Horizon cannot be negative");
+		
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.header = header;
+		this.lines = new double[horizon + 1][];
+		
+		try {
+			reset();
+			if(columns < 0) throw new IOException("File does not hold any rows");
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		
+		//The width of the file is known once the first line has been read
+		this.inputColumns = inputColumns == null ? allColumns() : checkColumns(inputColumns);
+		this.targetColumns = targetColumns == null ? allColumns() : checkColumns(targetColumns);
+	}
+	
+	@Override
+	public int getInputWidth() {
+		return inputColumns.length;
+	}
+	
+	@Override
+	public int getTargetWidth() {
+		return targetColumns.length;
+	}
+	
+	@Override
+	public boolean next(double[] input, double[] target) throws IOException {
+		int last = (first + lines.length - 1) % lines.length;
+		if(lines[last] == null) return false;
+		
+		double[] current = lines[first];
+		double[] ahead = lines[last];
+		
+		for(int index = 0; index < inputColumns.length; index++) input[index] = current[inputColumns[index]];
+		for(int index = 0; index < targetColumns.length; index++) target[index] = ahead[targetColumns[index]];
+		
+		//The current line is no longer needed, so its array holds the next line read
+		if(!readLine(current)) lines[first] = null;
+		first = (first + 1) % lines.length;
+		
+		return true;
+	}
+	
+	@Override
+	public void reset() throws IOException {
+		channel.position(0);
+		buffer.clear().flip();
+		eof = false;
+		lineNumber = 0;
+		first = 0;
+		
+		if(header) skipLine();
+		
+		//Fill the lines up to the first target, lines after the end of the file are marked as missing
+		boolean end = false;
+		for(int index = 0; index < lines.length; index++) {
+			if(end) {
+				lines[index] = null;
+				continue;
+			}
+			
+			if(columns < 0) {
+				lines[index] = readFirstLine();
+				end = lines[index] == null;
+				continue;
+			}
+			
+			if(lines[index] == null) lines[index] = new double[columns];
+			if(!readLine(lines[index])) {
+				lines[index] = null;
+				end = true;
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	/**
+	 * Helper function to read the first line of the file, which sets the number of columns
+	 */
+	private double[] readFirstLine() throws IOException {
+		double[] values = new double[16];
+		int count = 0;
+		
+		if(!skipBlankLines()) return null;
+		lineNumber++;
+		
+		while(true) {
+			if(count == values.length) {
+				double[] grown = new double[values.length * 2];
+				System.arraycopy(values, 0, grown, 0, count);
+				values = grown;
+			}
+			
+			values[count++] = parseNumber();
+			
+			int b = read();
+			if(b == ',') continue;
+			if(b == '\r') b = read();
+			if(b == '\n' || b == -1) break;
+			
+			throw new IOException("Unexpected character on line " + lineNumber);
+		}
+		
+		columns = count;
+		
+		double[] ret = new double[count];
+		System.arraycopy(values, 0, ret, 0, count);
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to parse the next line into an array
+	 * @return false if there are no more lines
+	 */
+	private boolean readLine(double[] dest) throws IOException {
+		if(!skipBlankLines()) return false;
+		lineNumber++;
+		
+		for(int col = 0; col < columns; col++) {
+			dest[col] = parseNumber();
+			
+			int b = read();
+			if(b == '\r') b = read();
+			
+			boolean end = b == '\n' || b == -1;
+			if(col < columns - 1 && b == ',') continue;
+			if(col == columns - 1 && end) return true;
+			
+			throw new IOException("Line " + lineNumber + " does not hold " + columns + " columns");
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Helper function to skip a line without parsing it
+	 */
+	private void skipLine() throws IOException {
+		int b;
+		while((b = read()) != '\n' && b != -1);
+	}
+	
+	/**
+	 * Helper function to skip blank lines
+	 * @return false if the end of the file was reached
+	 */
+	private boolean skipBlankLines() throws IOException {
+		while(true) {
+			int b = peek();
+			if(b == -1) return false;
+			if(b != '\n' && b != '\r') return true;
+			
+			read();
+		}
+	}
+	
+	/**
+	 * Helper function to parse a number directly from the bytes of the file.<br>
+	 * Numbers with at most 15 significant digits and a small exponent are computed exactly with a single
+	 * multiplication or division; any other number is passed to Double.parseDouble()
+	 */
+	private double parseNumber() throws IOException {
+		while(peek() == ' ') read();
+		
+		tokenStart = buffer.position();
+		
+		boolean negative = false;
+		if(peek() == '-' || peek() == '+') negative = read() == '-';
+		
+		long mantissa = 0;
+		int digits = 0, scale = 0;
+		boolean any = false;
+		
+		int b;
+		while((b = peek()) >= '0' && b <= '9') {
+			read();
+			any = true;
+			if(mantissa == 0 && b == '0') continue;
+			if(digits < 18) {
+				mantissa = mantissa * 10 + (b - '0');
+				digits++;
+			} else scale++;
+		}
+		
+		if(peek() == '.') {
+			read();
+			while((b = peek()) >= '0' && b <= '9') {
+				read();
+				any = true;
+				if(mantissa == 0 && b == '0') {
+					scale--;
+					continue;
+				}
+				if(digits < 18) {
+					mantissa = mantissa * 10 + (b - '0');
+					digits++;
+					scale--;
+				}
+			}
+		}
+		
+		if(!any) return parseFallback();
+		
+		if(peek() == 'e' || peek() == 'E') {
+			read();
+			boolean negExp = false;
+			if(peek() == '-' || peek() == '+') negExp = read() == '-';
+			
+			int exp = 0;
+			boolean expDigits = false;
+			while((b = peek()) >= '0' && b <= '9') {
+				read();
+				expDigits = true;
+				if(exp < 10000) exp = exp * 10 + (b - '0');
+			}
+			
+			if(!expDigits) throw new IOException("Invalid number on line " + lineNumber);
+			scale += negExp ? -exp : exp;
+		}
+		
+		while(peek() == ' ') read();
+		
+		double ret;
+		if(mantissa == 0) ret = 0;
+		else if(digits <= 15 && scale >= 0 && scale < POW10.length) ret = mantissa * POW10[scale];
+		else if(digits <= 15 && scale < 0 && -scale < POW10.length) ret = mantissa / POW10[-scale];
+		else return parseFallback();
+		
+		tokenStart = -1;
+		
+		return negative ? -ret : ret;
+	}
+	
+	/**
+	 * Helper function to parse a token that is not a plain number, such as NaN or Infinity
+	 */
+	private double parseFallback() throws IOException {
+		int b;
+		while((b = peek()) != ',' && b != '\n' && b != '\r' && b != -1) read();
+		
+		String token = new String(slice(tokenStart), StandardCharsets.US_ASCII).trim();
+		tokenStart = -1;
+		
+		try {
+			return Double.parseDouble(token);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid number \"" + token + "\" on line " + lineNumber);
+		}
+	}
+	
+	/**
+	 * Helper function to copy the bytes read since a position in the buffer
+	 */
+	private byte[] slice(int start) {
+		byte[] ret = new byte[buffer.position() - start];
+		for(int index = 0; index < ret.length; index++) ret[index] = buffer.get(start + index);
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to look at the next byte without consuming it
+	 * @return Next byte, or -1 at the end of the file
+	 */
+	private int peek() throws IOException {
+		if(!buffer.hasRemaining() && !fill()) return -1;
+		
+		return buffer.get(buffer.position()) & 0xFF;
+	}
+	
+	/**
+	 * Helper function to consume the next byte
+	 * @return Next byte, or -1 at the end of the file
+	 */
+	private int read() throws IOException {
+		if(!buffer.hasRemaining() && !fill()) return -1;
+		
+		return buffer.get() & 0xFF;
+	}
+	
+	/**
+	 * Helper function to read the next chunk of the file into the buffer.<br>
+	 * The number being parsed is kept at the start of the buffer, so a number that spans 2 chunks can still be
+	 * sliced
+	 * @return false if the end of the file was reached
+	 */
+	private boolean fill() throws IOException {
+		if(eof) return false;
+		
+		int keep = tokenStart >= 0 ? tokenStart : buffer.position();
+		int offset = buffer.position() - keep;
+		
+		buffer.position(keep);
+		buffer.compact();
+		if(!buffer.hasRemaining()) throw new IOException("Number on line " + lineNumber + " is too long");
+		
+		int count = channel.read(buffer);
+		buffer.flip();
+		buffer.position(offset);
+		
+		if(tokenStart >= 0) tokenStart = 0;
+		if(count == -1) eof = true;
+		
+		return count > 0;
+	}
+	
+	/**
+	 * Helper function to list every column of the file
+	 */
+	private int[] allColumns() {
+		int[] ret = new int[Math.max(columns, 0)];
+		for(int index = 0; index < ret.length; index++) ret[index] = index;
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to make sure every column exists in the file
+	 */
+	private int[] checkColumns(int[] cols) {
+		for(int col: cols) {
+			if(col < 0 || col >= columns) throw new IllegalArgumentException("Column " + col + " is not in the file");
+		}
+		
+		return cols.clone();
+	}
+}
@@ -0,0 +1,49 @@
+package javaML.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A DataSource supplies the rows of a dataset one at a time, in order, without having to hold the whole dataset
+ * in memory.<br>
+ * Every row is made of an input vector and a target vector of fixed widths, and is copied into arrays supplied by
+ * the caller so that the same arrays can be reused for every row.
+ * <br><br>
+ * A network trains from a DataSource by passing over it once to count the rows and gather the statistics used for
+ * normalization, then reading the rows again for every epoch, so a DataSource must be able to start over from its
+ * first row.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public interface DataSource extends Closeable {
+	
+	/**
+	 * Function to get the number of values in every input vector
+	 * @return Input width
+	 */
+	public int getInputWidth();
+	
+	/**
+	 * Function to get the number of values in every target vector
+	 * @return Target width
+	 */
+	public int getTargetWidth();
+	
+	/**
+	 * Function to read the next row
+	 * @param input Array the input vector is copied into, of length getInputWidth()
+	 * @param target Array the target vector is copied into, of length getTargetWidth()
+	 * @return true if a row was read, false if every row has already been read
+	 * @throws IOException if the row could not be read
+	 */
+	public boolean next(double[] input, double[] target) throws IOException;
+	
+	/**
+	 * Function to start over from the first row
+	 * @throws IOException if the source could not be rewound
+	 */
+	public void reset() throws IOException;
+}
@@ -0,0 +1,522 @@
+package javaML.data;
+
+import java.util.Random;
+
+/**
+ * The Dataset class holds the datapoints used to train a network, where every datapoint is a row made of an
+ * input vector and a target vector.<br>
+ * Unlike the double[][][] dataset arrays, which hold 3 small arrays for every datapoint, a Dataset stores all
+ * inputs in one contiguous array and all targets in another, with a fixed width for every row. This keeps a
+ * large dataset close to the size of its raw values.
+ * <br><br>
+ * Views, splits and shuffles never copy the values. Each of them creates a new Dataset over the same arrays that
+ * only changes which rows are visible and in which order, so modifying a value through a view also modifies it in
+ * every Dataset sharing the arrays. Use copy() for an independent Dataset.
+ * <br><br>
+ * A Dataset created in memory holds its values in Java arrays, so the number of rows multiplied by the width of a
+ * row cannot exceed the maximum size of an array. A Dataset mapped from a file by DatasetFile.map() reads its
+ * values directly from the mapping instead and is only limited in its number of rows.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class Dataset {
+	
+	private final Storage storage;
+	private final int inputWidth, targetWidth;
+	
+	//Storage rows in view order, or null when the rows are in storage order
+	private final int[] order;
+	
+	//First row of the view and number of rows it holds
+	private final int start, size;
+	
+	/**
+	 * Constructor to create a Dataset with every value set to 0
+	 * @param size Number of rows
+	 * @param inputWidth Number of values in every input vector
+	 * @param targetWidth Number of values in every target vector
+	 */
+	public Dataset(int size, int inputWidth, int targetWidth) {
+		this(new double[checkedLength(size, inputWidth)], inputWidth, new double[checkedLength(size, targetWidth)],
+				targetWidth);
+	}
+	
+	/**
+	 * Constructor to wrap existing arrays of row-major values as a Dataset, no values are copied
+	 * @param inputs Input vectors of every row one after another
+	 * @param inputWidth Number of values in every input vector
+	 * @param targets Target vectors of every row one after another
+	 * @param targetWidth Number of values in every target vector
+	 */
+	public Dataset(double[] inputs, int inputWidth, double[] targets, int targetWidth) {
+		this(new ArrayStorage(inputs, inputWidth, targets, targetWidth), inputs.length / inputWidth,
+				inputWidth, targetWidth);
+	}
+	
+	/**
+	 * Constructor to be called only by classes of the data package<br>
+	 * Creates a Dataset over every row of a Storage
+	 * @param storage Storage holding the values
+	 * @param size Number of rows in the Storage
+	 * @param inputWidth Number of values in every input vector
+	 * @param targetWidth Number of values in every target vector
+	 */
+	Dataset(Storage storage, int size, int inputWidth, int targetWidth) {
+		this.storage = storage;
+		this.inputWidth = inputWidth;
+		this.targetWidth = targetWidth;
+		this.order = null;
+		this.start = 0;
+		this.size = size;
+	}
+	
+	/**
+	 * Constructor for views over the storage of another Dataset
+	 */
+	private Dataset(Dataset source, int[] order, int start, int size) {
+		this.storage = source.storage;
+		this.inputWidth = source.inputWidth;
+		this.targetWidth = source.targetWidth;
+		this.order = order;
+		this.start = start;
+		this.size = size;
+	}
+	
+	/**
+	 * Function to convert a dataset array to a Dataset.<br>
+	 * In order for the conversion to work, data should be formatted such that
+	 * { { {Input Data 1}, {Target Output Data 1} }, { {Input Data 2}, {Target Output Data 2} }, ... }
+	 * and every input and every target should be of the same length
+	 * @param data Dataset array to be converted
+	 * @return Dataset holding a copy of the values
+	 */
+	public static Dataset of(double[][][] data) {
+		int inputWidth = data[0][0].length;
+		int targetWidth = data[0][1].length;
+		
+		Dataset ret = new Dataset(data.length, inputWidth, targetWidth);
+		for(int row = 0; row < data.length; row++) {
+			if(data[row][0].length != inputWidth || data[row][1].length != targetWidth)
+				throw new IllegalArgumentException("Datapoint " + row + " does not match the width of the dataset");
+			
+			ret.storage.setInputs(data[row][0], row);
+			ret.storage.setTargets(data[row][1], row);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to create a time series Dataset as a sliding window over a single series, no values are copied.<br>
+	 * The series holds one timestep after another, each of the same width. Every row is a timestep t of the
+	 * series, where the input vector is made of the timesteps {t, t - 1, ..., t - lags + 1}, most recent first, and
+	 * the target vector is the timestep t + horizon. Rows start at the first timestep with enough history and move
+	 * stride timesteps forward at a time.<br>
+	 * Values are read from the series every time they are accessed, so the Dataset is read only and uses no memory
+	 * besides the series. Changes to the series are seen by the Dataset.<br>
+	 * As an example, a lag of 1, horizon of 1 and stride of 1 gives the same datapoints as
+	 * DataTransformations.generateTimeSeriesDataset()
+	 * @param series Values of every timestep one after another
+	 * @param width Number of values in every timestep
+	 * @param lags Number of timesteps in every input vector
+	 * @param horizon Number of timesteps between the most recent input timestep and the target timestep
+	 * @param stride Number of timesteps between 2 consecutive rows
+	 * @return Windowed Dataset over the series
+	 */
+	public static Dataset window(double[] series, int width, int lags, int horizon, int stride) {
+		if(width <= 0 || lags <= 0 || horizon < 0 || stride <= 0)
+			throw new IllegalArgumentException("Invalid window");
+		if(series.length % width != 0) throw new IllegalArgumentException("Series does not hold whole timesteps");
+		
+		int timesteps = series.length / width;
+		int last = timesteps - 1 - horizon;
+		if(last < lags - 1) throw new IllegalArgumentException("Series is too short for the window");
+		
+		int size = (last - (lags - 1)) / stride + 1;
+		if((long) lags * width > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Window is too wide");
+		
+		return new Dataset(new WindowStorage(series, width, lags, horizon, stride), size, lags * width, width);
+	}
+	
+	/**
+	 * Function to get the number of rows in the Dataset
+	 * @return Number of rows
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Function to get the number of values in every input vector
+	 * @return Input width
+	 */
+	public int getInputWidth() {
+		return this.inputWidth;
+	}
+	
+	/**
+	 * Function to get the number of values in every target vector
+	 * @return Target width
+	 */
+	public int getTargetWidth() {
+		return this.targetWidth;
+	}
+	
+	/**
+	 * Function to get a single input value
+	 * @param row Row of the value
+	 * @param col Position of the value in the input vector
+	 * @return Input value
+	 */
+	public double getInput(int row, int col) {
+		return storage.getInput(storageRow(row), col);
+	}
+	
+	/**
+	 * Function to get a single target value
+	 * @param row Row of the value
+	 * @param col Position of the value in the target vector
+	 * @return Target value
+	 */
+	public double getTarget(int row, int col) {
+		return storage.getTarget(storageRow(row), col);
+	}
+	
+	/**
+	 * Function to set a single input value
+	 * @param value Value to be set
+	 * @param row Row of the value
+	 * @param col Position of the value in the input vector
+	 */
+	public void setInput(double value, int row, int col) {
+		storage.setInput(value, storageRow(row), col);
+	}
+	
+	/**
+	 * Function to set a single target value
+	 * @param value Value to be set
+	 * @param row Row of the value
+	 * @param col Position of the value in the target vector
+	 */
+	public void setTarget(double value, int row, int col) {
+		storage.setTarget(value, storageRow(row), col);
+	}
+	
+	/**
+	 * Function to copy the input vector of a row into an array, so that the same array can be reused for every row
+	 * @param row Row to be copied
+	 * @param dest Array to copy into; a new array is created if it is null or not the width of an input vector
+	 * @return The array holding the input vector
+	 */
+	public double[] getInput(int row, double[] dest) {
+		if(dest == null || dest.length != inputWidth) dest = new double[inputWidth];
+		
+		storage.getInputs(storageRow(row), dest, 0);
+		
+		return dest;
+	}
+	
+	/**
+	 * Function to copy the target vector of a row into an array, so that the same array can be reused for every
+	 * row
+	 * @param row Row to be copied
+	 * @param dest Array to copy into; a new array is created if it is null or not the width of a target vector
+	 * @return The array holding the target vector
+	 */
+	public double[] getTarget(int row, double[] dest) {
+		if(dest == null || dest.length != targetWidth) dest = new double[targetWidth];
+		
+		storage.getTargets(storageRow(row), dest, 0);
+		
+		return dest;
+	}
+	
+	/**
+	 * Function to create a view of a range of rows, no values are copied
+	 * @param from First row of the view
+	 * @param to Row after the last row of the view
+	 * @return Dataset holding rows from (inclusive) to to (exclusive)
+	 */
+	public Dataset view(int from, int to) {
+		if(from < 0 || to > size || from > to) throw new IndexOutOfBoundsException("Invalid view range");
+		
+		return new Dataset(this, order, start + from, to - from);
+	}
+	
+	/**
+	 * Function to split the Dataset into 2 views, no values are copied
+	 * @param splitPoint Row to split at; the row at the splitPoint will be the first row of the second view
+	 * @return Array of size 2 where ret[0] is the first view and ret[1] is the second
+	 */
+	public Dataset[] split(int splitPoint) {
+		return new Dataset[] {view(0, splitPoint), view(splitPoint, size)};
+	}
+	
+	/**
+	 * Function to create a view of the rows in a random order, no values are copied
+	 * @param random Source of randomness used for the order
+	 * @return Shuffled view of the Dataset
+	 */
+	public Dataset shuffle(Random random) {
+		int[] shuffled = new int[size];
+		for(int row = 0; row < size; row++) shuffled[row] = storageRow(row);
+		
+		//Fisher-Yates shuffle
+		for(int row = size - 1; row > 0; row--) {
+			int swap = random.nextInt(row + 1);
+			int temp = shuffled[row];
+			shuffled[row] = shuffled[swap];
+			shuffled[swap] = temp;
+		}
+		
+		return new Dataset(this, shuffled, 0, size);
+	}
+	
+	/**
+	 * Function to copy the visible rows into a new contiguous Dataset in memory that shares nothing with this one
+	 * @return Copied Dataset
+	 */
+	public Dataset copy() {
+		double[] inputs = new double[checkedLength(size, inputWidth)];
+		double[] targets = new double[checkedLength(size, targetWidth)];
+		
+		for(int row = 0; row < size; row++) {
+			storage.getInputs(storageRow(row), inputs, row * inputWidth);
+			storage.getTargets(storageRow(row), targets, row * targetWidth);
+		}
+		
+		return new Dataset(inputs, inputWidth, targets, targetWidth);
+	}
+	
+	/**
+	 * Function to convert the Dataset back into a dataset array
+	 * @return Dataset array of the visible rows in the format { { {Input 1}, {Target 1} }, ... }
+	 */
+	public double[][][] toArray() {
+		double[][][] ret = new double[size][2][];
+		
+		for(int row = 0; row < size; row++) {
+			ret[row][0] = getInput(row, null);
+			ret[row][1] = getTarget(row, null);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to find where a row of the view is stored
+	 */
+	private int storageRow(int row) {
+		if(row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " is outside of the Dataset");
+		
+		return order == null ? start + row : order[start + row];
+	}
+	
+	/**
+	 * Helper function to find the length of an array holding rows of a given width
+	 */
+	private static int checkedLength(int size, int width) {
+		long length = (long) size * width;
+		if(size < 0 || length > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Dataset is too large to be held in an array");
+		
+		return (int) length;
+	}
+	
+	/**
+	 * The Storage holds the values of every row of a Dataset, in storage order, and is shared by all of its views
+	 */
+	static abstract class Storage {
+		
+		/**
+		 * Function to get a single input value
+		 * @param row Storage row of the value
+		 * @param col Position of the value in the input vector
+		 * @return Input value
+		 */
+		abstract double getInput(int row, int col);
+		
+		/**
+		 * Function to get a single target value
+		 * @param row Storage row of the value
+		 * @param col Position of the value in the target vector
+		 * @return Target value
+		 */
+		abstract double getTarget(int row, int col);
+		
+		/**
+		 * Function to set a single input value
+		 * @param value Value to be set
+		 * @param row Storage row of the value
+		 * @param col Position of the value in the input vector
+		 */
+		abstract void setInput(double value, int row, int col);
+		
+		/**
+		 * Function to set a single target value
+		 * @param value Value to be set
+		 * @param row Storage row of the value
+		 * @param col Position of the value in the target vector
+		 */
+		abstract void setTarget(double value, int row, int col);
+		
+		/**
+		 * Function to copy the input vector of a row into an array
+		 * @param row Storage row to be copied
+		 * @param dest Array to copy into
+		 * @param offset Position in dest of the first value
+		 */
+		abstract void getInputs(int row, double[] dest, int offset);
+		
+		/**
+		 * Function to copy the target vector of a row into an array
+		 * @param row Storage row to be copied
+		 * @param dest Array to copy into
+		 * @param offset Position in dest of the first value
+		 */
+		abstract void getTargets(int row, double[] dest, int offset);
+		
+		/**
+		 * Function to set the input vector of a row
+		 * @param values Input vector
+		 * @param row Storage row to be set
+		 */
+		abstract void setInputs(double[] values, int row);
+		
+		/**
+		 * Function to set the target vector of a row
+		 * @param values Target vector
+		 * @param row Storage row to be set
+		 */
+		abstract void setTargets(double[] values, int row);
+	}
+	
+	/**
+	 * Storage of the values in 2 contiguous arrays of row-major vectors
+	 */
+	private static final class ArrayStorage extends Storage {
+		
+		private final double[] inputs, targets;
+		private final int inputWidth, targetWidth;
+		
+		private ArrayStorage(double[] inputs, int inputWidth, double[] targets, int targetWidth) {
+			if(inputWidth <= 0 || targetWidth <= 0) throw new IllegalArgumentException("Row widths must be positive");
+			if(inputs.length % inputWidth != 0 || targets.length % targetWidth != 0
+					|| inputs.length / inputWidth != targets.length / targetWidth)
+				throw new IllegalArgumentException("Inputs and targets do not hold the same number of rows");
+			
+			this.inputs = inputs;
+			this.targets = targets;
+			this.inputWidth = inputWidth;
+			this.targetWidth = targetWidth;
+		}
+		
+		@Override
+		double getInput(int row, int col) {
+			return inputs[row * inputWidth + col];
+		}
+		
+		@Override
+		double getTarget(int row, int col) {
+			return targets[row * targetWidth + col];
+		}
+		
+		@Override
+		void setInput(double value, int row, int col) {
+			inputs[row * inputWidth + col] = value;
+		}
+		
+		@Override
+		void setTarget(double value, int row, int col) {
+			targets[row * targetWidth + col] = value;
+		}
+		
+		@Override
+		void getInputs(int row, double[] dest, int offset) {
+			System.arraycopy(inputs, row * inputWidth, dest, offset, inputWidth);
+		}
+		
+		@Override
+		void getTargets(int row, double[] dest, int offset) {
+			System.arraycopy(targets, row * targetWidth, dest, offset, targetWidth);
+		}
+		
+		@Override
+		void setInputs(double[] values, int row) {
+			System.arraycopy(values, 0, inputs, row * inputWidth, inputWidth);
+		}
+		
+		@Override
+		void setTargets(double[] values, int row) {
+			System.arraycopy(values, 0, targets, row * targetWidth, targetWidth);
+		}
+	}
+	
+	/**
+	 * Storage that computes the rows of a sliding window over a series every time they are accessed
+	 */
+	private static final class WindowStorage extends Storage {
+		
+		private final double[] series;
+		private final int width, lags, horizon, stride;
+		
+		private WindowStorage(double[] series, int width, int lags, int horizon, int stride) {
+			this.series = series;
+			this.width = width;
+			this.lags = lags;
+			this.horizon = horizon;
+			this.stride = stride;
+		}
+		
+		@Override
+		double getInput(int row, int col) {
+			return series[(timestep(row) - col / width) * width + col % width];
+		}
+		
+		@Override
+		double getTarget(int row, int col) {
+			return series[(timestep(row) + horizon) * width + col];
+		}
+		
+		@Override
+		void getInputs(int row, double[] dest, int offset) {
+			int t = timestep(row);
+			for(int lag = 0; lag < lags; lag++) System.arraycopy(series, (t - lag) * width, dest, offset + lag * width, width);
+		}
+		
+		@Override
+		void getTargets(int row, double[] dest, int offset) {
+			System.arraycopy(series, (timestep(row) + horizon) * width, dest, offset, width);
+		}
+		
+		@Override
+		void setInput(double value, int row, int col) {
+			throw new UnsupportedOperationException("Windowed Datasets are read only");
+		}
+		
+		@Override
+		void setTarget(double value, int row, int col) {
+			throw new UnsupportedOperationException("Windowed Datasets are read only");
+		}
+		
+		@Override
+		void setInputs(double[] values, int row) {
+			throw new UnsupportedOperationException("Windowed Datasets are read only");
+		}
+		
+		@Override
+		void setTargets(double[] values, int row) {
+			throw new UnsupportedOperationException("Windowed Datasets are read only");
+		}
+		
+		/**
+		 * Helper function to find the most recent input timestep of a row
+		 */
+		private int timestep(int row) {
+			return lags - 1 + row * stride;
+		}
+	}
+}
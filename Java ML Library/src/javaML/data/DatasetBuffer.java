@@ -0,0 +1,184 @@
+package javaML.data;
+
+/**
+ * The DatasetBuffer is a Dataset that can grow: rows are appended after the rows of an existing Dataset without
+ * copying that Dataset.<br>
+ * Appended rows are stored in contiguous arrays that double in capacity when full, so appending takes amortized
+ * constant time per row.
+ * <br><br>
+ * Views of the buffer are Datasets over the rows that existed when the view was created. Appending never changes
+ * the rows of an existing view, so views can be read while more rows are appended, though a single buffer should
+ * only be appended to by one thread at a time.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class DatasetBuffer {
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	//Rows that existed before the buffer, read without being copied
+	private final Dataset base;
+	private final int inputWidth, targetWidth;
+	
+	//Appended rows
+	private double[] inputs, targets;
+	private int rows = 0;
+	
+	/**
+	 * Constructor for a buffer whose first rows are the rows of a Dataset
+	 * @param base Dataset whose rows come first, it should not be resized or modified while the buffer is in use
+	 */
+	public DatasetBuffer(Dataset base) {
+		this.base = base;
+		this.inputWidth = base.getInputWidth();
+		this.targetWidth = base.getTargetWidth();
+		
+		this.inputs = new double[INITIAL_CAPACITY * inputWidth];
+		this.targets = new double[INITIAL_CAPACITY * targetWidth];
+	}
+	
+	/**
+	 * Function to get the number of rows in the buffer
+	 * @return Number of rows, including the rows of the base Dataset
+	 */
+	public int size() {
+		return base.size() + rows;
+	}
+	
+	/**
+	 * Function to add a row to the end of the buffer
+	 * @param input Input vector of the row
+	 * @param target Target vector of the row
+	 */
+	public void append(double[] input, double[] target) {
+		if(input.length != inputWidth || target.length != targetWidth)
+			throw new IllegalArgumentException("Row does not match the width of the buffer");
+		
+		if(rows * inputWidth == inputs.length || rows * targetWidth == targets.length) grow();
+		
+		System.arraycopy(input, 0, inputs, rows * inputWidth, inputWidth);
+		System.arraycopy(target, 0, targets, rows * targetWidth, targetWidth);
+		rows++;
+	}
+	
+	/**
+	 * Function to add every row of a Dataset to the end of the buffer
+	 * @param data Dataset whose rows are copied
+	 */
+	public void append(Dataset data) {
+		double[] input = new double[inputWidth];
+		double[] target = new double[targetWidth];
+		
+		for(int row = 0; row < data.size(); row++) append(data.getInput(row, input), data.getTarget(row, target));
+	}
+	
+	/**
+	 * Function to create a Dataset over a range of the rows currently in the buffer, no values are copied
+	 * @param from First row of the view
+	 * @param to Row after the last row of the view
+	 * @return Dataset holding rows from (inclusive) to to (exclusive)
+	 */
+	public Dataset view(int from, int to) {
+		BufferStorage storage = new BufferStorage(base, inputs, targets, inputWidth, targetWidth);
+		
+		return new Dataset(storage, size(), inputWidth, targetWidth).view(from, to);
+	}
+	
+	/**
+	 * Helper function to double the capacity of the arrays of appended rows
+	 */
+	private void grow() {
+		int capacity = (int) Math.min((long) rows * 2, (Integer.MAX_VALUE - 8) / Math.max(inputWidth, targetWidth));
+		if(capacity <= rows) throw new IllegalStateException("Buffer is too large to be held in an array");
+		
+		double[] grownInputs = new double[capacity * inputWidth];
+		double[] grownTargets = new double[capacity * targetWidth];
+		
+		System.arraycopy(inputs, 0, grownInputs, 0, rows * inputWidth);
+		System.arraycopy(targets, 0, grownTargets, 0, rows * targetWidth);
+		
+		//Views created before keep the old arrays, which still hold every row they can see
+		inputs = grownInputs;
+		targets = grownTargets;
+	}
+	
+	/**
+	 * Storage reading the first rows from the base Dataset and the rest from the arrays of appended rows
+	 */
+	private static final class BufferStorage extends Dataset.Storage {
+		
+		private final Dataset base;
+		private final double[] inputs, targets;
+		private final int baseSize, inputWidth, targetWidth;
+		
+		private BufferStorage(Dataset base, double[] inputs, double[] targets, int inputWidth, int targetWidth) {
+			this.base = base;
+			this.inputs = inputs;
+			this.targets = targets;
+			this.baseSize = base.size();
+			this.inputWidth = inputWidth;
+			this.targetWidth = targetWidth;
+		}
+		
+		@Override
+		double getInput(int row, int col) {
+			if(row < baseSize) return base.getInput(row, col);
+			
+			return inputs[(row - baseSize) * inputWidth + col];
+		}
+		
+		@Override
+		double getTarget(int row, int col) {
+			if(row < baseSize) return base.getTarget(row, col);
+			
+			return targets[(row - baseSize) * targetWidth + col];
+		}
+		
+		@Override
+		void setInput(double value, int row, int col) {
+			if(row < baseSize) base.setInput(value, row, col);
+			else inputs[(row - baseSize) * inputWidth + col] = value;
+		}
+		
+		@Override
+		void setTarget(double value, int row, int col) {
+			if(row < baseSize) base.setTarget(value, row, col);
+			else targets[(row - baseSize) * targetWidth + col] = value;
+		}
+		
+		@Override
+		void getInputs(int row, double[] dest, int offset) {
+			if(row < baseSize) {
+				if(offset == 0 && dest.length == inputWidth) base.getInput(row, dest);
+				else for(int col = 0; col < inputWidth; col++) dest[offset + col] = base.getInput(row, col);
+				return;
+			}
+			
+			System.arraycopy(inputs, (row - baseSize) * inputWidth, dest, offset, inputWidth);
+		}
+		
+		@Override
+		void getTargets(int row, double[] dest, int offset) {
+			if(row < baseSize) {
+				if(offset == 0 && dest.length == targetWidth) base.getTarget(row, dest);
+				else for(int col = 0; col < targetWidth; col++) dest[offset + col] = base.getTarget(row, col);
+				return;
+			}
+			
+			System.arraycopy(targets, (row - baseSize) * targetWidth, dest, offset, targetWidth);
+		}
+		
+		@Override
+		void setInputs(double[] values, int row) {
+			for(int col = 0; col < inputWidth; col++) setInput(values[col], row, col);
+		}
+		
+		@Override
+		void setTargets(double[] values, int row) {
+			for(int col = 0; col < targetWidth; col++) setTarget(values[col], row, col);
+		}
+	}
+}
@@ -0,0 +1,349 @@
+package javaML.data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The DatasetFile class converts a dataset into a compact binary file once, so that every later training run can
+ * memory-map the file instead of reading and parsing the original data again.<br>
+ * A Dataset mapped from a file reads its values directly from the mapping; nothing is copied onto the heap, so
+ * mapping is near-instant regardless of the size of the file, datasets far larger than the heap can be trained on
+ * with random access, and every process that maps the same file shares a single copy in the page cache.
+ * <br><br>
+ * The binary dataset format is laid out as follows, with every value in little-endian order:
+ * <ul>
+ * <li>Header of 64 bytes: magic number, format version, bytes per value (4 or 8), input width, target width,
+ * an unused int and the number of rows as a long, padded with zeros</li>
+ * <li>One record for every row: the input vector followed by the target vector, as floats or doubles</li>
+ * </ul>
+ * Storing values as floats halves the size of the file at the cost of rounding every value to single precision.
+ * Mapped Datasets are read only and the file should not be modified while a Dataset mapped from it is in use.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class DatasetFile {
+	
+	/**
+	 * Magic number found at the start of every binary dataset file ("JMNS")
+	 */
+	static final int MAGIC = 0x534E4D4A;
+	
+	/**
+	 * Current version of the binary dataset format
+	 */
+	static final int VERSION = 1;
+	
+	/**
+	 * File extension used by the binary dataset format
+	 */
+	public static final String EXTENSION = ".nds";
+	
+	private static final int HEADER_SIZE = 64;
+	
+	//Largest number of bytes held by a single mapping, mappings are limited to Integer.MAX_VALUE bytes
+	private static final long MAX_MAPPING = 1L << 30;
+	
+	private static final int WRITE_BUFFER = 1 << 20;
+	
+	/**
+	 * Private constructor to enforce non-instantiability
+	 */
+	private DatasetFile() { }
+	
+	/**
+	 * Function to write a dataset array to a file in the binary dataset format.<br>
+	 * In order for the conversion to work, data should be formatted such that
+	 * { { {Input Data 1}, {Target Output Data 1} }, { {Input Data 2}, {Target Output Data 2} }, ... }
+	 * and every input and every target should be of the same length
+	 * @param data Dataset array to be written
+	 * @param file File to write to, any existing file is overwritten
+	 * @param singlePrecision Set to true to store values as floats instead of doubles
+	 * @throws IOException if the file could not be written
+	 */
+	public static void write(double[][][] data, File file, boolean singlePrecision) throws IOException {
+		try(Writer out = new Writer(file, data[0][0].length, data[0][1].length, singlePrecision)) {
+			for(int row = 0; row < data.length; row++) out.write(data[row][0], data[row][1]);
+		}
+	}
+	
+	/**
+	 * Function to write the visible rows of a Dataset, in view order, to a file in the binary dataset format
+	 * @param data Dataset to be written
+	 * @param file File to write to, any existing file is overwritten
+	 * @param singlePrecision Set to true to store values as floats instead of doubles
+	 * @throws IOException if the file could not be written
+	 */
+	public static void write(Dataset data, File file, boolean singlePrecision) throws IOException {
+		double[] input = new double[data.getInputWidth()];
+		double[] target = new double[data.getTargetWidth()];
+		
+		try(Writer out = new Writer(file, input.length, target.length, singlePrecision)) {
+			for(int row = 0; row < data.size(); row++) out.write(data.getInput(row, input), data.getTarget(row, target));
+		}
+	}
+	
+	/**
+	 * Function to write every row of a DataSource, such as a CSVSource, to a file in the binary dataset format.<br>
+	 * The source is read from its first row one row at a time, so it never has to fit in memory
+	 * @param source DataSource to be written
+	 * @param file File to write to, any existing file is overwritten
+	 * @param singlePrecision Set to true to store values as floats instead of doubles
+	 * @throws IOException if the source could not be read or the file could not be written
+	 */
+	public static void write(DataSource source, File file, boolean singlePrecision) throws IOException {
+		double[] input = new double[source.getInputWidth()];
+		double[] target = new double[source.getTargetWidth()];
+		
+		source.reset();
+		try(Writer out = new Writer(file, input.length, target.length, singlePrecision)) {
+			while(source.next(input, target)) out.write(input, target);
+		}
+	}
+	
+	/**
+	 * Function to map a file written in the binary dataset format as a read-only Dataset
+	 * @param file File to be mapped
+	 * @return Dataset reading its values from the mapping
+	 * @throws IOException if the file could not be mapped or is not a valid binary dataset file
+	 */
+	public static Dataset map(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while(header.hasRemaining()) {
+				if(channel.read(header) < 0) throw new IOException("Not a binary dataset file");
+			}
+			header.flip();
+			
+			if(header.getInt() != MAGIC) throw new IOException("Not a binary dataset file");
+			int version = header.getInt();
+			if(version != VERSION) throw new IOException("Unsupported dataset file version " + version);
+			
+			int bytes = header.getInt();
+			int inputWidth = header.getInt();
+			int targetWidth = header.getInt();
+			header.getInt();
+			long rows = header.getLong();
+			
+			if(bytes != Float.BYTES && bytes != Double.BYTES) throw new IOException("Invalid value size " + bytes);
+			if(inputWidth <= 0 || targetWidth <= 0) throw new IOException("Invalid row widths");
+			if(rows <= 0 || rows > Integer.MAX_VALUE) throw new IOException("Dataset file holds " + rows + " rows");
+			
+			long rowBytes = (long) (inputWidth + targetWidth) * bytes;
+			if(channel.size() < HEADER_SIZE + rows * rowBytes) throw new IOException("Unexpected end of dataset file");
+			
+			//Rows are split across several mappings so that files larger than a single mapping are supported
+			//Mappings stay valid after the channel is closed
+			int rowsPerChunk = (int) Math.max(1, Math.min(MAX_MAPPING / rowBytes, rows));
+			ByteBuffer[] chunks = new ByteBuffer[(int) ((rows + rowsPerChunk - 1) / rowsPerChunk)];
+			
+			for(int chunk = 0; chunk < chunks.length; chunk++) {
+				long first = (long) chunk * rowsPerChunk;
+				long count = Math.min(rowsPerChunk, rows - first);
+				
+				chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * rowBytes,
+						count * rowBytes).order(ByteOrder.LITTLE_ENDIAN);
+			}
+			
+			MappedStorage storage = new MappedStorage(chunks, bytes == Float.BYTES, rowsPerChunk, inputWidth,
+					targetWidth);
+			
+			return new Dataset(storage, (int) rows, inputWidth, targetWidth);
+		}
+	}
+	
+	/**
+	 * Writes rows through a buffer and fills in the number of rows of the header once every row is written
+	 */
+	private static final class Writer implements Closeable {
+		
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+		
+		private final int inputWidth, targetWidth;
+		private final boolean singlePrecision;
+		
+		private long rows = 0;
+		
+		private Writer(File file, int inputWidth, int targetWidth, boolean singlePrecision) throws IOException {
+			if(inputWidth <= 0 || targetWidth <= 0) throw new IllegalArgumentException("Row widths must be positive");
+			if((long) (inputWidth + targetWidth) * Double.BYTES > WRITE_BUFFER)
+				throw new IllegalArgumentException("Rows are too wide to be written");
+			
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			this.inputWidth = inputWidth;
+			this.targetWidth = targetWidth;
+			this.singlePrecision = singlePrecision;
+			
+			//The header is written with 0 rows until the file is complete, so an unfinished file cannot be mapped
+			writeHeader();
+		}
+		
+		/**
+		 * Function to add a row to the file
+		 * @param input Input vector of the row
+		 * @param target Target vector of the row
+		 * @throws IOException if the row could not be written
+		 */
+		private void write(double[] input, double[] target) throws IOException {
+			if(input.length != inputWidth || target.length != targetWidth)
+				throw new IllegalArgumentException("Row " + rows + " does not match the width of the dataset");
+			
+			if(buffer.remaining() < (inputWidth + targetWidth) * Double.BYTES) flush();
+			
+			put(input);
+			put(target);
+			rows++;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+				
+				channel.position(0);
+				writeHeader();
+			} finally {
+				channel.close();
+			}
+		}
+		
+		/**
+		 * Helper function to add the values of a vector to the buffer
+		 */
+		private void put(double[] vector) {
+			if(singlePrecision) {
+				for(double value: vector) buffer.putFloat((float) value);
+			} else {
+				for(double value: vector) buffer.putDouble(value);
+			}
+		}
+		
+		/**
+		 * Helper function to write the header at the current position of the channel
+		 */
+		private void writeHeader() throws IOException {
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(singlePrecision ? Float.BYTES : Double.BYTES);
+			buffer.putInt(inputWidth);
+			buffer.putInt(targetWidth);
+			buffer.putInt(0);
+			buffer.putLong(rows);
+			while(buffer.position() < HEADER_SIZE) buffer.put((byte) 0);
+			
+			flush();
+		}
+		
+		/**
+		 * Helper function to write the content of the buffer to the file
+		 */
+		private void flush() throws IOException {
+			buffer.flip();
+			while(buffer.hasRemaining()) channel.write(buffer);
+			buffer.clear();
+		}
+	}
+	
+	/**
+	 * Storage of the values in read-only mappings of a binary dataset file, each holding a whole number of rows
+	 */
+	private static final class MappedStorage extends Dataset.Storage {
+		
+		private final DoubleBuffer[] doubles;
+		private final FloatBuffer[] floats;
+		
+		private final int rowsPerChunk, inputWidth, rowWidth;
+		
+		private MappedStorage(ByteBuffer[] chunks, boolean singlePrecision, int rowsPerChunk, int inputWidth,
+				int targetWidth) {
+			this.doubles = singlePrecision ? null : new DoubleBuffer[chunks.length];
+			this.floats = singlePrecision ? new FloatBuffer[chunks.length] : null;
+			
+			for(int chunk = 0; chunk < chunks.length; chunk++) {
+				if(singlePrecision) floats[chunk] = chunks[chunk].asFloatBuffer();
+				else doubles[chunk] = chunks[chunk].asDoubleBuffer();
+			}
+			
+			this.rowsPerChunk = rowsPerChunk;
+			this.inputWidth = inputWidth;
+			this.rowWidth = inputWidth + targetWidth;
+		}
+		
+		@Override
+		double getInput(int row, int col) {
+			return get(row, col);
+		}
+		
+		@Override
+		double getTarget(int row, int col) {
+			return get(row, inputWidth + col);
+		}
+		
+		@Override
+		void getInputs(int row, double[] dest, int offset) {
+			get(row, 0, dest, offset, inputWidth);
+		}
+		
+		@Override
+		void getTargets(int row, double[] dest, int offset) {
+			get(row, inputWidth, dest, offset, rowWidth - inputWidth);
+		}
+		
+		@Override
+		void setInput(double value, int row, int col) {
+			throw new UnsupportedOperationException("Datasets mapped from a file are read only");
+		}
+		
+		@Override
+		void setTarget(double value, int row, int col) {
+			throw new UnsupportedOperationException("Datasets mapped from a file are read only");
+		}
+		
+		@Override
+		void setInputs(double[] values, int row) {
+			throw new UnsupportedOperationException("Datasets mapped from a file are read only");
+		}
+		
+		@Override
+		void setTargets(double[] values, int row) {
+			throw new UnsupportedOperationException("Datasets mapped from a file are read only");
+		}
+		
+		/**
+		 * Helper function to read a single value of a row
+		 */
+		private double get(int row, int position) {
+			int chunk = row / rowsPerChunk;
+			int index = (row - chunk * rowsPerChunk) * rowWidth + position;
+			
+			return doubles != null ? doubles[chunk].get(index) : floats[chunk].get(index);
+		}
+		
+		/**
+		 * Helper function to copy consecutive values of a row into an array
+		 */
+		private void get(int row, int position, double[] dest, int offset, int length) {
+			int chunk = row / rowsPerChunk;
+			int index = (row - chunk * rowsPerChunk) * rowWidth + position;
+			
+			if(doubles != null) {
+				doubles[chunk].get(index, dest, offset, length);
+				return;
+			}
+			
+			FloatBuffer values = floats[chunk];
+			for(int value = 0; value < length; value++) dest[offset + value] = values.get(index + value);
+		}
+	}
+}
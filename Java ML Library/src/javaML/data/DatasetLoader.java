@@ -0,0 +1,135 @@
+package javaML.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * The DatasetLoader reads batches from the rows of a Dataset, normalizing every row as it is read.
+ * <br><br>
+ * The rows can be read in a shuffled order instead of the order they are stored in. Row i of the loader is then
+ * row order[i] of the Dataset, where order is a permutation of the rows drawn for every epoch, so every epoch visits
+ * the rows in a different order without any row being moved or copied. The loader moves on to the next epoch every
+ * time the first row is read again. The permutation of an epoch is drawn from a generator seeded with the seed and
+ * the number of the epoch, so the same seed always gives the same sequence of epochs, and a loader can start in
+ * any epoch, such as when training resumes from a checkpoint.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class DatasetLoader implements BatchLoader {
+	
+	private final Dataset data;
+	private final Normalizer normalizer;
+	
+	//Odd constant that separates the seeds of the generators of consecutive epochs
+	private static final long EPOCH_GAMMA = 0xBF58476D1CE4E5B9L;
+	
+	//Permutation of the rows of the current epoch, or null in storage order
+	private final int[] order;
+	private final long seed;
+	private int epoch;
+	
+	//Whether a row of the current epoch was read, so reading the first row moves on to the next epoch
+	private boolean started = false;
+	
+	/**
+	 * Constructor for a DatasetLoader reading the rows in the order they are stored in
+	 * @param data Dataset whose rows are read
+	 * @param normalizer Statistics every row is normalized with, or null to read the rows unchanged
+	 */
+	public DatasetLoader(Dataset data, Normalizer normalizer) {
+		this.data = data;
+		this.normalizer = normalizer;
+		this.order = null;
+		this.seed = 0;
+	}
+	
+	/**
+	 * Constructor for a DatasetLoader reading the rows in a shuffled order
+	 * @param data Dataset whose rows are read
+	 * @param normalizer Statistics every row is normalized with, or null to read the rows unchanged
+	 * @param seed Seed the order of every epoch is drawn from
+	 */
+	public DatasetLoader(Dataset data, Normalizer normalizer, long seed) {
+		this(data, normalizer, seed, 0);
+	}
+	
+	/**
+	 * Constructor for a DatasetLoader reading the rows in a shuffled order, starting in a given epoch<br>
+	 * The rows read before the first row is read again are in the order of that epoch, wherever the first read
+	 * starts
+	 * @param data Dataset whose rows are read
+	 * @param normalizer Statistics every row is normalized with, or null to read the rows unchanged
+	 * @param seed Seed the order of every epoch is drawn from
+	 * @param epoch Number of the epoch, counted from 0
+	 */
+	public DatasetLoader(Dataset data, Normalizer normalizer, long seed, int epoch) {
+		this.data = data;
+		this.normalizer = normalizer;
+		this.order = new int[data.size()];
+		this.seed = seed;
+		
+		shuffle(epoch);
+	}
+	
+	@Override
+	public int getInputWidth() {
+		return data.getInputWidth();
+	}
+	
+	@Override
+	public int getTargetWidth() {
+		return data.getTargetWidth();
+	}
+	
+	@Override
+	public int size() {
+		return data.size();
+	}
+	
+	@Override
+	public void read(int start, Batch batch) {
+		for(int index = 0; index < batch.size(); index++) {
+			int row = (int) (((long) start + index) % data.size());
+			
+			if(order != null) {
+				if(row == 0 && started) shuffle(epoch + 1);
+				
+				started = true;
+				row = order[row];
+			}
+			
+			data.getInput(row, batch.getInput(index));
+			data.getTarget(row, batch.getTarget(index));
+			
+			if(normalizer != null) {
+				normalizer.normalizeInput(batch.getInput(index));
+				normalizer.normalizeTarget(batch.getTarget(index));
+			}
+		}
+	}
+	
+	@Override
+	public void close() { }
+	
+	/**
+	 * Helper function to draw the order of an epoch with a Fisher-Yates shuffle of the storage order
+	 * @param epoch Number of the epoch
+	 */
+	private void shuffle(int epoch) {
+		SplittableRandom random = new SplittableRandom(seed + epoch * EPOCH_GAMMA);
+		
+		this.epoch = epoch;
+		this.started = false;
+		
+		for(int row = 0; row < order.length; row++) order[row] = row;
+		for(int index = order.length - 1; index > 0; index--) {
+			int swap = random.nextInt(index + 1);
+			
+			int row = order[index];
+			order[index] = order[swap];
+			order[swap] = row;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package javaML.data;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The ImportanceSampler draws rows of a dataset in proportion to the most recent loss of every row, so training
+ * spends its steps on the rows the network still gets wrong instead of on the rows it has already learned.
+ * <br><br>
+ * The most recent loss of every row is kept in a float array and summed in a Fenwick tree, so drawing a row and
+ * updating its loss both take O(log n) time. Every row starts with a loss of 1, so rows that have not been trained
+ * on yet are drawn early. A fraction of the draws are uniform over every row, which keeps rows with a small loss
+ * from never being drawn again and bounds the importance weights.
+ * <br><br>
+ * Drawing rows by their loss biases the gradient towards those rows. The bias is corrected by scaling the gradient
+ * of every drawn row by its importance weight, 1 / (n * p), where p is the probability the row was drawn with, so
+ * the expected gradient is the same as with rows drawn uniformly.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class ImportanceSampler {
+	
+	private static final float INITIAL_LOSS = 1;
+	
+	private final int size;
+	private final double uniform;
+	private final SplittableRandom random;
+	
+	//Most recent loss of every row, and the Fenwick tree of their sums
+	private final float[] losses;
+	private final double[] tree;
+	private double total;
+	
+	//Updates since the tree was last rebuilt from the losses, to stop rounding errors from accumulating
+	private int updates = 0;
+	
+	/**
+	 * Constructor for an ImportanceSampler where every row is equally likely to be drawn
+	 * @param size Number of rows to draw from
+	 * @param uniform Fraction of the draws that are uniform over every row, between 0 and 1
+	 * @param seed Seed of the generator the rows are drawn with
+	 */
+	public ImportanceSampler(int size, double uniform, long seed) {
+		this(size, uniform, new SplittableRandom(seed));
+		
+		if(!(uniform >= 0 && uniform <= 1)) throw new IllegalArgumentException("Uniform fraction must be between 0 and 1");
+	}
+	
+	/**
+	 * Constructor for an ImportanceSampler where every row is equally likely to be drawn, drawing from an
+	 * existing generator
+	 */
+	private ImportanceSampler(int size, double uniform, SplittableRandom random) {
+		if(size <= 0) throw new IllegalArgumentException("Sampler must hold at least 1 row");
+		
+		this.size = size;
+		this.uniform = uniform;
+		this.random = random;
+		
+		this.losses = new float[size];
+		this.tree = new double[size + 1];
+		
+		Arrays.fill(losses, INITIAL_LOSS);
+		rebuild();
+	}
+	
+	/**
+	 * Function to get the number of rows drawn from
+	 * @return Number of rows
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Function to get a sampler over a different number of rows that keeps the most recent losses of the rows
+	 * both samplers share, such as after rows are added to the dataset<br>
+	 * Row r of the new sampler is row r + offset of this sampler, and rows that do not exist in this sampler
+	 * start with a loss of 1. The new sampler continues drawing from the generator of this sampler, so this
+	 * sampler should no longer be used
+	 * @param size Number of rows of the new sampler
+	 * @param offset Row of this sampler that becomes row 0 of the new sampler, may be negative
+	 * @return The new sampler
+	 */
+	public ImportanceSampler resize(int size, int offset) {
+		ImportanceSampler ret = new ImportanceSampler(size, uniform, random);
+		
+		int first = Math.max(0, -offset);
+		int last = Math.min(size, this.size - offset);
+		if(first < last) System.arraycopy(losses, first + offset, ret.losses, first, last - first);
+		
+		ret.rebuild();
+		return ret;
+	}
+	
+	/**
+	 * Function to draw a row
+	 * @return Row drawn in proportion to its loss
+	 */
+	public int sample() {
+		if(total <= 0 || random.nextDouble() < uniform) return random.nextInt(size);
+		
+		//Find the first row whose running sum of losses exceeds the target
+		double target = random.nextDouble() * total;
+		int position = 0;
+		for(int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+			int next = position + step;
+			
+			if(next <= size && tree[next] <= target) {
+				target -= tree[next];
+				position = next;
+			}
+		}
+		
+		return Math.min(position, size - 1);
+	}
+	
+	/**
+	 * Function to get the probability of a row being drawn
+	 * @param row Row of the dataset
+	 * @return Probability of the row being drawn by sample()
+	 */
+	public double probability(int row) {
+		if(total <= 0) return 1.0 / size;
+		
+		return (1 - uniform) * losses[row] / total + uniform / size;
+	}
+	
+	/**
+	 * Function to get the importance weight of a row, the factor its gradient is scaled by to correct the bias of
+	 * drawing rows by their loss
+	 * @param row Row of the dataset
+	 * @return Importance weight, 1 / (n * p)
+	 */
+	public double weight(int row) {
+		return 1 / (size * probability(row));
+	}
+	
+	/**
+	 * Function to get the most recent loss of a row
+	 * @param row Row of the dataset
+	 * @return Most recent loss, or 1 if the row has not been updated
+	 */
+	public double getLoss(int row) {
+		return losses[row];
+	}
+	
+	/**
+	 * Function to record the most recent loss of a row, changing how likely it is to be drawn
+	 * @param row Row of the dataset
+	 * @param loss Loss of the row, negative losses are treated as 0
+	 */
+	public void update(int row, double loss) {
+		if(Double.isNaN(loss)) throw new IllegalArgumentException("Loss of row " + row + " is NaN");
+		
+		float value = (float) Math.max(loss, 0);
+		double delta = (double) value - losses[row];
+		losses[row] = value;
+		
+		if(++updates >= size) {
+			rebuild();
+			return;
+		}
+		
+		for(int index = row + 1; index <= size; index += index & -index) tree[index] += delta;
+		total += delta;
+	}
+	
+	/**
+	 * Helper function to build the Fenwick tree from the losses in O(n) time
+	 */
+	private void rebuild() {
+		Arrays.fill(tree, 0);
+		
+		for(int index = 1; index <= size; index++) {
+			tree[index] += losses[index - 1];
+			
+			int parent = index + (index & -index);
+			if(parent <= size) tree[parent] += tree[index];
+		}
+		
+		total = 0;
+		for(float loss : losses) total += loss;
+		
+		updates = 0;
+	}
+}
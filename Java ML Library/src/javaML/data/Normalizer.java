@@ -0,0 +1,454 @@
+package javaML.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The Normalizer gathers the minimum and maximum of every input and target column of a dataset one row at a time,
+ * then maps every column onto a chosen range using the same formula as DataTransformations.normalize().<br>
+ * Because the statistics are gathered row by row, a dataset can be normalized without ever being held in memory.
+ * <br><br>
+ * The mean and variance of every column are gathered alongside the range with Welford's algorithm. The statistics
+ * of 2 Normalizers over different rows can be merged, which fit() uses to gather the statistics of a Dataset in a
+ * single parallel pass.<br>
+ * Once fitted, a Normalizer can be written to a file and read back, so that data seen during inference is
+ * normalized exactly like the training data and predictions can be mapped back to the original units without
+ * going over the training data again.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class Normalizer implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Magic number found at the start of every normalizer file ("JMNZ")
+	 */
+	static final int MAGIC = 0x5A4E4D4A;
+	
+	//Number of rows below which fit() and normalize() stop splitting the work
+	private static final int SPLIT_ROWS = 1 << 13;
+	
+	//Values that the minimum and maximum of every column are mapped to
+	private final double min, max;
+	
+	private final double[] inputMin, inputMax;
+	private final double[] targetMin, targetMax;
+	
+	//Running mean and sum of squared differences from the mean of every column
+	private final double[] inputMean, inputM2;
+	private final double[] targetMean, targetM2;
+	
+	private long count = 0;
+	
+	/**
+	 * Constructor for a Normalizer that has not seen any rows
+	 * @param inputWidth Number of values in every input vector
+	 * @param targetWidth Number of values in every target vector
+	 * @param min Value the minimum of every column is mapped to
+	 * @param max Value the maximum of every column is mapped to
+	 */
+	public Normalizer(int inputWidth, int targetWidth, double min, double max) {
+		this.min = min;
+		this.max = max;
+		
+		this.inputMin = new double[inputWidth];
+		this.inputMax = new double[inputWidth];
+		this.targetMin = new double[targetWidth];
+		this.targetMax = new double[targetWidth];
+		
+		this.inputMean = new double[inputWidth];
+		this.inputM2 = new double[inputWidth];
+		this.targetMean = new double[targetWidth];
+		this.targetM2 = new double[targetWidth];
+	}
+	
+	/**
+	 * Function to gather the statistics of every row of a Dataset in a single pass.<br>
+	 * The rows are split into ranges whose statistics are gathered in parallel on the common fork/join pool and
+	 * merged as the ranges complete. A Dataset too small to be split is fitted on the calling thread
+	 * @param data Dataset to be fitted
+	 * @param min Value the minimum of every column is mapped to
+	 * @param max Value the maximum of every column is mapped to
+	 * @return Normalizer holding the statistics of the Dataset
+	 */
+	public static Normalizer fit(Dataset data, double min, double max) {
+		Fit task = new Fit(data, min, max, 0, data.size());
+		if(data.size() <= SPLIT_ROWS) return task.compute();
+		
+		return ForkJoinPool.commonPool().invoke(task);
+	}
+	
+	/**
+	 * Function to include a row in the statistics
+	 * @param input Input vector of the row
+	 * @param target Target vector of the row
+	 */
+	public void accept(double[] input, double[] target) {
+		count++;
+		
+		update(input, inputMin, inputMax, inputMean, inputM2);
+		update(target, targetMin, targetMax, targetMean, targetM2);
+	}
+	
+	/**
+	 * Function to copy the statistics into a new Normalizer, so they can be updated without affecting anything
+	 * still using this one
+	 * @return Copied Normalizer
+	 */
+	public Normalizer copy() {
+		Normalizer ret = new Normalizer(inputMin.length, targetMin.length, min, max);
+		ret.merge(this);
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to include the statistics of another Normalizer, as if every row it has seen had been passed to
+	 * accept()
+	 * @param other Normalizer with the same widths holding the statistics of other rows
+	 */
+	public void merge(Normalizer other) {
+		if(other.inputMin.length != inputMin.length || other.targetMin.length != targetMin.length)
+			throw new IllegalArgumentException("Normalizers do not have the same widths");
+		if(other.count == 0) return;
+		
+		long total = count + other.count;
+		
+		combine(other.count, total, inputMin, inputMax, inputMean, inputM2, other.inputMin, other.inputMax,
+				other.inputMean, other.inputM2);
+		combine(other.count, total, targetMin, targetMax, targetMean, targetM2, other.targetMin, other.targetMax,
+				other.targetMean, other.targetM2);
+		
+		count = total;
+	}
+	
+	/**
+	 * Function to get the number of rows included in the statistics
+	 * @return Number of rows
+	 */
+	public long getCount() {
+		return this.count;
+	}
+	
+	/**
+	 * Function to get the minimum of every column
+	 * @param targets Set to true for the target columns, false for the input columns
+	 * @return Copy of the minimum of every column
+	 */
+	public double[] getMinimum(boolean targets) {
+		return (targets ? targetMin : inputMin).clone();
+	}
+	
+	/**
+	 * Function to get the maximum of every column
+	 * @param targets Set to true for the target columns, false for the input columns
+	 * @return Copy of the maximum of every column
+	 */
+	public double[] getMaximum(boolean targets) {
+		return (targets ? targetMax : inputMax).clone();
+	}
+	
+	/**
+	 * Function to get the mean of every column
+	 * @param targets Set to true for the target columns, false for the input columns
+	 * @return Copy of the mean of every column
+	 */
+	public double[] getMean(boolean targets) {
+		return (targets ? targetMean : inputMean).clone();
+	}
+	
+	/**
+	 * Function to get the population variance of every column
+	 * @param targets Set to true for the target columns, false for the input columns
+	 * @return Variance of every column, or 0 for every column if no rows have been seen
+	 */
+	public double[] getVariance(boolean targets) {
+		double[] m2 = targets ? targetM2 : inputM2;
+		double[] ret = new double[m2.length];
+		
+		if(count == 0) return ret;
+		for(int index = 0; index < ret.length; index++) ret[index] = m2[index] / count;
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to normalize an input vector in place
+	 * @param input Input vector to be normalized
+	 */
+	public void normalizeInput(double[] input) {
+		apply(input, inputMin, inputMax);
+	}
+	
+	/**
+	 * Function to normalize a target vector in place
+	 * @param target Target vector to be normalized
+	 */
+	public void normalizeTarget(double[] target) {
+		apply(target, targetMin, targetMax);
+	}
+	
+	/**
+	 * Function to reverse the normalization of an input vector in place
+	 * @param input Normalized input vector
+	 */
+	public void denormalizeInput(double[] input) {
+		invert(input, inputMin, inputMax);
+	}
+	
+	/**
+	 * Function to reverse the normalization of a target vector in place, such as to read a prediction of the
+	 * network in the units of the original dataset
+	 * @param target Normalized target vector
+	 */
+	public void denormalizeTarget(double[] target) {
+		invert(target, targetMin, targetMax);
+	}
+	
+	/**
+	 * Function to normalize a batch of input vectors in place
+	 * @param inputs Input vectors to be normalized
+	 */
+	public void normalizeInputs(double[][] inputs) {
+		for(double[] input: inputs) apply(input, inputMin, inputMax);
+	}
+	
+	/**
+	 * Function to reverse the normalization of a batch of target vectors in place, such as the predictions of
+	 * the network for a batch of inputs
+	 * @param targets Normalized target vectors
+	 */
+	public void denormalizeTargets(double[][] targets) {
+		for(double[] target: targets) invert(target, targetMin, targetMax);
+	}
+	
+	/**
+	 * Function to normalize every value of a Dataset in place, with the rows split into ranges that are
+	 * normalized in parallel
+	 * @param data Dataset to be normalized, which must be writable
+	 */
+	public void normalize(Dataset data) {
+		if(data.getInputWidth() != inputMin.length || data.getTargetWidth() != targetMin.length)
+			throw new IllegalArgumentException("Dataset does not have the widths of the Normalizer");
+		
+		ForkJoinPool.commonPool().invoke(new Apply(data, 0, data.size()));
+	}
+	
+	/**
+	 * Function to write the statistics to a file, so they can be read back with read()
+	 * @param file File to write to, any existing file is overwritten
+	 * @throws IOException if the file could not be written
+	 */
+	public void write(File file) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(inputMin.length);
+			out.writeInt(targetMin.length);
+			out.writeDouble(min);
+			out.writeDouble(max);
+			out.writeLong(count);
+			
+			for(double[] stat: new double[][] {inputMin, inputMax, inputMean, inputM2, targetMin, targetMax,
+					targetMean, targetM2}) {
+				for(double value: stat) out.writeDouble(value);
+			}
+		}
+	}
+	
+	/**
+	 * Function to read statistics written by write()
+	 * @param file File to be read
+	 * @return Normalizer holding the statistics of the file
+	 * @throws IOException if the file could not be read or is not a normalizer file
+	 */
+	public static Normalizer read(File file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if(in.readInt() != MAGIC) throw new IOException("Not a normalizer file");
+			
+			int inputWidth = in.readInt();
+			int targetWidth = in.readInt();
+			if(inputWidth < 0 || targetWidth < 0) throw new IOException("Invalid normalizer widths");
+			
+			Normalizer ret = new Normalizer(inputWidth, targetWidth, in.readDouble(), in.readDouble());
+			ret.count = in.readLong();
+			
+			for(double[] stat: new double[][] {ret.inputMin, ret.inputMax, ret.inputMean, ret.inputM2, ret.targetMin,
+					ret.targetMax, ret.targetMean, ret.targetM2}) {
+				for(int index = 0; index < stat.length; index++) stat[index] = in.readDouble();
+			}
+			
+			return ret;
+		}
+	}
+	
+	/**
+	 * Helper function to include a vector in the statistics of every column, once count includes it
+	 */
+	private void update(double[] vector, double[] colMin, double[] colMax, double[] mean, double[] m2) {
+		if(count == 1) {
+			System.arraycopy(vector, 0, colMin, 0, colMin.length);
+			System.arraycopy(vector, 0, colMax, 0, colMax.length);
+			System.arraycopy(vector, 0, mean, 0, mean.length);
+			return;
+		}
+		
+		for(int index = 0; index < colMin.length; index++) {
+			double value = vector[index];
+			
+			colMin[index] = Math.min(colMin[index], value);
+			colMax[index] = Math.max(colMax[index], value);
+			
+			//Welford's algorithm
+			double delta = value - mean[index];
+			mean[index] += delta / count;
+			m2[index] += delta * (value - mean[index]);
+		}
+	}
+	
+	/**
+	 * Helper function to merge the statistics of every column of another Normalizer
+	 */
+	private void combine(long otherCount, long total, double[] colMin, double[] colMax, double[] mean, double[] m2,
+			double[] otherMin, double[] otherMax, double[] otherMean, double[] otherM2) {
+		for(int index = 0; index < colMin.length; index++) {
+			if(count == 0) {
+				colMin[index] = otherMin[index];
+				colMax[index] = otherMax[index];
+				mean[index] = otherMean[index];
+				m2[index] = otherM2[index];
+				continue;
+			}
+			
+			colMin[index] = Math.min(colMin[index], otherMin[index]);
+			colMax[index] = Math.max(colMax[index], otherMax[index]);
+			
+			//Parallel variance of Chan et al.
+			double delta = otherMean[index] - mean[index];
+			mean[index] += delta * otherCount / total;
+			m2[index] += otherM2[index] + delta * delta * ((double) count * otherCount / total);
+		}
+	}
+	
+	/**
+	 * Helper function to perform the actual normalization on every value of a vector
+	 */
+	private void apply(double[] vector, double[] colMin, double[] colMax) {
+		for(int index = 0; index < colMin.length; index++) {
+			double ret = (vector[index] - colMin[index]) / (colMax[index] - colMin[index]);
+			ret *= (max - min);
+			ret += min;
+			
+			vector[index] = ret;
+		}
+	}
+	
+	/**
+	 * Helper function to map every value of a normalized vector back onto the range of its column
+	 */
+	private void invert(double[] vector, double[] colMin, double[] colMax) {
+		for(int index = 0; index < colMin.length; index++) {
+			double ret = (vector[index] - min) / (max - min);
+			ret *= (colMax[index] - colMin[index]);
+			ret += colMin[index];
+			
+			vector[index] = ret;
+		}
+	}
+	
+	/**
+	 * Gathers the statistics of a range of rows, splitting it in half until the ranges are small enough
+	 */
+	private static final class Fit extends RecursiveTask<Normalizer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Dataset data;
+		private final double min, max;
+		private final int from, to;
+		
+		private Fit(Dataset data, double min, double max, int from, int to) {
+			this.data = data;
+			this.min = min;
+			this.max = max;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Normalizer compute() {
+			if(to - from > SPLIT_ROWS) {
+				int middle = (from + to) >>> 1;
+				
+				Fit second = new Fit(data, min, max, middle, to);
+				second.fork();
+				
+				Normalizer ret = new Fit(data, min, max, from, middle).compute();
+				ret.merge(second.join());
+				
+				return ret;
+			}
+			
+			Normalizer ret = new Normalizer(data.getInputWidth(), data.getTargetWidth(), min, max);
+			double[] input = new double[data.getInputWidth()];
+			double[] target = new double[data.getTargetWidth()];
+			
+			for(int row = from; row < to; row++) ret.accept(data.getInput(row, input), data.getTarget(row, target));
+			
+			return ret;
+		}
+	}
+	
+	/**
+	 * Normalizes a range of rows in place, splitting it in half until the ranges are small enough
+	 */
+	private final class Apply extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Dataset data;
+		private final int from, to;
+		
+		private Apply(Dataset data, int from, int to) {
+			this.data = data;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from > SPLIT_ROWS) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Apply(data, from, middle), new Apply(data, middle, to));
+				return;
+			}
+			
+			double[] input = new double[data.getInputWidth()];
+			double[] target = new double[data.getTargetWidth()];
+			
+			for(int row = from; row < to; row++) {
+				data.getInput(row, input);
+				data.getTarget(row, target);
+				
+				apply(input, inputMin, inputMax);
+				apply(target, targetMin, targetMax);
+				
+				for(int col = 0; col < input.length; col++) data.setInput(input[col], row, col);
+				for(int col = 0; col < target.length; col++) data.setTarget(target[col], row, col);
+			}
+		}
+	}
+}
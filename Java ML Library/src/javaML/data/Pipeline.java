@@ -0,0 +1,430 @@
+package javaML.data;
+
+import java.util.Arrays;
+
+/**
+ * The Pipeline records a chain of the transformations of DataTransformations over a Dataset and applies the
+ * whole chain to one row at a time, so no intermediate dataset is ever created.<br>
+ * Rows are computed when they are read: every step reads the rows it needs from the step before it, down to the
+ * original Dataset. Every step keeps the last few rows it computed, so when rows are read in order every row of
+ * every step is computed once, however many steps are chained. The transformed Dataset returned by view()
+ * therefore uses no memory besides a few rows per step, and copy() on that view performs all of the
+ * preprocessing in a single pass.
+ * <br><br>
+ * Steps are applied in the order they are added and produce the same values as their DataTransformations
+ * counterpart:
+ * <ul>
+ * <li>difference(): every row is the difference between the next row and itself, removing 1 row</li>
+ * <li>normalize(): every column is mapped onto a range, using the statistics of the rows at that point of the
+ * chain, which are gathered in one pass when the step is added</li>
+ * <li>contextual(): every input is the next input followed by the current input and the target is taken 2 rows
+ * later, removing 2 rows</li>
+ * <li>resize(): only the last rows are kept</li>
+ * </ul>
+ * Because the chain is recorded, a target in the space of the transformed Dataset, such as a prediction of a
+ * network, can be mapped back to the units of the original Dataset with invertTarget().
+ * <br><br>
+ * The original Dataset should not be modified while the Pipeline is in use, as the statistics of normalize()
+ * and the rows kept by every step would no longer match it. Every function of the Pipeline and of its views
+ * synchronizes on the Pipeline.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class Pipeline {
+	
+	//Largest number of consecutive rows a step reads from the step before it to compute one row
+	private static final int WINDOW = 3;
+	
+	//Last step of the chain
+	private Step last;
+	
+	/**
+	 * Constructor for a Pipeline without any steps over a Dataset
+	 * @param source Dataset to be transformed
+	 */
+	public Pipeline(Dataset source) {
+		this.last = new Source(source);
+	}
+	
+	/**
+	 * Function to add the differencing transform to the chain
+	 * @return This Pipeline
+	 */
+	public synchronized Pipeline difference() {
+		return add(new Difference(last));
+	}
+	
+	/**
+	 * Function to add normalization to the chain. The statistics of every column are gathered from the rows
+	 * produced by the chain so far
+	 * @param min Desired minimum
+	 * @param max Desired maximum
+	 * @return This Pipeline
+	 */
+	public synchronized Pipeline normalize(double min, double max) {
+		return add(new Normalize(last, min, max));
+	}
+	
+	/**
+	 * Function to add contextual input to the chain
+	 * @return This Pipeline
+	 */
+	public synchronized Pipeline contextual() {
+		return add(new Contextual(last));
+	}
+	
+	/**
+	 * Function to add down-sizing to the chain, keeping only the last rows
+	 * @param newSize New number of rows
+	 * @return This Pipeline
+	 */
+	public synchronized Pipeline resize(int newSize) {
+		if(newSize < 0 || newSize > last.size) throw new IllegalArgumentException("Cannot resize to " + newSize + " rows");
+		
+		return add(new Resize(last, newSize));
+	}
+	
+	/**
+	 * Function to get the number of rows produced by the chain
+	 * @return Number of rows
+	 */
+	public synchronized int size() {
+		return last.size;
+	}
+	
+	/**
+	 * Function to create a read-only Dataset of the rows produced by the chain, computed when they are read.<br>
+	 * Reading a single value computes its whole row, so rows should be read with getInput(row, dest) and
+	 * getTarget(row, dest). Use copy() on the view to materialize the transformed rows in a single pass
+	 * @return Transformed Dataset
+	 */
+	public synchronized Dataset view() {
+		return new Dataset(new PipelineStorage(last), last.size, last.inputWidth, last.targetWidth);
+	}
+	
+	/**
+	 * Function to map a target vector produced by the chain back to the units of the original Dataset.<br>
+	 * Normalization is reversed and differencing is reversed by adding the original target of the previous row
+	 * @param row Row of the transformed Dataset the target belongs to
+	 * @param target Target vector in the space of the transformed Dataset, converted in place
+	 * @return Row of the original Dataset the converted target corresponds to
+	 */
+	public synchronized int invertTarget(int row, double[] target) {
+		if(row < 0 || row >= last.size) throw new IndexOutOfBoundsException("Row " + row + " is outside of the Pipeline");
+		if(target.length != last.targetWidth) throw new IllegalArgumentException("Target is not the width of the chain");
+		
+		for(Step step = last; step.upstream != null; step = step.upstream) row = step.invertTarget(row, target);
+		
+		return row;
+	}
+	
+	/**
+	 * Helper function to make a step the last step of the chain
+	 */
+	private Pipeline add(Step step) {
+		this.last = step;
+		
+		return this;
+	}
+	
+	/**
+	 * A Step produces rows by reading the rows of the step before it
+	 */
+	private static abstract class Step {
+		
+		final Step upstream;
+		final int size, inputWidth, targetWidth;
+		
+		//Most recently computed rows, reused by the next rows of the step after it
+		private final int[] keptRows;
+		private final double[][] keptInputs, keptTargets;
+		private int nextSlot = 0;
+		
+		Step(Step upstream, int size, int inputWidth, int targetWidth, int kept) {
+			if(size < 0) throw new IllegalArgumentException("Not enough rows for the transformation");
+			
+			this.upstream = upstream;
+			this.size = size;
+			this.inputWidth = inputWidth;
+			this.targetWidth = targetWidth;
+			
+			this.keptRows = new int[kept];
+			this.keptInputs = new double[kept][inputWidth];
+			this.keptTargets = new double[kept][targetWidth];
+			Arrays.fill(keptRows, -1);
+		}
+		
+		/**
+		 * Function to get a row of the step, computing it only if it is not one of the rows kept by the step
+		 * @param row Row to be read
+		 * @param input Array of length inputWidth the input vector is written to
+		 * @param target Array of length targetWidth the target vector is written to
+		 */
+		final void read(int row, double[] input, double[] target) {
+			for(int slot = 0; slot < keptRows.length; slot++) {
+				if(keptRows[slot] == row) {
+					System.arraycopy(keptInputs[slot], 0, input, 0, inputWidth);
+					System.arraycopy(keptTargets[slot], 0, target, 0, targetWidth);
+					return;
+				}
+			}
+			
+			compute(row, input, target);
+			if(keptRows.length == 0) return;
+			
+			keptRows[nextSlot] = row;
+			System.arraycopy(input, 0, keptInputs[nextSlot], 0, inputWidth);
+			System.arraycopy(target, 0, keptTargets[nextSlot], 0, targetWidth);
+			nextSlot = (nextSlot + 1) % keptRows.length;
+		}
+		
+		/**
+		 * Function to compute a row of the step
+		 * @param row Row to be computed
+		 * @param input Array of length inputWidth the input vector is written to
+		 * @param target Array of length targetWidth the target vector is written to
+		 */
+		abstract void compute(int row, double[] input, double[] target);
+		
+		/**
+		 * Function to map a target vector of the step back to the space of the step before it
+		 * @param row Row of the step the target belongs to
+		 * @param target Target vector, converted in place
+		 * @return Row of the step before it the converted target belongs to
+		 */
+		abstract int invertTarget(int row, double[] target);
+	}
+	
+	/**
+	 * First step of the chain, reading the original Dataset
+	 */
+	private static final class Source extends Step {
+		
+		private final Dataset data;
+		
+		private Source(Dataset data) {
+			//Rows of the original Dataset are read directly, so none are kept
+			super(null, data.size(), data.getInputWidth(), data.getTargetWidth(), 0);
+			
+			this.data = data;
+		}
+		
+		@Override
+		void compute(int row, double[] input, double[] target) {
+			data.getInput(row, input);
+			data.getTarget(row, target);
+		}
+		
+		@Override
+		int invertTarget(int row, double[] target) {
+			return row;
+		}
+	}
+	
+	/**
+	 * Step computing the difference between consecutive rows
+	 */
+	private static final class Difference extends Step {
+		
+		private final double[] previousInput, previousTarget;
+		
+		private Difference(Step upstream) {
+			super(upstream, upstream.size - 1, upstream.inputWidth, upstream.targetWidth, WINDOW);
+			
+			this.previousInput = new double[inputWidth];
+			this.previousTarget = new double[targetWidth];
+		}
+		
+		@Override
+		void compute(int row, double[] input, double[] target) {
+			upstream.read(row + 1, input, target);
+			upstream.read(row, previousInput, previousTarget);
+			
+			for(int col = 0; col < inputWidth; col++) input[col] = input[col] - previousInput[col];
+			for(int col = 0; col < targetWidth; col++) target[col] = target[col] - previousTarget[col];
+		}
+		
+		@Override
+		int invertTarget(int row, double[] target) {
+			upstream.read(row, previousInput, previousTarget);
+			
+			for(int col = 0; col < targetWidth; col++) target[col] = previousTarget[col] + target[col];
+			
+			return row + 1;
+		}
+	}
+	
+	/**
+	 * Step mapping every column onto a range
+	 */
+	private static final class Normalize extends Step {
+		
+		private final Normalizer normalizer;
+		
+		private Normalize(Step upstream, double min, double max) {
+			super(upstream, upstream.size, upstream.inputWidth, upstream.targetWidth, WINDOW);
+			
+			this.normalizer = new Normalizer(inputWidth, targetWidth, min, max);
+			
+			double[] input = new double[inputWidth];
+			double[] target = new double[targetWidth];
+			for(int row = 0; row < size; row++) {
+				upstream.read(row, input, target);
+				normalizer.accept(input, target);
+			}
+		}
+		
+		@Override
+		void compute(int row, double[] input, double[] target) {
+			upstream.read(row, input, target);
+			
+			normalizer.normalizeInput(input);
+			normalizer.normalizeTarget(target);
+		}
+		
+		@Override
+		int invertTarget(int row, double[] target) {
+			normalizer.denormalizeTarget(target);
+			
+			return row;
+		}
+	}
+	
+	/**
+	 * Step joining the inputs of 2 consecutive rows
+	 */
+	private static final class Contextual extends Step {
+		
+		private final double[] input, target;
+		
+		private Contextual(Step upstream) {
+			super(upstream, upstream.size - 2, upstream.inputWidth * 2, upstream.targetWidth, WINDOW);
+			
+			this.input = new double[upstream.inputWidth];
+			this.target = new double[targetWidth];
+		}
+		
+		@Override
+		void compute(int row, double[] input, double[] target) {
+			int width = upstream.inputWidth;
+			
+			upstream.read(row + 1, this.input, this.target);
+			System.arraycopy(this.input, 0, input, 0, width);
+			
+			upstream.read(row, this.input, this.target);
+			System.arraycopy(this.input, 0, input, width, width);
+			
+			upstream.read(row + 2, this.input, target);
+		}
+		
+		@Override
+		int invertTarget(int row, double[] target) {
+			return row + 2;
+		}
+	}
+	
+	/**
+	 * Step keeping only the last rows
+	 */
+	private static final class Resize extends Step {
+		
+		private final int offset;
+		
+		private Resize(Step upstream, int newSize) {
+			super(upstream, newSize, upstream.inputWidth, upstream.targetWidth, WINDOW);
+			
+			this.offset = upstream.size - newSize;
+		}
+		
+		@Override
+		void compute(int row, double[] input, double[] target) {
+			upstream.read(row + offset, input, target);
+		}
+		
+		@Override
+		int invertTarget(int row, double[] target) {
+			return row + offset;
+		}
+	}
+	
+	/**
+	 * Storage computing the rows of the chain when they are read, keeping the last row computed
+	 */
+	private final class PipelineStorage extends Dataset.Storage {
+		
+		private final Step step;
+		private final double[] input, target;
+		private int row = -1;
+		
+		private PipelineStorage(Step step) {
+			this.step = step;
+			this.input = new double[step.inputWidth];
+			this.target = new double[step.targetWidth];
+		}
+		
+		@Override
+		double getInput(int row, int col) {
+			synchronized(Pipeline.this) {
+				load(row);
+				return input[col];
+			}
+		}
+		
+		@Override
+		double getTarget(int row, int col) {
+			synchronized(Pipeline.this) {
+				load(row);
+				return target[col];
+			}
+		}
+		
+		@Override
+		void getInputs(int row, double[] dest, int offset) {
+			synchronized(Pipeline.this) {
+				load(row);
+				System.arraycopy(input, 0, dest, offset, input.length);
+			}
+		}
+		
+		@Override
+		void getTargets(int row, double[] dest, int offset) {
+			synchronized(Pipeline.this) {
+				load(row);
+				System.arraycopy(target, 0, dest, offset, target.length);
+			}
+		}
+		
+		@Override
+		void setInput(double value, int row, int col) {
+			throw new UnsupportedOperationException("Transformed Datasets are read only");
+		}
+		
+		@Override
+		void setTarget(double value, int row, int col) {
+			throw new UnsupportedOperationException("Transformed Datasets are read only");
+		}
+		
+		@Override
+		void setInputs(double[] values, int row) {
+			throw new UnsupportedOperationException("Transformed Datasets are read only");
+		}
+		
+		@Override
+		void setTargets(double[] values, int row) {
+			throw new UnsupportedOperationException("Transformed Datasets are read only");
+		}
+		
+		/**
+		 * Helper function to compute a row unless it is the last row computed
+		 */
+		private void load(int row) {
+			if(row == this.row) return;
+			
+			step.read(row, input, target);
+			this.row = row;
+		}
+	}
+}
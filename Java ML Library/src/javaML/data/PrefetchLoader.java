@@ -0,0 +1,217 @@
+package javaML.data;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PrefetchLoader reads the batches of another BatchLoader ahead of time on a background thread, so reading
+ * and preparing the next batches overlaps with training on the current one.
+ * <br><br>
+ * The background thread fills a fixed number of Batches with consecutive batches and waits whenever all of them
+ * are full, so no more than depth batches are ever read ahead. When a Batch is read, its arrays are swapped with
+ * the arrays of a prefetched Batch instead of being copied, and the arrays it held are reused for a later batch.
+ * <br><br>
+ * Batches are expected to be read in order, each starting where the last one ended. Reading a batch from any other
+ * row, such as after the position in the training data has been changed, discards the prefetched batches and
+ * restarts the background thread from that row. Only one thread should read from a PrefetchLoader.
+ * <br><br>
+ * The background thread runs until close() is called, waking every POLL_MILLIS while all of the Batches are full,
+ * so a PrefetchLoader that is no longer needed should always be closed. If the background thread stops because of
+ * an Error, the Error is thrown by the read of the batch it was filling and every later read throws an IOException
+ * instead of waiting.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class PrefetchLoader implements BatchLoader {
+	
+	//Time either thread waits on a queue before checking whether the loader was closed or the other thread stopped
+	private static final long POLL_MILLIS = 100;
+	
+	private final BatchLoader loader;
+	private final int batchSize;
+	
+	private final BlockingQueue<Batch> free, filled;
+	private final Thread thread;
+	
+	private volatile boolean closed = false;
+	
+	//Guarded by this: generation of the batches currently being prefetched, and the row to restart from or -1
+	private long generation = 0;
+	private int restart = -1;
+	
+	/**
+	 * Constructor for a PrefetchLoader that starts reading from row 0 immediately
+	 * @param loader BatchLoader the batches are read from, which should not be read elsewhere until this is closed
+	 * @param batchSize Number of rows in every batch
+	 * @param depth Maximum number of batches read ahead
+	 */
+	public PrefetchLoader(BatchLoader loader, int batchSize, int depth) {
+		if(batchSize <= 0 || depth <= 0) throw new IllegalArgumentException("Batch size and depth must be positive");
+		
+		this.loader = loader;
+		this.batchSize = batchSize;
+		
+		this.free = new ArrayBlockingQueue<>(depth);
+		this.filled = new ArrayBlockingQueue<>(depth);
+		for(int index = 0; index < depth; index++) {
+			free.add(new Batch(batchSize, loader.getInputWidth(), loader.getTargetWidth()));
+		}
+		
+		this.thread = new Thread(this::prefetch, "PrefetchLoader");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+	
+	@Override
+	public int getInputWidth() {
+		return loader.getInputWidth();
+	}
+	
+	@Override
+	public int getTargetWidth() {
+		return loader.getTargetWidth();
+	}
+	
+	@Override
+	public int size() {
+		return loader.size();
+	}
+	
+	/**
+	 * Function to read a batch, waiting for the background thread if it has not been prefetched yet
+	 * @param start First row of the batch
+	 * @param batch Batch of batchSize rows whose arrays are swapped with the prefetched batch
+	 * @throws IOException if the rows could not be read
+	 */
+	@Override
+	public void read(int start, Batch batch) throws IOException {
+		if(batch.size() != batchSize) throw new IllegalArgumentException("Batch does not hold " + batchSize + " rows");
+		if(closed) throw new IOException("Loader is closed");
+		
+		long wanted;
+		synchronized(this) {
+			wanted = generation;
+		}
+		
+		try {
+			while(true) {
+				Batch next = filled.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if(next == null) {
+					if(closed) throw new IOException("Loader is closed");
+					if(!thread.isAlive() && filled.isEmpty()) throw new IOException("Prefetching thread has stopped");
+					continue;
+				}
+				
+				if(next.generation == wanted && next.start == start) {
+					deliver(next, batch);
+					return;
+				}
+				
+				free.put(next);
+				
+				//A batch of the current generation from another row means the position was changed
+				if(next.generation == wanted) {
+					synchronized(this) {
+						generation++;
+						restart = start;
+						wanted = generation;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a batch");
+		}
+	}
+	
+	/**
+	 * Function to stop the background thread. The loader the batches are read from is not closed, so it can be
+	 * read from again or wrapped by another PrefetchLoader
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		
+		//The thread is not interrupted, as interrupting a read from a FileChannel closes the channel
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Helper function to hand a prefetched batch to the reader and reuse the arrays it gives back
+	 */
+	private void deliver(Batch next, Batch batch) throws IOException, InterruptedException {
+		Throwable error = next.error;
+		
+		double[][] inputs = batch.inputs;
+		double[][] targets = batch.targets;
+		
+		if(error == null) {
+			batch.inputs = next.inputs;
+			batch.targets = next.targets;
+			next.inputs = inputs;
+			next.targets = targets;
+		}
+		
+		free.put(next);
+		
+		if(error instanceof IOException) throw (IOException) error;
+		if(error instanceof RuntimeException) throw (RuntimeException) error;
+		if(error instanceof Error) throw (Error) error;
+	}
+	
+	/**
+	 * Helper function run by the background thread to fill batches until the loader is closed or an Error is thrown
+	 */
+	private void prefetch() {
+		int next = 0;
+		long current = 0;
+		
+		while(!closed) {
+			Batch batch;
+			try {
+				batch = free.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if(batch == null) continue;
+			} catch (InterruptedException e) {
+				return;
+			}
+			
+			synchronized(this) {
+				if(restart >= 0) {
+					next = restart;
+					restart = -1;
+				}
+				current = generation;
+			}
+			
+			batch.start = next;
+			batch.generation = current;
+			batch.error = null;
+			
+			try {
+				loader.read(next, batch);
+			} catch (IOException | RuntimeException e) {
+				batch.error = e;
+			} catch (Error e) {
+				//The Error is handed to the reader, which cannot rely on the thread any longer
+				batch.error = e;
+				filled.add(batch);
+				return;
+			}
+			
+			next = (int) (((long) next + batchSize) % loader.size());
+			
+			//Never blocks, as there are only as many Batches as the queue can hold
+			filled.add(batch);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package javaML.data;
+
+import java.io.IOException;
+
+/**
+ * The SourceLoader reads batches from the rows of a DataSource, normalizing every row as it is read.<br>
+ * Rows are read in order; the source is only rewound when a batch starts before the row it last read, such as at
+ * the start of every epoch. Closing the loader does not close the DataSource.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class SourceLoader implements BatchLoader {
+	
+	private final DataSource source;
+	private final Normalizer normalizer;
+	
+	//Rows of the source before the first row of the loader, and number of rows of the loader
+	private final long skip;
+	private final int size;
+	
+	//Row of the source the next call to next() returns, unknown until the source is first rewound
+	private long position = Long.MAX_VALUE;
+	
+	/**
+	 * Constructor for a SourceLoader
+	 * @param source DataSource whose rows are read
+	 * @param skip Number of rows at the start of the source that are not part of the loader
+	 * @param size Number of rows of the source, after the skipped rows, that the loader cycles through
+	 * @param normalizer Statistics every row is normalized with, or null to read the rows unchanged
+	 */
+	public SourceLoader(DataSource source, long skip, int size, Normalizer normalizer) {
+		if(skip < 0 || size <= 0) throw new IllegalArgumentException("Invalid range of rows");
+		
+		this.source = source;
+		this.normalizer = normalizer;
+		this.skip = skip;
+		this.size = size;
+	}
+	
+	@Override
+	public int getInputWidth() {
+		return source.getInputWidth();
+	}
+	
+	@Override
+	public int getTargetWidth() {
+		return source.getTargetWidth();
+	}
+	
+	@Override
+	public int size() {
+		return this.size;
+	}
+	
+	@Override
+	public void read(int start, Batch batch) throws IOException {
+		for(int index = 0; index < batch.size(); index++) {
+			long row = skip + ((long) start + index) % size;
+			double[] input = batch.getInput(index);
+			double[] target = batch.getTarget(index);
+			
+			if(position > row) {
+				source.reset();
+				position = 0;
+			}
+			
+			for(; position <= row; position++) {
+				if(!source.next(input, target)) {
+					position = Long.MAX_VALUE;
+					throw new IOException("Data source ended before row " + row);
+				}
+			}
+			
+			if(normalizer != null) {
+				normalizer.normalizeInput(input);
+				normalizer.normalizeTarget(target);
+			}
+		}
+	}
+	
+	@Override
+	public void close() { }
+}
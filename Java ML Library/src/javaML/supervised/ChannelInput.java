@@ -0,0 +1,151 @@
+package javaML.supervised;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * ChannelInput is a small helper used by the binary file formats of the supervised package.<br>
+ * It is the reading counterpart to ChannelOutput: blocks of the file are read into a direct buffer and
+ * values are decoded little-endian, with arrays of doubles transferred in bulk through a DoubleBuffer view.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+final class ChannelInput {
+	
+	//Size of the staging buffer
+	private static final int BUFFER_SIZE = 1 << 20;
+	
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	
+	/**
+	 * Constructor for a ChannelInput that reads from the current position of the channel
+	 * @param channel Channel to be read from
+	 */
+	ChannelInput(FileChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		this.buffer.limit(0);
+	}
+	
+	/**
+	 * Function to read a single int
+	 * @return The int read
+	 */
+	int getInt() throws IOException {
+		require(Integer.BYTES);
+		return buffer.getInt();
+	}
+	
+	/**
+	 * Function to read a single long
+	 * @return The long read
+	 */
+	long getLong() throws IOException {
+		require(Long.BYTES);
+		return buffer.getLong();
+	}
+	
+	/**
+	 * Function to read a single double
+	 * @return The double read
+	 */
+	double getDouble() throws IOException {
+		require(Double.BYTES);
+		return buffer.getDouble();
+	}
+	
+	/**
+	 * Function to read doubles until the array is full
+	 * @param values Array to be filled
+	 */
+	void getDoubles(double[] values) throws IOException {
+		getDoubles(values, 0, values.length);
+	}
+	
+	/**
+	 * Function to read doubles into part of an array
+	 * @param values Array to be filled
+	 * @param offset First index to be filled
+	 * @param length Number of values to be read
+	 */
+	void getDoubles(double[] values, int offset, int length) throws IOException {
+		while(length > 0) {
+			require(Double.BYTES);
+			
+			int count = Math.min(length, buffer.remaining() / Double.BYTES);
+			buffer.asDoubleBuffer().get(values, offset, count);
+			buffer.position(buffer.position() + count * Double.BYTES);
+			
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Function to read bytes until the array is full
+	 * @param values Array to be filled
+	 */
+	void getBytes(byte[] values) throws IOException {
+		int offset = 0;
+		
+		while(offset < values.length) {
+			require(1);
+			
+			int count = Math.min(values.length - offset, buffer.remaining());
+			buffer.get(values, offset, count);
+			offset += count;
+		}
+	}
+	
+	/**
+	 * Function to skip bytes until the total number of bytes read is a multiple of the alignment
+	 * @param alignment Alignment in bytes
+	 */
+	void align(int alignment) throws IOException {
+		while(position() % alignment != 0) {
+			require(1);
+			buffer.get();
+		}
+	}
+	
+	/**
+	 * Function to get the position in the channel of the next value to be read
+	 * @return Position in bytes
+	 */
+	long position() throws IOException {
+		return channel.position() - buffer.remaining();
+	}
+	
+	/**
+	 * Function to get the number of bytes between the next value to be read and the end of the channel
+	 * @return Number of bytes left
+	 */
+	long remaining() throws IOException {
+		return channel.size() - position();
+	}
+	
+	/**
+	 * Helper function to ensure at least the given number of bytes are available in the buffer
+	 * @param bytes Number of bytes needed
+	 * @throws IOException if the end of the file is reached first
+	 */
+	private void require(int bytes) throws IOException {
+		if(buffer.remaining() >= bytes) return;
+		
+		buffer.compact();
+		while(buffer.position() < bytes) {
+			if(channel.read(buffer) < 0) {
+				buffer.flip();
+				throw new IOException("Unexpected end of file");
+			}
+		}
+		
+		buffer.flip();
+	}
+}
@@ -0,0 +1,141 @@
+package javaML.supervised;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * ChannelOutput is a small helper used by the binary file formats of the supervised package.<br>
+ * Values are staged little-endian in a direct buffer and written to a FileChannel in large blocks, with
+ * arrays of doubles transferred in bulk through a DoubleBuffer view.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+final class ChannelOutput implements Closeable {
+	
+	//Size of the staging buffer
+	private static final int BUFFER_SIZE = 1 << 20;
+	
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	
+	/**
+	 * Constructor for a ChannelOutput that writes from the current position of the channel
+	 * @param channel Channel to be written to
+	 */
+	ChannelOutput(FileChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	/**
+	 * Function to write a single int
+	 * @param value int to be written
+	 */
+	void putInt(int value) throws IOException {
+		if(buffer.remaining() < Integer.BYTES) flush();
+		buffer.putInt(value);
+	}
+	
+	/**
+	 * Function to write a single long
+	 * @param value long to be written
+	 */
+	void putLong(long value) throws IOException {
+		if(buffer.remaining() < Long.BYTES) flush();
+		buffer.putLong(value);
+	}
+	
+	/**
+	 * Function to write a single double
+	 * @param value double to be written
+	 */
+	void putDouble(double value) throws IOException {
+		if(buffer.remaining() < Double.BYTES) flush();
+		buffer.putDouble(value);
+	}
+	
+	/**
+	 * Function to write an entire array of doubles
+	 * @param values Array to be written
+	 */
+	void putDoubles(double[] values) throws IOException {
+		putDoubles(values, 0, values.length);
+	}
+	
+	/**
+	 * Function to write part of an array of doubles
+	 * @param values Array to be written from
+	 * @param offset First index to be written
+	 * @param length Number of values to be written
+	 */
+	void putDoubles(double[] values, int offset, int length) throws IOException {
+		while(length > 0) {
+			if(buffer.remaining() < Double.BYTES) flush();
+			
+			int count = Math.min(length, buffer.remaining() / Double.BYTES);
+			buffer.asDoubleBuffer().put(values, offset, count);
+			buffer.position(buffer.position() + count * Double.BYTES);
+			
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Function to write a block of raw bytes
+	 * @param values Bytes to be written
+	 */
+	void putBytes(byte[] values) throws IOException {
+		int offset = 0;
+		
+		while(offset < values.length) {
+			if(!buffer.hasRemaining()) flush();
+			
+			int count = Math.min(values.length - offset, buffer.remaining());
+			buffer.put(values, offset, count);
+			offset += count;
+		}
+	}
+	
+	/**
+	 * Function to write zeroes until the total number of bytes written is a multiple of the alignment
+	 * @param alignment Alignment in bytes
+	 */
+	void pad(int alignment) throws IOException {
+		while(position() % alignment != 0) {
+			if(!buffer.hasRemaining()) flush();
+			buffer.put((byte) 0);
+		}
+	}
+	
+	/**
+	 * Function to get the position in the channel that the next value will be written to
+	 * @return Position in bytes
+	 */
+	long position() throws IOException {
+		return channel.position() + buffer.position();
+	}
+	
+	/**
+	 * Function to write every staged value to the channel
+	 */
+	void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+	}
+	
+	/**
+	 * Flushes the staged values. The channel itself is left open
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+}
@@ -0,0 +1,298 @@
+package javaML.supervised;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+import javaML.supervised.structures.networkElements.Unit;
+
+/**
+ * CompressedModelFile is responsible for reading and writing networks in the compressed (.nnz) model format.<br>
+ * The format is meant for distributing models, where the size of the file matters more than the time taken to
+ * write it.
+ * <br><br>
+ * The file starts with the same topology header as the binary model format, followed by the WeightEncoding used
+ * and one Deflate compressed block for every ConnectionLayer. Weights are encoded before compression:
+ * <ul>
+ * <li>DOUBLE stores the raw weights, which is lossless</li>
+ * <li>FLOAT16 stores every weight as a half precision float</li>
+ * <li>INT8 stores a scale for every row followed by every weight of the row divided by the scale as a byte</li>
+ * </ul>
+ * Layers are encoded and compressed in parallel when writing, and decompressed and decoded in parallel when
+ * reading.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class CompressedModelFile {
+	
+	/**
+	 * Magic number found at the start of every compressed model file ("JMLZ")
+	 */
+	static final int MAGIC = 0x5A4C4D4A;
+	
+	/**
+	 * Current version of the compressed model format
+	 */
+	static final int VERSION = 1;
+	
+	/**
+	 * File extension used by the compressed model format
+	 */
+	public static final String EXTENSION = ".nnz";
+	
+	/**
+	 * Private constructor to enforce non-instantiability
+	 */
+	private CompressedModelFile() { }
+	
+	/**
+	 * Function to write a network to a file in the compressed model format
+	 * @param network Network to be written
+	 * @param file File to write to, any existing file is overwritten
+	 * @param encoding How the weights are encoded before compression
+	 * @throws IOException if the file could not be written
+	 */
+	public static void write(Network network, File file, WeightEncoding encoding) throws IOException {
+		if(encoding == null || encoding == WeightEncoding.INVALID)
+			throw new IllegalArgumentException("Invalid weight encoding");
+		
+		//Every layer is encoded and compressed on its own task
+		ArrayList<Integer> lengths = new ArrayList<>();
+		ArrayList<CompletableFuture<byte[]>> blocks = new ArrayList<>();
+		for(Unit u: network.getUnits()) {
+			for(ConnectionLayer c: u.getConnectionLayers()) {
+				Matrix mat = c.getMatrix();
+				
+				lengths.add(encodedLength(encoding, mat.getRows(), mat.getColumns()));
+				blocks.add(CompletableFuture.supplyAsync(() -> compress(encode(mat, encoding))));
+			}
+		}
+		
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				ChannelOutput out = new ChannelOutput(channel)) {
+			
+			out.putInt(MAGIC);
+			out.putInt(VERSION);
+			ModelFile.Header.of(network).write(out);
+			out.putInt(encoding.getVal());
+			
+			//Blocks are written in order as they finish
+			for(int index = 0; index < blocks.size(); index++) {
+				byte[] compressed = blocks.get(index).join();
+				
+				out.putInt(lengths.get(index));
+				out.putInt(compressed.length);
+				out.putBytes(compressed);
+			}
+		}
+	}
+	
+	/**
+	 * Function to build a network from a file written in the compressed model format
+	 * @param file File to be read
+	 * @return Returns the network described by the file
+	 * @throws IOException if the file could not be read or is not a valid compressed model file
+	 */
+	public static Network read(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ChannelInput in = new ChannelInput(channel);
+			
+			if(in.getInt() != MAGIC) throw new IOException("Not a compressed model file");
+			int version = in.getInt();
+			if(version != VERSION) throw new IOException("Unsupported model file version " + version);
+			
+			Network network = ModelFile.Header.read(in).build();
+			WeightEncoding encoding = WeightEncoding.getFromVal(in.getInt());
+			if(encoding == WeightEncoding.INVALID) throw new IOException("Unsupported weight encoding");
+			
+			ArrayList<ConnectionLayer> cLayers = new ArrayList<>();
+			ArrayList<CompletableFuture<Matrix>> matrices = new ArrayList<>();
+			
+			//Compressed blocks are read sequentially, then each is decompressed and decoded on its own task
+			for(Unit u: network.getUnits()) {
+				for(ConnectionLayer c: u.getConnectionLayers()) {
+					int length = in.getInt();
+					byte[] compressed = new byte[in.getInt()];
+					in.getBytes(compressed);
+					
+					int rows = c.getMatrix().getRows();
+					int columns = c.getMatrix().getColumns();
+					
+					cLayers.add(c);
+					matrices.add(CompletableFuture.supplyAsync(() ->
+							decode(decompress(compressed, length), encoding, rows, columns)));
+				}
+			}
+			
+			try {
+				for(int index = 0; index < cLayers.size(); index++) {
+					cLayers.get(index).setMatrix(matrices.get(index).join());
+				}
+			} catch (CompletionException e) {
+				throw new IOException("Corrupt compressed model file", e.getCause());
+			}
+			
+			return network;
+		}
+	}
+	
+	/**
+	 * Helper function to encode the weights of a matrix into bytes
+	 * @param mat Matrix to be encoded
+	 * @param encoding Encoding to be used
+	 * @return Encoded weights
+	 */
+	private static byte[] encode(Matrix mat, WeightEncoding encoding) {
+		int rows = mat.getRows();
+		int columns = mat.getColumns();
+		double[][] values = mat.getMatrix();
+		
+		ByteBuffer buffer = ByteBuffer.allocate(encodedLength(encoding, rows, columns));
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		
+		for(double[] row: values) {
+			switch(encoding) {
+			case DOUBLE:
+				for(double value: row) buffer.putDouble(value);
+				break;
+			case FLOAT16:
+				for(double value: row) buffer.putShort(HalfPrecision.toHalf(value));
+				break;
+			case INT8:
+				double max = 0;
+				for(double value: row) max = Math.max(max, Math.abs(value));
+				
+				//Scale maps the largest weight of the row onto 127
+				double scale = max / 127;
+				buffer.putDouble(scale);
+				
+				for(double value: row) buffer.put(scale == 0 ? 0 : (byte) Math.round(value / scale));
+				break;
+			default:
+				break;
+			}
+		}
+		
+		return buffer.array();
+	}
+	
+	/**
+	 * Helper function to decode weights produced by encode()
+	 * @param encoded Encoded weights
+	 * @param encoding Encoding that was used
+	 * @param rows Number of rows in the matrix
+	 * @param columns Number of columns in the matrix
+	 * @return Decoded Matrix
+	 */
+	private static Matrix decode(byte[] encoded, WeightEncoding encoding, int rows, int columns) {
+		if(encoded.length != encodedLength(encoding, rows, columns))
+			throw new IllegalStateException("Layer block does not match the matrix dimensions");
+		
+		ByteBuffer buffer = ByteBuffer.wrap(encoded).order(ByteOrder.LITTLE_ENDIAN);
+		Matrix mat = new Matrix(rows, columns, Matrix.FILL_ZERO);
+		
+		for(double[] row: mat.getMatrix()) {
+			switch(encoding) {
+			case DOUBLE:
+				buffer.asDoubleBuffer().get(row);
+				buffer.position(buffer.position() + columns * Double.BYTES);
+				break;
+			case FLOAT16:
+				for(int col = 0; col < columns; col++) row[col] = HalfPrecision.fromHalf(buffer.getShort());
+				break;
+			case INT8:
+				double scale = buffer.getDouble();
+				for(int col = 0; col < columns; col++) row[col] = buffer.get() * scale;
+				break;
+			default:
+				break;
+			}
+		}
+		
+		return mat;
+	}
+	
+	/**
+	 * Helper function to find the number of bytes taken by an encoded matrix
+	 */
+	private static int encodedLength(WeightEncoding encoding, int rows, int columns) {
+		switch(encoding) {
+		case DOUBLE:
+			return rows * columns * Double.BYTES;
+		case FLOAT16:
+			return rows * columns * Short.BYTES;
+		case INT8:
+			return rows * (Double.BYTES + columns);
+		default:
+			return 0;
+		}
+	}
+	
+	/**
+	 * Helper function to Deflate compress a block
+	 * @param raw Block to be compressed
+	 * @return Compressed block
+	 */
+	private static byte[] compress(byte[] raw) {
+		Deflater deflater = new Deflater();
+		deflater.setInput(raw);
+		deflater.finish();
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+		byte[] chunk = new byte[1 << 16];
+		while(!deflater.finished()) {
+			int count = deflater.deflate(chunk);
+			out.write(chunk, 0, count);
+		}
+		
+		deflater.end();
+		
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Helper function to decompress a block produced by compress()
+	 * @param compressed Compressed block
+	 * @param length Length of the decompressed block
+	 * @return Decompressed block
+	 */
+	private static byte[] decompress(byte[] compressed, int length) {
+		Inflater inflater = new Inflater();
+		inflater.setInput(compressed);
+		
+		byte[] raw = new byte[length];
+		int offset = 0;
+		
+		try {
+			while(offset < length && !inflater.finished()) {
+				int count = inflater.inflate(raw, offset, length - offset);
+				if(count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+				offset += count;
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt layer block", e);
+		} finally {
+			inflater.end();
+		}
+		
+		if(offset != length) throw new IllegalStateException("Truncated layer block");
+		
+		return raw;
+	}
+}
@@ -0,0 +1,263 @@
+package javaML.supervised;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+import javaML.data.Dataset;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The DataParallelTrainer trains a network on several threads at once by splitting its training data between
+ * replicas of the network.<br>
+ * Every replica is a fork of the network that trains on its own contiguous shard of the training data. In every
+ * step, each replica passes one batch of its shard through the network on its own thread and writes the gradients
+ * of every weight into a buffer instead of applying them. The buffers are then summed by a tree-structured
+ * all-reduce, where in every round pairs of buffers are added together in parallel, and the average gradient is
+ * applied to the network as a single step of its optimizer. The replicas then share the new weights of the
+ * network, which are never copied.
+ * <br><br>
+ * A step therefore trains on one batch per replica, so an epoch takes as many steps as a single shard has batches
+ * and the time of an epoch shrinks close to linearly with the number of replicas. Since shards are contiguous, a
+ * recurrent network trains every shard as an independent sequence. The training data is split into shards that
+ * differ by at most one row, and an epoch takes as many steps as the largest shard has batches. Like
+ * Network.trainEpoch(), the last batch of a shard that is not a multiple of the batch size continues from the
+ * start of the shard, so every row of the training data is trained on in every epoch.
+ * <br><br>
+ * Every weight takes one Adam step for every timestep in memory, as in adjustWeights() of the ConnectionLayers,
+ * so a gradient buffer holds the gradient of every weight at every timestep: memoryLength times the number of
+ * weights. The trainer holds one buffer per replica, replicas * memoryLength * weights values in total, and
+ * refuses to start if those buffers would take more than half of the maximum heap size.
+ * <br><br>
+ * The network must have a dataset uploaded with uploadDataset() before the trainer is created, and should not be
+ * trained any other way while the trainer is in use. The trainer keeps its threads until it is closed.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class DataParallelTrainer implements AutoCloseable {
+	
+	//Smallest number of values summed by a single task of the all-reduce
+	private static final int CHUNK_SIZE = 1 << 14;
+	
+	//Largest fraction of the maximum heap size the gradient buffers may take
+	private static final double MAX_HEAP_FRACTION = 0.5;
+	
+	private final Network network;
+	private final Network[] replicas;
+	
+	//Gradient buffer of every replica, and the ConnectionLayers of the network with their offsets in a buffer
+	private final double[][] gradients;
+	private final ConnectionLayer[] cLayers;
+	private final int[] offsets;
+	
+	private final ExecutorService workers;
+	private final int steps;
+	
+	private double averageLoss = 0;
+	
+	/**
+	 * Constructor for a DataParallelTrainer splitting the uploaded dataset of a network between replicas
+	 * @param network Network to be trained, with a dataset uploaded with uploadDataset()
+	 * @param replicas Number of replicas, typically the number of available cores
+	 * @throws IllegalArgumentException if the gradient buffers of the replicas would take more than half of the
+	 * maximum heap size
+	 */
+	public DataParallelTrainer(Network network, int replicas) {
+		int gradientSize = network.getGradientSize();
+		long bytes = (long) replicas * gradientSize * Double.BYTES;
+		if(bytes > Runtime.getRuntime().maxMemory() * MAX_HEAP_FRACTION) 
+			throw new IllegalArgumentException("The gradient buffers of " + replicas + " replicas would take " + bytes + " bytes");
+		
+		this.network = network;
+		this.replicas = replicate(network, replicas);
+		this.gradients = new double[replicas][gradientSize];
+		this.steps = epochSteps(this.replicas, network.getBatchSize());
+		
+		this.cLayers = network.getConnectionLayers();
+		this.offsets = new int[cLayers.length];
+		for(int index = 1; index < cLayers.length; index++) {
+			offsets[index] = offsets[index - 1] + cLayers[index - 1].getGradientSize();
+		}
+		
+		this.workers = createWorkers(replicas, "DataParallelTrainer-worker");
+	}
+	
+	/**
+	 * Function to train every replica on its next batch and apply the average gradient to the network
+	 */
+	public void train() {
+		
+		//Every replica computes the gradients of its own batch
+		forEach(workers, replicas.length, index -> replicas[index].computeGradients(gradients[index]));
+		
+		double loss = 0;
+		for(Network replica: replicas) loss += replica.getAverageLoss();
+		averageLoss = loss / replicas.length;
+		
+		allReduce();
+		
+		//Every ConnectionLayer holds its own optimizer state, so the layers are adjusted in parallel
+		double lr = network.getLearningRate();
+		double[] sum = gradients[0];
+		forEach(workers, cLayers.length, index -> cLayers[index].applyGradients(sum, offsets[index], lr));
+		
+		for(Network replica: replicas) replica.shareWeights(network);
+	}
+	
+	/**
+	 * Function to train through every shard one time
+	 * @return Loss calculated through a validation check immediately after the epoch is finished
+	 */
+	public double trainEpoch() {
+		for(int step = 0; step < steps; step++) train();
+		
+		double loss = replicas[replicas.length - 1].validate();
+		network.finishEpoch();
+		
+		for(Network replica: replicas) replica.reset(true);
+		
+		return loss;
+	}
+	
+	/**
+	 * Function to get the average loss of the batches of the most recent step
+	 * @return Average loss over every replica
+	 */
+	public double getAverageLoss() {
+		return averageLoss;
+	}
+	
+	/**
+	 * Function to get the number of replicas
+	 * @return Number of replicas
+	 */
+	public int getReplicas() {
+		return replicas.length;
+	}
+	
+	/**
+	 * Function to stop the threads of the trainer
+	 */
+	@Override
+	public void close() {
+		workers.shutdown();
+	}
+	
+	/**
+	 * Function to be called only by the trainers of the supervised package<br>
+	 * Forks a network once for every replica and gives every fork its own contiguous shard of the training data.
+	 * Shards differ by at most one row, so every row of the training data belongs to a shard. The last replica is
+	 * given the validation data, as its memory ends with the training data right before it
+	 * @param network Network with a dataset uploaded with uploadDataset()
+	 * @param replicas Number of replicas
+	 * @return Array of the replicas
+	 */
+	static Network[] replicate(Network network, int replicas) {
+		Dataset data = network.getTrainingData();
+		if(data == null) throw new IllegalStateException("A dataset must be uploaded with uploadDataset() before training");
+		if(replicas <= 0) throw new IllegalArgumentException("At least 1 replica is needed");
+		
+		int size = data.size();
+		if(size / replicas < network.getBatchSize()) throw new IllegalArgumentException("Not enough training data for " + replicas + " replicas");
+		
+		Network[] ret = new Network[replicas];
+		for(int index = 0; index < replicas; index++) {
+			Dataset validation = index == replicas - 1 ? network.getValidationData() : null;
+			
+			int start = (int) ((long) index * size / replicas);
+			int end = (int) ((long) (index + 1) * size / replicas);
+			
+			ret[index] = network.fork(false);
+			ret[index].uploadShard(data.view(start, end), validation, network.getNormalizer());
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to be called only by the trainers of the supervised package
+	 * @param replicas Replicas created by replicate()
+	 * @param batchSize Batch size of the replicas
+	 * @return Number of batches in the largest shard, counting a partial batch as a whole batch
+	 */
+	static int epochSteps(Network[] replicas, int batchSize) {
+		int largest = 0;
+		for(Network replica: replicas) largest = Math.max(largest, replica.getTrainingData().size());
+		
+		return (largest + batchSize - 1) / batchSize;
+	}
+	
+	/**
+	 * Function to be called only by the trainers of the supervised package
+	 * @param threads Number of threads
+	 * @param name Name of every thread
+	 * @return Pool of daemon threads
+	 */
+	static ExecutorService createWorkers(int threads, String name) {
+		return Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * Function to be called only by the trainers of the supervised package<br>
+	 * Runs a task for every index on a pool of threads and waits for all of them
+	 * @param workers Pool the tasks are run on
+	 * @param count Number of tasks
+	 * @param task Task given the index it is run for
+	 */
+	static void forEach(ExecutorService workers, int count, IntConsumer task) {
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[count];
+		for(int index = 0; index < count; index++) {
+			final int i = index;
+			tasks[index] = CompletableFuture.runAsync(() -> task.accept(i), workers);
+		}
+		
+		try {
+			CompletableFuture.allOf(tasks).join();
+		} catch (CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Helper function to sum the gradient buffers into the first buffer and divide them by the number of replicas
+	 */
+	private void allReduce() {
+		int length = gradients[0].length;
+		int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		
+		//In every round, each buffer at a multiple of 2 * stride adds the buffer stride after it
+		for(int stride = 1; stride < replicas.length; stride *= 2) {
+			final int distance = stride;
+			int width = stride * 2;
+			int pairs = (replicas.length - stride + width - 1) / width;
+			
+			forEach(workers, pairs * chunks, task -> {
+				double[] dest = gradients[(task / chunks) * width];
+				double[] src = gradients[(task / chunks) * width + distance];
+				
+				int end = Math.min(length, (task % chunks + 1) * CHUNK_SIZE);
+				for(int index = (task % chunks) * CHUNK_SIZE; index < end; index++) dest[index] += src[index];
+			});
+		}
+		
+		if(replicas.length == 1) return;
+		
+		double scale = 1.0 / replicas.length;
+		forEach(workers, chunks, chunk -> {
+			double[] sum = gradients[0];
+			
+			int end = Math.min(length, (chunk + 1) * CHUNK_SIZE);
+			for(int index = chunk * CHUNK_SIZE; index < end; index++) sum[index] *= scale;
+		});
+	}
+}
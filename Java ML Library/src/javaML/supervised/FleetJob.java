@@ -0,0 +1,224 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import javaML.data.Dataset;
+
+/**
+ * A FleetJob describes one of the many small networks trained by a FleetTrainer and reports its progress.<br>
+ * A job is made of:
+ * <ul>
+ * <li>A model, a function that returns a new network every time it is called, such as one that configures a
+ * NetworkBuilder and builds it, or one that reads a model file</li>
+ * <li>A dataset, a function that returns the training data of the network, such as one that maps a DatasetFile</li>
+ * <li>The number of epochs to train the network for</li>
+ * <li>An optional file the trained network is written to in the binary model format</li>
+ * </ul>
+ * The model and dataset functions are called on the I/O threads of the FleetTrainer, so they may block on files or
+ * the network. The dataset is then uploaded to the network on a training thread, so the normalization statistics
+ * are gathered by the training threads rather than the I/O threads. Every other function of a job may be called
+ * from any thread while it is trained.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class FleetJob {
+	
+	/**
+	 * States of a job in the order they are reached<br>
+	 * <ul>
+	 * <li>QUEUED waits for a FleetTrainer to admit it</li>
+	 * <li>LOADING builds the network and reads the dataset on an I/O thread, then uploads the dataset on a
+	 * training thread</li>
+	 * <li>TRAINING trains the network one epoch at a time</li>
+	 * <li>SAVING writes the trained network on an I/O thread</li>
+	 * <li>DONE and FAILED are final</li>
+	 * </ul>
+	 */
+	public enum State {
+		QUEUED, LOADING, TRAINING, SAVING, DONE, FAILED
+	}
+	
+	private final String name;
+	private final Callable<Network> model;
+	private final Callable<Dataset> dataset;
+	private final Normalize normalize;
+	private final int epochs;
+	private final File output;
+	
+	private final CompletableFuture<FleetJob> result = new CompletableFuture<>();
+	
+	private volatile State state = State.QUEUED;
+	private volatile int epoch = 0;
+	private volatile double loss = Double.NaN;
+	private volatile Throwable error = null;
+	
+	//Only accessed by the stage of the job currently running
+	private Network network;
+	private Dataset data;
+	
+	//Order the job was submitted in, set by the FleetTrainer
+	long sequence = -1;
+	
+	/**
+	 * Constructor for a FleetJob
+	 * @param name Name of the job, used to report its progress
+	 * @param model Function returning the network to be trained
+	 * @param dataset Function returning the dataset the network is trained on
+	 * @param normalize Normalization applied to the dataset
+	 * @param epochs Number of epochs to train the network for
+	 * @param output File the trained network is written to, or null to keep it in memory once the job is done
+	 */
+	public FleetJob(String name, Callable<Network> model, Callable<Dataset> dataset, Normalize normalize, int epochs,
+			File output) {
+		if(epochs <= 0) throw new IllegalArgumentException("A job must train for at least 1 epoch");
+		
+		this.name = name;
+		this.model = model;
+		this.dataset = dataset;
+		this.normalize = normalize;
+		this.epochs = epochs;
+		this.output = output;
+	}
+	
+	/**
+	 * Function to get the name of the job
+	 * @return Name of the job
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Function to get the state the job is currently in
+	 * @return Current state
+	 */
+	public State getState() {
+		return state;
+	}
+	
+	/**
+	 * Function to get the number of epochs the network has finished
+	 * @return Number of finished epochs
+	 */
+	public int getEpoch() {
+		return epoch;
+	}
+	
+	/**
+	 * Function to get the number of epochs the network is trained for
+	 * @return Total number of epochs
+	 */
+	public int getEpochs() {
+		return epochs;
+	}
+	
+	/**
+	 * Function to get the validation loss of the most recently finished epoch
+	 * @return Validation loss, or NaN if no epoch has finished
+	 */
+	public double getLoss() {
+		return loss;
+	}
+	
+	/**
+	 * Function to get the reason the job failed
+	 * @return Exception thrown by the job, or null if it has not failed
+	 */
+	public Throwable getError() {
+		return error;
+	}
+	
+	/**
+	 * Function to get the trained network of a job without an output file
+	 * @return Trained network once the job is done, otherwise null
+	 */
+	public Network getNetwork() {
+		return state == State.DONE ? network : null;
+	}
+	
+	/**
+	 * Function to get the result of the job
+	 * @return Future completed with this job once it is done, or exceptionally with its error if it failed
+	 */
+	public CompletableFuture<FleetJob> getResult() {
+		return result;
+	}
+	
+	/**
+	 * Function to be called only by the FleetTrainer<br>
+	 * Builds the network and reads its dataset
+	 * @throws Exception if the model or dataset could not be loaded
+	 */
+	void load() throws Exception {
+		state = State.LOADING;
+		
+		Network built = model.call();
+		if(built == null) throw new IllegalStateException("Model of job " + name + " did not build a network");
+		
+		Dataset read = dataset.call();
+		if(read == null) throw new IllegalStateException("Dataset of job " + name + " did not return a dataset");
+		
+		network = built;
+		data = read;
+	}
+	
+	/**
+	 * Function to be called only by the FleetTrainer<br>
+	 * Uploads the dataset read by load() to the network, gathering its normalization statistics on the calling
+	 * thread unless the dataset is large enough for Normalizer.fit() to split it across the common fork/join pool
+	 */
+	void upload() {
+		network.uploadDataset(data, normalize);
+		data = null;
+	}
+	
+	/**
+	 * Function to be called only by the FleetTrainer<br>
+	 * Trains the network for one epoch
+	 * @return True if the network has been trained for every epoch
+	 */
+	boolean trainEpoch() {
+		state = State.TRAINING;
+		
+		loss = network.trainEpoch(true, false);
+		epoch++;
+		
+		return epoch >= epochs;
+	}
+	
+	/**
+	 * Function to be called only by the FleetTrainer<br>
+	 * Writes the trained network to the output file, if there is one, and completes the job
+	 * @throws Exception if the network could not be written
+	 */
+	void save() throws Exception {
+		if(output != null) {
+			state = State.SAVING;
+			ModelFile.write(network, output);
+			
+			//Networks written to a file are released, so only the networks being trained are held in memory
+			network = null;
+		}
+		
+		state = State.DONE;
+		result.complete(this);
+	}
+	
+	/**
+	 * Function to be called only by the FleetTrainer<br>
+	 * Fails the job and releases its network
+	 * @param cause Exception thrown by the job
+	 */
+	void fail(Throwable cause) {
+		network = null;
+		data = null;
+		error = cause;
+		state = State.FAILED;
+		result.completeExceptionally(cause);
+	}
+}
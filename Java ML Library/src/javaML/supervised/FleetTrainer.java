@@ -0,0 +1,239 @@
+package javaML.supervised;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The FleetTrainer trains a large number of small independent networks, described by FleetJobs, on a bounded pool
+ * of threads.<br>
+ * Every job goes through three stages:
+ * <ul>
+ * <li>Loading, where the network is built and its dataset read, runs on the I/O executor, and the dataset is then
+ * uploaded to the network, along with its normalization, on the training threads</li>
+ * <li>Training runs on the training threads, one epoch at a time</li>
+ * <li>Saving, where the trained network is written to its output file, runs on the I/O executor</li>
+ * </ul>
+ * Only a bounded number of jobs are active, loaded or training, at once, so memory holds at most that many
+ * networks and datasets however many jobs are submitted. After every epoch a job goes to the back of the queue of
+ * the training threads, so every active job gets an equal share of the threads and a job with many epochs never
+ * holds back the others. Queued jobs are admitted with the most epochs first, so the longest jobs start early
+ * instead of running alone at the end of the fleet.
+ * <br><br>
+ * Loading and saving mostly wait on files, so the I/O executor may run many more tasks than there are cores. By
+ * default it is a pool that grows with the number of waiting tasks, and any other executor, such as one that
+ * starts a virtual thread for every task, may be given instead. Training only runs on the training threads,
+ * which should match the number of available cores.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class FleetTrainer implements AutoCloseable {
+	
+	private final ExecutorService workers;
+	private final ExecutorService io;
+	private final boolean ownsIO;
+	
+	private final int maxActive;
+	
+	//Guarded by this
+	private final PriorityQueue<FleetJob> queued = new PriorityQueue<>(
+			Comparator.comparingInt(FleetJob::getEpochs).reversed().thenComparingLong(job -> job.sequence));
+	private int active = 0;
+	private long submitted = 0;
+	private long finished = 0;
+	
+	//Guarded by this: whether a thread is admitting jobs, which then also admits jobs into room freed by others
+	private boolean admitting = false;
+	
+	/**
+	 * Constructor for a FleetTrainer with its own I/O executor
+	 * @param threads Number of threads networks are trained on, typically the number of available cores
+	 * @param maxActive Largest number of jobs loaded or trained at once
+	 */
+	public FleetTrainer(int threads, int maxActive) {
+		this(threads, maxActive, Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "FleetTrainer-io");
+			thread.setDaemon(true);
+			return thread;
+		}), true);
+	}
+	
+	/**
+	 * Constructor for a FleetTrainer that loads and saves jobs on a given executor
+	 * @param threads Number of threads networks are trained on, typically the number of available cores
+	 * @param maxActive Largest number of jobs loaded or trained at once
+	 * @param io Executor the jobs are loaded and saved on, which is not shut down by the FleetTrainer
+	 */
+	public FleetTrainer(int threads, int maxActive, ExecutorService io) {
+		this(threads, maxActive, io, false);
+	}
+	
+	private FleetTrainer(int threads, int maxActive, ExecutorService io, boolean ownsIO) {
+		if(threads <= 0) throw new IllegalArgumentException("At least 1 thread is needed");
+		if(maxActive < threads) throw new IllegalArgumentException("At least as many active jobs as threads are needed");
+		
+		this.workers = DataParallelTrainer.createWorkers(threads, "FleetTrainer-worker");
+		this.io = io;
+		this.ownsIO = ownsIO;
+		this.maxActive = maxActive;
+	}
+	
+	/**
+	 * Function to queue a job to be trained
+	 * @param job Job that has not been submitted before
+	 * @return Future completed with the job once it is done, or exceptionally with its error if it failed
+	 */
+	public CompletableFuture<FleetJob> submit(FleetJob job) {
+		synchronized(this) {
+			if(job.sequence >= 0) throw new IllegalArgumentException("Job " + job.getName() + " was already submitted");
+			
+			job.sequence = submitted++;
+			queued.add(job);
+		}
+		
+		admit();
+		
+		return job.getResult();
+	}
+	
+	/**
+	 * Function to get the number of jobs waiting to be admitted
+	 * @return Number of queued jobs
+	 */
+	public synchronized int getQueued() {
+		return queued.size();
+	}
+	
+	/**
+	 * Function to get the number of jobs being loaded, trained or saved
+	 * @return Number of active jobs
+	 */
+	public synchronized int getActive() {
+		return active;
+	}
+	
+	/**
+	 * Function to get the number of jobs that are done or failed
+	 * @return Number of finished jobs
+	 */
+	public synchronized long getFinished() {
+		return finished;
+	}
+	
+	/**
+	 * Function to stop the threads of the trainer, and the I/O executor if it was created by the trainer<br>
+	 * Every job is still completed. Jobs that are queued are failed with a CancellationException. Active jobs
+	 * finish the stage they are in and are failed with a RejectedExecutionException as soon as their next stage
+	 * needs an executor that was stopped, so only jobs that are already being saved complete normally. Jobs
+	 * submitted after the trainer is closed are failed the same way
+	 */
+	@Override
+	public void close() {
+		FleetJob[] dropped;
+		synchronized(this) {
+			dropped = queued.toArray(new FleetJob[0]);
+			queued.clear();
+			finished += dropped.length;
+		}
+		
+		workers.shutdown();
+		if(ownsIO) io.shutdown();
+		
+		for(FleetJob job: dropped) job.fail(new CancellationException("FleetTrainer was closed before job " +
+				job.getName() + " was started"));
+	}
+	
+	/**
+	 * Helper function to start loading queued jobs while there is room for them<br>
+	 * A job that fails while it is admitted frees its room by calling admit() again, so only the first call
+	 * admits jobs and any call made meanwhile returns at once, leaving its room to the loop of the first call.
+	 * This keeps the stack flat when a long queue of jobs is failed one after another
+	 */
+	private void admit() {
+		synchronized(this) {
+			if(admitting) return;
+			admitting = true;
+		}
+		
+		while(true) {
+			FleetJob job;
+			synchronized(this) {
+				//Checked in the same block that stops admitting, so room freed by another thread is never missed
+				if(active >= maxActive || queued.isEmpty()) {
+					admitting = false;
+					return;
+				}
+				
+				job = queued.poll();
+				active++;
+			}
+			
+			run(io, job, () -> {
+				job.load();
+				run(workers, job, () -> {
+					job.upload();
+					train(job);
+				});
+			});
+		}
+	}
+	
+	/**
+	 * Helper function to train a job for one epoch on the training threads, queueing it again until it is done
+	 */
+	private void train(FleetJob job) {
+		run(workers, job, () -> {
+			if(job.trainEpoch()) run(io, job, () -> {
+				job.save();
+				finish();
+			});
+			else train(job);
+		});
+	}
+	
+	/**
+	 * Helper function to run a stage of a job, failing the job if the stage throws
+	 */
+	private void run(ExecutorService executor, FleetJob job, Stage stage) {
+		Runnable task = () -> {
+			try {
+				stage.run();
+			} catch (Throwable e) {
+				job.fail(e);
+				finish();
+			}
+		};
+		
+		try {
+			executor.execute(task);
+		} catch (RuntimeException e) {
+			job.fail(e);
+			finish();
+		}
+	}
+	
+	/**
+	 * Helper function to free the room of a job that is done or failed
+	 */
+	private void finish() {
+		synchronized(this) {
+			active--;
+			finished++;
+		}
+		
+		admit();
+	}
+	
+	/**
+	 * Stage of a job, which may throw any exception
+	 */
+	private interface Stage {
+		void run() throws Exception;
+	}
+}
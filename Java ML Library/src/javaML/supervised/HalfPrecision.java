@@ -0,0 +1,60 @@
+package javaML.supervised;
+
+/**
+ * HalfPrecision is a small helper that converts between doubles and IEEE half precision floats for the
+ * supervised package.<br>
+ * It is shared by the FLOAT16 encoding of CompressedModelFile and the half precision gradients of RingTrainer, so
+ * weights and gradients are always rounded the same way: to the nearest half, ties to even. Values too large for
+ * half precision become infinity and values too small become 0.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+final class HalfPrecision {
+	
+	private HalfPrecision() {}
+	
+	/**
+	 * Function to convert a value to an IEEE half precision float, rounding to the nearest half, ties to even.<br>
+	 * The value is rounded to a float first
+	 * @param value Value to be converted
+	 * @return Bits of the half precision float
+	 */
+	static short toHalf(double value) {
+		int bits = Float.floatToRawIntBits((float) value);
+		int sign = (bits >>> 16) & 0x8000;
+		int abs = bits & 0x7FFFFFFF;
+		
+		//Infinity and NaN, then values that round past the largest half, 65504
+		if(abs >= 0x7F800000) return (short) (sign | 0x7C00 | (abs > 0x7F800000 ? 0x200 : 0));
+		if(abs >= 0x477FF000) return (short) (sign | 0x7C00);
+		
+		//Subnormal halves are multiples of 2^-24, the scaling is exact so only the rounding is inexact
+		if(abs < 0x38800000) return (short) (sign | (int) Math.rint(Float.intBitsToFloat(abs) * 0x1p24f));
+		
+		int half = (((abs >>> 23) - 112) << 10) | ((abs & 0x7FFFFF) >>> 13);
+		int rest = abs & 0x1FFF;
+		if(rest > 0x1000 || (rest == 0x1000 && (half & 1) == 1)) half++;
+		
+		return (short) (sign | half);
+	}
+	
+	/**
+	 * Function to convert the bits of an IEEE half precision float to a double, which holds every half exactly
+	 * @param half Bits of the half precision float
+	 * @return Value of the half
+	 */
+	static double fromHalf(short half) {
+		int bits = half & 0xFFFF;
+		double sign = (bits & 0x8000) == 0 ? 1 : -1;
+		int exponent = (bits >>> 10) & 0x1F;
+		int mantissa = bits & 0x3FF;
+		
+		if(exponent == 0) return sign * mantissa * 0x1p-24;
+		if(exponent == 0x1F) return mantissa == 0 ? sign * Double.POSITIVE_INFINITY : Double.NaN;
+		
+		return sign * (1 + mantissa / 1024.0) * Math.scalb(1.0, exponent - 15);
+	}
+}
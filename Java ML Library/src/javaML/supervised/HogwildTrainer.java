@@ -0,0 +1,182 @@
+package javaML.supervised;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ExecutorService;
+
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The HogwildTrainer trains a network on several threads at once without any synchronization between them.<br>
+ * Every thread trains its own replica of the network on a contiguous shard of the training data, like the
+ * DataParallelTrainer, but the replicas share a single set of weight matrices and every replica adjusts those
+ * weights in place as soon as it finishes a batch, without waiting for or locking out the other threads. This
+ * removes every synchronization point inside an epoch, which suits small models and sparse gradients where the
+ * cost of combining gradients would outweigh the cost of computing them.
+ * <br><br>
+ * The threads race on the shared weights, with the following semantics:
+ * <ul>
+ * <li>Adjustments read and write every weight with opaque access, so an adjustment never tears a weight and
+ * eventually becomes visible to the other threads, without any ordering between different weights</li>
+ * <li>Forward and backward passes read the weights with plain reads through the Matrix, as they do for any other
+ * network. A pass may read some weights before and some after another thread adjusts them, so the gradients of a
+ * batch are usually computed against weights that are up to one batch per other thread stale. As the reads are
+ * plain, nothing bounds how long a thread may keep seeing an older value of a weight, and the Java memory model
+ * allows a plain read of a double to be torn, mixing the halves of the values before and after an adjustment,
+ * although 64-bit JVMs read doubles whole</li>
+ * <li>Adjustments of the same weight made by two threads at the same moment may overwrite each other, losing one
+ * of them. This is rare when few weights are adjusted at once or the model is small relative to the number of
+ * threads</li>
+ * <li>Every replica keeps its own optimizer state</li>
+ * </ul>
+ * The shared weights are private copies of the weights of the network. The network itself is only updated at the
+ * end of every epoch, when the shared weights are copied back into it while no thread is running, so the network
+ * can be validated, forked or checkpointed between epochs as usual.
+ * <br><br>
+ * The network must have a dataset uploaded with uploadDataset() before the trainer is created, and should not be
+ * trained any other way while the trainer is in use. The trainer keeps its threads until it is closed.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class HogwildTrainer implements AutoCloseable {
+	
+	//Access to single weights of a weight matrix shared between threads
+	private static final VarHandle WEIGHT = MethodHandles.arrayElementVarHandle(double[].class);
+	
+	private final Network network;
+	private final Network[] replicas;
+	
+	//Weight matrices shared by every replica, in the order of the ConnectionLayers of the network
+	private final Matrix[] shared;
+	
+	private final ExecutorService workers;
+	private final int steps;
+	
+	private double averageLoss = 0;
+	
+	/**
+	 * Constructor for a HogwildTrainer splitting the uploaded dataset of a network between threads
+	 * @param network Network to be trained, with a dataset uploaded with uploadDataset()
+	 * @param threads Number of threads, typically the number of available cores
+	 */
+	public HogwildTrainer(Network network, int threads) {
+		this.network = network;
+		this.replicas = DataParallelTrainer.replicate(network, threads);
+		this.steps = DataParallelTrainer.epochSteps(replicas, network.getBatchSize());
+		
+		//Weights of the network are never modified in place, so the replicas adjust a copy of them
+		ConnectionLayer[] cLayers = network.getConnectionLayers();
+		this.shared = new Matrix[cLayers.length];
+		for(int index = 0; index < cLayers.length; index++) shared[index] = new Matrix(cLayers[index].getMatrix().getMatrix());
+		
+		for(Network replica: replicas) {
+			ConnectionLayer[] replicaLayers = replica.getConnectionLayers();
+			for(int index = 0; index < replicaLayers.length; index++) replicaLayers[index].setMatrix(shared[index]);
+		}
+		
+		this.workers = DataParallelTrainer.createWorkers(threads, "HogwildTrainer-worker");
+	}
+	
+	/**
+	 * Function to train through every shard one time, with every thread training through its shard as fast as it
+	 * can
+	 * @return Loss calculated through a validation check immediately after the epoch is finished
+	 */
+	public double trainEpoch() {
+		double lr = network.getLearningRate();
+		
+		double[] losses = new double[replicas.length];
+		DataParallelTrainer.forEach(workers, replicas.length, index -> {
+			Network replica = replicas[index];
+			replica.setLearningRate(lr);
+			
+			for(int step = 0; step < steps; step++) {
+				replica.trainShared();
+				losses[index] += replica.getAverageLoss();
+			}
+		});
+		
+		double loss = 0;
+		for(double replicaLoss: losses) loss += replicaLoss;
+		averageLoss = loss / (replicas.length * steps);
+		
+		publish();
+		
+		double validation = replicas[replicas.length - 1].validate();
+		network.finishEpoch();
+		
+		for(Network replica: replicas) replica.reset(true);
+		
+		return validation;
+	}
+	
+	/**
+	 * Function to get the average loss of every batch of the most recent epoch
+	 * @return Average loss over every replica
+	 */
+	public double getAverageLoss() {
+		return averageLoss;
+	}
+	
+	/**
+	 * Function to get the number of threads
+	 * @return Number of threads
+	 */
+	public int getThreads() {
+		return replicas.length;
+	}
+	
+	/**
+	 * Function to stop the threads of the trainer
+	 */
+	@Override
+	public void close() {
+		workers.shutdown();
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Adjusts the weights of a ConnectionLayer in place, for a layer Matrix shared by several replicas that train
+	 * on separate threads without locking. Every weight is read and written with opaque access, so no adjustment
+	 * tears a weight and every write is seen by the other threads eventually, but adjustments made by different
+	 * threads at the same time may overwrite each other. The passes of other threads read the weights with plain
+	 * reads, see the HogwildTrainer class for what they may observe.<br>
+	 * The Matrix is set on the layer again once it is adjusted, so the version of the layer increases with every
+	 * step like it does for adjustWeights(). The Matrix must not be shared with any network that expects its
+	 * weights to never change in place
+	 * @param layer ConnectionLayer whose Matrix is adjusted
+	 * @param lr Learning rate
+	 * @throws IllegalStateException if the layer Matrix is not a heap Matrix, as the values of other matrices,
+	 * such as a MappedMatrix, cannot be adjusted in place
+	 */
+	static void adjustShared(ConnectionLayer layer, double lr) {
+		Matrix matrix = layer.getMatrix();
+		if(matrix.getClass() != Matrix.class) throw new IllegalStateException("Only the weights of a heap Matrix can be adjusted in place");
+		
+		double[][] weights = matrix.getMatrix();
+		Matrix adjustments = layer.computeAdjustments(lr);
+		
+		for(int row = 0; row < weights.length; row++) {
+			double[] weightRow = weights[row];
+			
+			for(int col = 0; col < weightRow.length; col++) {
+				double weight = (double) WEIGHT.getOpaque(weightRow, col);
+				WEIGHT.setOpaque(weightRow, col, weight + adjustments.getValue(row, col));
+			}
+		}
+		
+		layer.setMatrix(matrix);
+	}
+	
+	/**
+	 * Helper function to copy the shared weights into the network
+	 */
+	private void publish() {
+		ConnectionLayer[] cLayers = network.getConnectionLayers();
+		for(int index = 0; index < cLayers.length; index++) cLayers[index].setMatrix(shared[index].getMatrix());
+	}
+}
@@ -0,0 +1,220 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The IncrementalCheckpointer writes checkpoints of a network into a directory as a base checkpoint followed by
+ * deltas, so that the cost of a checkpoint scales with what changed instead of with the size of the model.<br>
+ * This matters most when fine-tuning with most layers frozen, where a full checkpoint would rewrite the same
+ * weights every time.
+ * <br><br>
+ * Every checkpoint is given a sequence number:
+ * <ul>
+ * <li>The first checkpoint is written as a full TrainingCheckpoint named base-&lt;sequence&gt;.nnc</li>
+ * <li>Every later checkpoint is written as delta-&lt;sequence&gt;.nnd, holding only the ConnectionLayers whose
+ * version changed since the previous checkpoint along with the learning rate, dataset position and histories</li>
+ * </ul>
+ * Changes are tracked through the version counter of every ConnectionLayer, which is increased whenever its
+ * Matrix is replaced. Since ConnectionLayer weights are never modified in place, an unchanged version means
+ * unchanged weights and optimizer state.
+ * <br><br>
+ * Restoring reads the newest base and applies the deltas that directly follow it in order. compact() folds the
+ * deltas into a new base and removes the files it replaces, keeping restore time bounded.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class IncrementalCheckpointer {
+	
+	/**
+	 * Magic number found at the start of every delta file ("JMLD")
+	 */
+	static final int DELTA_MAGIC = 0x444C4D4A;
+	
+	/**
+	 * File extension used by delta files
+	 */
+	public static final String DELTA_EXTENSION = ".nnd";
+	
+	private static final String BASE_PREFIX = "base-";
+	private static final String DELTA_PREFIX = "delta-";
+	
+	private final Network network;
+	private final File directory;
+	
+	//Versions of the ConnectionLayers when they were last written, null until a base has been written
+	private long[] versions = null;
+	private long sequence;
+	
+	/**
+	 * Constructor to checkpoint a network into a directory.<br>
+	 * Sequence numbers continue after any checkpoints already in the directory, but the first checkpoint taken
+	 * is always a new base
+	 * @param network Network to be checkpointed
+	 * @param directory Directory the checkpoints are written to, created if it does not exist
+	 */
+	public IncrementalCheckpointer(Network network, File directory) {
+		if(!directory.isDirectory() && !directory.mkdirs())
+			throw new IllegalArgumentException("Could not create checkpoint directory " + directory);
+		
+		this.network = network;
+		this.directory = directory;
+		
+		long last = -1;
+		for(long seq: list(directory, BASE_PREFIX, TrainingCheckpoint.EXTENSION).keySet()) last = Math.max(last, seq);
+		for(long seq: list(directory, DELTA_PREFIX, DELTA_EXTENSION).keySet()) last = Math.max(last, seq);
+		
+		this.sequence = last + 1;
+	}
+	
+	/**
+	 * Function to capture the network and write a checkpoint on the background writer thread.<br>
+	 * Should be called from the thread that trains the network, between calls to train()
+	 * @return Future that completes with the written file once the checkpoint is on disk
+	 */
+	public synchronized Future<File> checkpoint() {
+		ConnectionLayer[] cLayers = network.getConnectionLayers();
+		long[] current = new long[cLayers.length];
+		for(int index = 0; index < cLayers.length; index++) current[index] = cLayers[index].getVersion();
+		
+		long seq = sequence++;
+		
+		if(versions == null || versions.length != current.length) {
+			versions = current;
+			TrainingCheckpoint base = TrainingCheckpoint.capture(network);
+			File file = new File(directory, BASE_PREFIX + seq + TrainingCheckpoint.EXTENSION);
+			
+			return TrainingCheckpoint.WRITER.submit(() -> {
+				try {
+					base.write(file);
+				} catch (IOException e) {
+					forceBase();
+					throw e;
+				}
+				
+				return file;
+			});
+		}
+		
+		boolean[] changed = new boolean[current.length];
+		for(int index = 0; index < current.length; index++) changed[index] = current[index] != versions[index];
+		
+		versions = current;
+		TrainingCheckpoint delta = TrainingCheckpoint.capture(network, changed);
+		File file = new File(directory, DELTA_PREFIX + seq + DELTA_EXTENSION);
+		
+		return TrainingCheckpoint.WRITER.submit(() -> {
+			try {
+				delta.write(file, DELTA_MAGIC, true);
+			} catch (IOException e) {
+				//A missing delta breaks the chain, so the next checkpoint starts a new base
+				forceBase();
+				throw e;
+			}
+			
+			return file;
+		});
+	}
+	
+	/**
+	 * Function to fold the checkpoints in the directory into a single new base on the background writer thread,
+	 * ordered after every checkpoint already submitted
+	 * @return Future that completes with the new base, or null if the directory holds no base
+	 */
+	public Future<File> compact() {
+		return TrainingCheckpoint.WRITER.submit(() -> compact(directory));
+	}
+	
+	/**
+	 * Helper function to make the next checkpoint a new base
+	 */
+	private synchronized void forceBase() {
+		versions = null;
+	}
+	
+	/**
+	 * Function to fold the newest base in a directory and the deltas that directly follow it into a new base.<br>
+	 * The new base takes the sequence number of the last delta, after which every older base and delta is deleted.
+	 * Should not be called while checkpoints are being written to the directory by another thread; use the
+	 * instance function compact() instead
+	 * @param directory Directory holding the checkpoints
+	 * @return The new base, or null if the directory holds no base
+	 * @throws IOException if a checkpoint could not be read or the new base could not be written
+	 */
+	public static File compact(File directory) throws IOException {
+		TreeMap<Long, File> bases = list(directory, BASE_PREFIX, TrainingCheckpoint.EXTENSION);
+		if(bases.isEmpty()) return null;
+		
+		long last = bases.lastKey();
+		TrainingCheckpoint merged = TrainingCheckpoint.read(bases.lastEntry().getValue());
+		
+		TreeMap<Long, File> deltas = list(directory, DELTA_PREFIX, DELTA_EXTENSION);
+		while(deltas.containsKey(last + 1)) {
+			last++;
+			merged = merged.merge(TrainingCheckpoint.read(deltas.get(last), DELTA_MAGIC, true));
+		}
+		
+		File base = new File(directory, BASE_PREFIX + last + TrainingCheckpoint.EXTENSION);
+		merged.write(base);
+		
+		for(File file: bases.headMap(last, true).values()) {
+			if(!file.equals(base)) file.delete();
+		}
+		for(File file: deltas.headMap(last, true).values()) file.delete();
+		
+		return base;
+	}
+	
+	/**
+	 * Function to build a network from the newest base in a directory and the deltas that directly follow it.<br>
+	 * Deltas after a gap in the sequence numbers are ignored, since they may depend on the missing delta
+	 * @param directory Directory holding the checkpoints
+	 * @return The restored network, or null if the directory holds no base
+	 * @throws IOException if a checkpoint could not be read
+	 */
+	public static Network restore(File directory) throws IOException {
+		TreeMap<Long, File> bases = list(directory, BASE_PREFIX, TrainingCheckpoint.EXTENSION);
+		if(bases.isEmpty()) return null;
+		
+		long last = bases.lastKey();
+		Network network = TrainingCheckpoint.read(bases.lastEntry().getValue()).build();
+		
+		TreeMap<Long, File> deltas = list(directory, DELTA_PREFIX, DELTA_EXTENSION);
+		while(deltas.containsKey(last + 1)) {
+			last++;
+			TrainingCheckpoint.read(deltas.get(last), DELTA_MAGIC, true).restore(network);
+		}
+		
+		return network;
+	}
+	
+	/**
+	 * Helper function to list the checkpoint files of one kind in a directory by sequence number
+	 */
+	private static TreeMap<Long, File> list(File directory, String prefix, String extension) {
+		TreeMap<Long, File> ret = new TreeMap<>();
+		
+		File[] files = directory.listFiles();
+		if(files == null) return ret;
+		
+		for(File file: files) {
+			String name = file.getName();
+			if(!name.startsWith(prefix) || !name.endsWith(extension)) continue;
+			
+			try {
+				ret.put(Long.parseLong(name.substring(prefix.length(), name.length() - extension.length())), file);
+			} catch (NumberFormatException e) {
+				continue;
+			}
+		}
+		
+		return ret;
+	}
+}
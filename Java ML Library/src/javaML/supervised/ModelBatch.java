@@ -0,0 +1,1010 @@
+package javaML.supervised;
+
+import java.util.Arrays;
+
+import javaML.data.Dataset;
+import javaML.data.Normalizer;
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ActivationFunctions;
+import javaML.supervised.structures.networkElements.Adam;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+import javaML.supervised.structures.networkElements.NeuronLayer;
+import javaML.supervised.structures.networkElements.Unit;
+import javaML.supervised.structures.networkElements.recurrent.RecurrentConnectionLayer;
+import javaML.supervised.structures.networkElements.recurrent.gru.GRU_Functions;
+
+/**
+ * The ModelBatch runs many small networks of the same topology as a single stacked computation, instead of one
+ * network at a time.<br>
+ * A small network spends most of its time on the overhead of its many short loops and small objects rather than
+ * on arithmetic. The ModelBatch copies the weights of all of its networks into one array per ConnectionLayer,
+ * laid out with the weight of every network next to each other:
+ * <ul>
+ * <li>Weights are stored as [row][column][network]</li>
+ * <li>Values, derivatives and errors of every layer, and of the reset gate, update gate and intermediate layer of
+ * every GRU unit, are stored as [timestep][neuron][network]</li>
+ * </ul>
+ * so every step of the networks is a single pass over contiguous arrays, with the innermost loop running across
+ * the networks. Every network still computes exactly what it computes on its own, in the same order, so the
+ * results of a ModelBatch are identical to the results of its networks.
+ * <br><br>
+ * test() advances every network by one timestep. train() trains every network on its own uploaded training data
+ * with its own learning rate, for any topology: recurrent and GRU units are trained through every timestep in
+ * memory, their ConnectionLayers with the Adam optimizer and their RecurrentConnectionLayers with plain gradient
+ * descent, exactly as Network does. The training data must all have the same size and the networks must be at the
+ * same position in it, so they move through their epochs together.
+ * <br><br>
+ * The batch starts from the weights, optimizer state and memory of its networks, and unstack() copies them back
+ * into the networks, which continue exactly as if they had been trained on their own. The vectors a GRU unit
+ * passes between its layers during a single forward pass are rewritten before they are read again, so they are
+ * not part of the memory of the batch and unstack() leaves them as they are.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class ModelBatch {
+	
+	private final Network[] networks;
+	private final int models;
+	
+	private final int memoryLength;
+	private final int batchSize;
+	
+	//Index of the output layer, and of the gates of the GRU unit of a layer
+	private static final int RESET = 0, UPDATE = 1, CANDIDATE = 2;
+	private final int out;
+	
+	//Per layer in memory, index 0 is the input layer and the gates of every GRU unit follow the output layer
+	private final LayerType[] types;
+	private final int[] sizes;
+	private final boolean[] bias;
+	private final Activation[] activations;
+	
+	//Index of the first ConnectionLayer of every Unit, and of the reset gate of every GRU layer or -1
+	private final int[] firstConnection;
+	private final int[] gates;
+	
+	//Per ConnectionLayer, stored as [row][column][network]
+	private final int[] rows, columns;
+	private final double[][] weights;
+	
+	//Per ConnectionLayer, the layers its gradients are calculated from and whether it uses the Adam optimizer
+	private final int[] from, to;
+	private final boolean[] adam;
+	
+	//Per layer in memory and timestep, stored as [neuron][network] with the bias of the layer after its neurons
+	private final double[][][] values, derivatives, errors;
+	
+	//Slot of the oldest timestep of the values and derivatives, and of the errors
+	private int head = 0, errorHead = 0;
+	
+	//Sum of the ConnectionLayers into every layer before it is activated
+	private final double[][] unactivated;
+	
+	//Vectors calculated from the gates of every GRU unit during its forward pass, null for every other unit
+	private final double[][] resetState, complement, gated;
+	
+	//Adam optimizer state, null for the ConnectionLayers that do not use it
+	private final double[][] m_t, v_t;
+	private final int[][] iteration;
+	private boolean optimized = false;
+	
+	//Stacked inputs of the current timestep and targets of the current batch
+	private final double[] inputs;
+	private final double[][] targets;
+	
+	//Buffers of a single network
+	private final double[] row;
+	private final double[] sums;
+	
+	//Buffers of stacked errors, and the values and errors of a timestep outside of memory
+	private final double[][] buffers;
+	private final double[] zeros;
+	
+	private final double[] totalLoss, averageLoss;
+	
+	/**
+	 * Constructor for a ModelBatch, which copies the current weights, optimizer state and memory of every network
+	 * @param networks Networks with the same topology, memory length and batch size
+	 */
+	public ModelBatch(Network... networks) {
+		if(networks.length == 0) throw new IllegalArgumentException("A model batch needs at least 1 network");
+		
+		ModelFile.Header header = ModelFile.Header.of(networks[0]);
+		for(Network n: networks) {
+			if(!ModelFile.Header.of(n).matches(header))
+				throw new IllegalArgumentException("Every network of a model batch needs the same topology");
+		}
+		
+		this.networks = networks.clone();
+		this.models = networks.length;
+		this.memoryLength = networks[0].getMemoryLength();
+		this.batchSize = networks[0].getBatchSize();
+		
+		Unit[] units = networks[0].getUnits();
+		int layers = units.length + 1;
+		this.out = units.length;
+		
+		//The reset gate, update gate and intermediate layer of every GRU unit have their own memory
+		this.gates = new int[layers];
+		Arrays.fill(gates, -1);
+		
+		int entries = layers;
+		for(int index = 0; index < units.length; index++) {
+			if(units[index].getEntry().getLayerType() != LayerType.GRU) continue;
+			
+			gates[index + 1] = entries;
+			entries += CANDIDATE + 1;
+		}
+		
+		this.types = new LayerType[entries];
+		this.sizes = new int[entries];
+		this.bias = new boolean[entries];
+		this.activations = new Activation[entries];
+		this.firstConnection = new int[units.length];
+		
+		NeuronLayer[] memory = memoryLayers(networks[0]);
+		for(int entry = 0; entry < entries; entry++) describe(entry, memory[entry]);
+		for(int index = 0; index < units.length; index++) types[index + 1] = units[index].getEntry().getLayerType();
+		
+		ConnectionLayer[] cLayers = networks[0].getConnectionLayers();
+		this.rows = new int[cLayers.length];
+		this.columns = new int[cLayers.length];
+		this.weights = new double[cLayers.length][];
+		
+		int connection = 0;
+		for(int index = 0; index < units.length; index++) {
+			firstConnection[index] = connection;
+			connection += units[index].getConnectionLayers().length;
+		}
+		
+		for(int c = 0; c < cLayers.length; c++) {
+			rows[c] = cLayers[c].getMatrix().getRows();
+			columns[c] = cLayers[c].getMatrix().getColumns();
+			weights[c] = new double[rows[c] * columns[c] * models];
+		}
+		
+		this.from = new int[cLayers.length];
+		this.to = new int[cLayers.length];
+		this.adam = new boolean[cLayers.length];
+		
+		for(int index = 0; index < units.length; index++) {
+			int layer = index + 1;
+			int c = firstConnection[index];
+			int gate = gates[layer];
+			
+			switch(types[layer]) {
+			case RECURRENT:
+				connect(c, layer - 1, layer);
+				connect(c + 1, layer, layer);
+				break;
+			case GRU:
+				connect(c, layer - 1, gate + RESET);
+				connect(c + 1, layer, gate + RESET);
+				connect(c + 2, layer - 1, gate + UPDATE);
+				connect(c + 3, layer, gate + UPDATE);
+				connect(c + 4, layer - 1, gate + CANDIDATE);
+				
+				//The matrix from the reset gate is adjusted with the values of the gate, as its ConnectionLayer does
+				connect(c + 5, gate + RESET, gate + CANDIDATE);
+				break;
+			default:
+				connect(c, layer - 1, layer);
+				break;
+			}
+		}
+		
+		for(int c = 0; c < cLayers.length; c++) adam[c] = !(cLayers[c] instanceof RecurrentConnectionLayer);
+		
+		this.values = new double[entries][memoryLength][];
+		this.derivatives = new double[entries][memoryLength][];
+		this.errors = new double[entries][memoryLength][];
+		this.unactivated = new double[entries][];
+		
+		int widest = 0;
+		for(int entry = 0; entry < entries; entry++) {
+			unactivated[entry] = new double[sizes[entry] * models];
+			widest = Math.max(widest, sizes[entry] + 1);
+			
+			for(int slot = 0; slot < memoryLength; slot++) {
+				values[entry][slot] = new double[(sizes[entry] + (bias[entry] ? 1 : 0)) * models];
+				derivatives[entry][slot] = new double[sizes[entry] * models];
+				errors[entry][slot] = new double[sizes[entry] * models];
+			}
+		}
+		
+		this.resetState = new double[layers][];
+		this.complement = new double[layers][];
+		this.gated = new double[layers][];
+		
+		for(int layer = 1; layer < layers; layer++) {
+			if(types[layer] != LayerType.GRU) continue;
+			
+			resetState[layer] = new double[(sizes[layer] + 1) * models];
+			complement[layer] = new double[sizes[layer] * models];
+			gated[layer] = new double[sizes[layer] * models];
+		}
+		
+		this.m_t = new double[cLayers.length][];
+		this.v_t = new double[cLayers.length][];
+		this.iteration = new int[cLayers.length][models];
+		
+		for(int c = 0; c < cLayers.length; c++) {
+			if(!adam[c]) continue;
+			
+			m_t[c] = new double[weights[c].length];
+			v_t[c] = new double[weights[c].length];
+		}
+		
+		for(int k = 0; k < models; k++) stack(k);
+		
+		this.inputs = new double[sizes[0] * models];
+		this.targets = new double[batchSize][sizes[out] * models];
+		this.row = new double[sizes[0]];
+		this.sums = new double[models];
+		this.buffers = new double[4][widest * models];
+		this.zeros = new double[widest * models];
+		
+		this.totalLoss = new double[models];
+		this.averageLoss = new double[models];
+		
+		reset();
+		
+		//Every network continues from the memory it was trained or tested to
+		for(int k = 0; k < models; k++) {
+			memory = memoryLayers(networks[k]);
+			for(int entry = 0; entry < entries; entry++) stackHistory(entry, k, memory[entry].getHistory());
+		}
+	}
+	
+	/**
+	 * Function to get the number of networks in the batch
+	 * @return Number of networks
+	 */
+	public int getModels() {
+		return models;
+	}
+	
+	/**
+	 * Function to test a set of inputs on every network, advancing every network by one timestep
+	 * @param inputs Array of the input vector of every network, in the order the networks were given
+	 * @return Array of the output vector of every network
+	 */
+	public double[][] test(double[]... inputs) {
+		if(inputs.length != models) throw new IllegalArgumentException("Expected inputs for " + models + " networks");
+		
+		for(int k = 0; k < models; k++) {
+			if(inputs[k].length != sizes[0]) throw new IllegalArgumentException("Input vector does not match the input layer");
+			
+			for(int col = 0; col < sizes[0]; col++) this.inputs[col * models + k] = inputs[k][col];
+		}
+		
+		forwardPass();
+		
+		double[] outputs = values[out][newest()];
+		
+		double[][] ret = new double[models][sizes[out]];
+		for(int k = 0; k < models; k++) {
+			for(int col = 0; col < sizes[out]; col++) ret[k][col] = outputs[col * models + k];
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to train every network on its next batch, as Network.train() trains a single network
+	 * @param backProp set to true if backpropagation is desired
+	 * @param dependency if set to true, backpropagation will be restricted if memory has not been filled
+	 * with relevant data
+	 * @return Returns true if an overflow occurred when reading through the data
+	 */
+	public boolean train(boolean backProp, boolean dependency) {
+		checkTrainable();
+		
+		Arrays.fill(totalLoss, 0);
+		Arrays.fill(averageLoss, 0);
+		
+		boolean overflow = false;
+		int dataIndex = 0;
+		
+		for(int step = 0; step < batchSize; step++) {
+			for(int k = 0; k < models; k++) {
+				double[] target = networks[k].readNext(row);
+				
+				for(int col = 0; col < row.length; col++) inputs[col * models + k] = row[col];
+				for(int col = 0; col < target.length; col++) targets[step][col * models + k] = target[col];
+			}
+			
+			forwardPass();
+			calculateLoss(targets[step]);
+			
+			dataIndex = networks[0].getDataIndex();
+			if(dataIndex == 0 && step < batchSize - 1) overflow = true;
+		}
+		
+		propagateError();
+		
+		//Backpropagate if desired
+		if(backProp && (!dependency || dataIndex >= memoryLength || dataIndex == 0)) {
+			backpropagate();
+		}
+		
+		for(int k = 0; k < models; k++) averageLoss[k] = totalLoss[k] / batchSize;
+		
+		return overflow;
+	}
+	
+	/**
+	 * Function to train every network through its training data one time, as Network.trainEpoch() does
+	 * @param backProp set to true if backpropagation is desired
+	 * @param dependency if set to true, backpropagation will be restricted if memory has not been filled
+	 * with relevant data
+	 * @return Array of the loss of every network, calculated through a validation check immediately after the
+	 * epoch is finished
+	 */
+	public double[] trainEpoch(boolean backProp, boolean dependency) {
+		int dataSize = checkTrainable();
+		
+		for(int i = 0; i * batchSize < dataSize; i++) {
+			train(backProp, dependency);
+		}
+		
+		double[] loss = validate();
+		
+		reset();
+		for(Network n: networks) n.finishEpoch();
+		
+		return loss;
+	}
+	
+	/**
+	 * Function to perform a basic validation of every network by performing MSE on its validation set
+	 * @return Array of the average error of each of the validation tests of every network
+	 */
+	public double[] validate() {
+		Arrays.fill(totalLoss, 0);
+		Arrays.fill(averageLoss, 0);
+		
+		Dataset[] data = new Dataset[models];
+		Normalizer[] normalizers = new Normalizer[models];
+		
+		int longest = 0;
+		for(int k = 0; k < models; k++) {
+			data[k] = networks[k].getValidationData();
+			normalizers[k] = networks[k].getNormalizer();
+			longest = Math.max(longest, data[k].size());
+		}
+		
+		double[] target = new double[sizes[out]];
+		double[] stacked = new double[sizes[out] * models];
+		boolean[] active = new boolean[models];
+		
+		//Networks with a shorter validation set are passed zeros once they run out, which are not counted
+		for(int index = 0; index < longest; index++) {
+			for(int k = 0; k < models; k++) {
+				active[k] = index < data[k].size();
+				
+				if(active[k]) {
+					data[k].getInput(index, row);
+					data[k].getTarget(index, target);
+					
+					if(normalizers[k] != null) {
+						normalizers[k].normalizeInput(row);
+						normalizers[k].normalizeTarget(target);
+					}
+				}
+				else {
+					Arrays.fill(row, 0);
+					Arrays.fill(target, 0);
+				}
+				
+				for(int col = 0; col < row.length; col++) inputs[col * models + k] = row[col];
+				for(int col = 0; col < target.length; col++) stacked[col * models + k] = target[col];
+			}
+			
+			forwardPass();
+			calculateLoss(stacked, active);
+		}
+		
+		for(int k = 0; k < models; k++) averageLoss[k] = totalLoss[k] / batchSize;
+		
+		return averageLoss.clone();
+	}
+	
+	/**
+	 * Function to reset the memory of every network
+	 */
+	public void reset() {
+		for(int layer = 0; layer < values.length; layer++) {
+			for(int slot = 0; slot < memoryLength; slot++) {
+				Arrays.fill(values[layer][slot], 0);
+				Arrays.fill(derivatives[layer][slot], 0);
+				Arrays.fill(errors[layer][slot], 0);
+				
+				//The bias is the last neuron of a layer and never changes
+				if(bias[layer]) Arrays.fill(values[layer][slot], sizes[layer] * models, values[layer][slot].length, 1);
+			}
+		}
+		
+		head = 0;
+		errorHead = 0;
+	}
+	
+	/**
+	 * Function to get the average loss per element in the most recent batch of every network
+	 * @return Array of totalLoss / batchSize of every network
+	 */
+	public double[] getAverageLoss() {
+		return averageLoss.clone();
+	}
+	
+	/**
+	 * Function to copy the current state of the batch back into its networks<br>
+	 * Every network receives its weights, Adam optimizer state and the memory of every layer, so training or
+	 * testing them on their own continues exactly where the batch left off
+	 * @return Array of the networks in the order they were given
+	 */
+	public Network[] unstack() {
+		for(int k = 0; k < models; k++) {
+			ConnectionLayer[] cLayers = networks[k].getConnectionLayers();
+			
+			for(int c = 0; c < cLayers.length; c++) {
+				cLayers[c].setMatrix(new Matrix(unstack(weights[c], c, k)));
+				
+				if(optimized && adam[c]) {
+					Matrix iterations = new Matrix(rows[c], columns[c], Matrix.FILL_ZERO);
+					for(int r = 0; r < rows[c]; r++) {
+						for(int col = 0; col < columns[c]; col++) iterations.setValue(iteration[c][k], r, col);
+					}
+					
+					cLayers[c].setOptimizerState(new Matrix[] {new Matrix(unstack(m_t[c], c, k)),
+							new Matrix(unstack(v_t[c], c, k)), iterations});
+				}
+			}
+			
+			NeuronLayer[] memory = memoryLayers(networks[k]);
+			for(int entry = 0; entry < memory.length; entry++) {
+				memory[entry].setHistory(history(entry, k, memory[entry]));
+			}
+		}
+		
+		return networks.clone();
+	}
+	
+	/**
+	 * Helper function to get the NeuronLayers of a network in the order of the memory of the batch
+	 */
+	private NeuronLayer[] memoryLayers(Network network) {
+		Unit[] units = network.getUnits();
+		NeuronLayer[] ret = new NeuronLayer[sizes.length];
+		
+		ret[0] = network.getInputLayer();
+		for(int index = 0; index < units.length; index++) {
+			ret[index + 1] = units[index].getExit();
+			
+			//GRU_Constructor builds the reset gate, update gate and intermediate layer in that order
+			int gate = gates[index + 1];
+			if(gate < 0) continue;
+			
+			NeuronLayer[] nLayers = units[index].getNeuronLayers();
+			for(int g = RESET; g <= CANDIDATE; g++) ret[gate + g] = nLayers[g];
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to record the layers a ConnectionLayer is adjusted with, the layer of its source values and
+	 * the layer of its destination errors
+	 */
+	private void connect(int c, int source, int destination) {
+		from[c] = source;
+		to[c] = destination;
+	}
+	
+	/**
+	 * Helper function to record the size, bias and activation of a layer
+	 */
+	private void describe(int layer, NeuronLayer nLayer) {
+		sizes[layer] = nLayer.getLayerSize();
+		bias[layer] = nLayer.hasBias();
+		activations[layer] = nLayer.getActivation();
+		types[layer] = nLayer.getLayerType();
+	}
+	
+	/**
+	 * Helper function to copy the weights and optimizer state of a network into the stacked arrays
+	 */
+	private void stack(int k) {
+		ConnectionLayer[] cLayers = networks[k].getConnectionLayers();
+		
+		for(int c = 0; c < cLayers.length; c++) {
+			double[][] mat = cLayers[c].getMatrix().getMatrix();
+			for(int r = 0; r < rows[c]; r++) {
+				for(int col = 0; col < columns[c]; col++) weights[c][(r * columns[c] + col) * models + k] = mat[r][col];
+			}
+			
+			if(!adam[c]) continue;
+			
+			Matrix[] state = cLayers[c].getOptimizerState();
+			if(state == null) continue;
+			
+			double[][] m = state[0].getMatrix(), v = state[1].getMatrix(), it = state[2].getMatrix();
+			for(int r = 0; r < rows[c]; r++) {
+				for(int col = 0; col < columns[c]; col++) {
+					//Every weight of a layer is adjusted the same number of times
+					if(it[r][col] != it[0][0]) throw new IllegalArgumentException("Optimizer state cannot be stacked");
+					
+					m_t[c][(r * columns[c] + col) * models + k] = m[r][col];
+					v_t[c][(r * columns[c] + col) * models + k] = v[r][col];
+				}
+			}
+			
+			iteration[c][k] = (int) it[0][0];
+			optimized = true;
+		}
+	}
+	
+	/**
+	 * Helper function to copy the matrix of a single network out of a stacked array
+	 */
+	private double[][] unstack(double[] stacked, int c, int k) {
+		double[][] ret = new double[rows[c]][columns[c]];
+		for(int r = 0; r < rows[c]; r++) {
+			for(int col = 0; col < columns[c]; col++) ret[r][col] = stacked[(r * columns[c] + col) * models + k];
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to copy the memory of a layer of a single network, as returned by NeuronLayer.getHistory(),
+	 * into the stacked arrays
+	 */
+	private void stackHistory(int layer, int k, double[][] history) {
+		for(int count = 0; count < memoryLength; count++) {
+			for(int col = 0; col < sizes[layer]; col++) {
+				values[layer][count][col * models + k] = history[count][col];
+				derivatives[layer][count][col * models + k] = history[count + memoryLength][col];
+				errors[layer][count][col * models + k] = history[count + memoryLength * 2][col];
+			}
+		}
+	}
+	
+	/**
+	 * Helper function to copy the memory of a layer of a single network in the order of NeuronLayer.getHistory()<br>
+	 * The values and errors that are still being accumulated are always empty between two steps, and any vectors
+	 * a layer appends to its history are kept from the layer itself
+	 */
+	private double[][] history(int layer, int k, NeuronLayer nLayer) {
+		int size = sizes[layer];
+		double[][] ret = nLayer.getHistory();
+		ret[memoryLength * 3] = new double[size];
+		ret[memoryLength * 3 + 1] = new double[size];
+		
+		for(int count = 0; count < memoryLength; count++) {
+			int slot = (head + count) % memoryLength;
+			int errorSlot = (errorHead + count) % memoryLength;
+			
+			for(int col = 0; col < size; col++) {
+				ret[count][col] = values[layer][slot][col * models + k];
+				ret[count + memoryLength][col] = derivatives[layer][slot][col * models + k];
+				ret[count + memoryLength * 2][col] = errors[layer][errorSlot][col * models + k];
+			}
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to check that every network can be trained in the batch
+	 * @return Size of the training data of every network
+	 */
+	private int checkTrainable() {
+		int dataSize = networks[0].getTrainingSize();
+		int dataIndex = networks[0].getDataIndex();
+		for(Network n: networks) {
+			if(n.getTrainingSize() == 0 || n.getTrainingSize() != dataSize)
+				throw new IllegalStateException("Every network needs training data of the same size");
+			if(n.getDataIndex() != dataIndex)
+				throw new IllegalStateException("Every network needs to be at the same position of its training data");
+		}
+		
+		return dataSize;
+	}
+	
+	/**
+	 * Helper function to get the slot of the most recent timestep
+	 */
+	private int newest() {
+		return (head + memoryLength - 1) % memoryLength;
+	}
+	
+	/**
+	 * Helper function to run the forward pass of every network on the stacked inputs
+	 */
+	private void forwardPass() {
+		int slot = head;
+		int previous = newest();
+		head = (head + 1) % memoryLength;
+		
+		int n = sizes[0] * models;
+		for(int index = 0; index < n; index++) unactivated[0][index] = 0.0 + inputs[index];
+		activate(0, slot);
+		
+		for(int unit = 0; unit < firstConnection.length; unit++) {
+			int layer = unit + 1;
+			int c = firstConnection[unit];
+			double[] source = values[layer - 1][slot];
+			
+			switch(types[layer]) {
+			case RECURRENT:
+				multiply(c, source, unactivated[layer], false);
+				multiply(c + 1, values[layer][previous], unactivated[layer], true);
+				activate(layer, slot);
+				break;
+			case GRU:
+				gruPass(layer, c, source, values[layer][previous], slot);
+				break;
+			default:
+				multiply(c, source, unactivated[layer], false);
+				activate(layer, slot);
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Helper function to move the unactivated values of a layer into a slot of its memory and activate them
+	 */
+	private void activate(int layer, int slot) {
+		int n = sizes[layer] * models;
+		
+		System.arraycopy(unactivated[layer], 0, values[layer][slot], 0, n);
+		ActivationFunctions.activate(activations[layer], values[layer][slot], derivatives[layer][slot], n);
+	}
+	
+	/**
+	 * Helper function to run the forward pass of a GRU unit, exactly as GRU_Unit does with the same GRU_Functions
+	 */
+	private void gruPass(int layer, int c, double[] source, double[] previous, int slot) {
+		int n = sizes[layer] * models;
+		int gate = gates[layer];
+		double[] state = resetState[layer];
+		
+		multiply(c, source, unactivated[gate + RESET], false);
+		multiply(c + 1, previous, unactivated[gate + RESET], true);
+		activate(gate + RESET, slot);
+		
+		//The reset layer passes on the previous output scaled by its gate, followed by its bias
+		GRU_Functions.gate(previous, values[gate + RESET][slot], state, n);
+		Arrays.fill(state, n, state.length, 1);
+		
+		multiply(c + 2, source, unactivated[gate + UPDATE], false);
+		multiply(c + 3, previous, unactivated[gate + UPDATE], true);
+		activate(gate + UPDATE, slot);
+		GRU_Functions.complement(values[gate + UPDATE][slot], complement[layer], n);
+		
+		multiply(c + 4, source, unactivated[gate + CANDIDATE], false);
+		multiply(c + 5, state, unactivated[gate + CANDIDATE], true);
+		activate(gate + CANDIDATE, slot);
+		GRU_Functions.gate(values[gate + UPDATE][slot], values[gate + CANDIDATE][slot], gated[layer], n);
+		
+		GRU_Functions.output(previous, complement[layer], gated[layer], unactivated[layer], n);
+		activate(layer, slot);
+	}
+	
+	/**
+	 * Helper function to multiply the stacked weights of a ConnectionLayer with the stacked values of its source
+	 * @param c Index of the ConnectionLayer
+	 * @param source Stacked values of the source layer, including its bias
+	 * @param dest Stacked array the results are written to
+	 * @param accumulate set to true to add the results to dest instead of replacing it
+	 */
+	private void multiply(int c, double[] source, double[] dest, boolean accumulate) {
+		double[] w = weights[c];
+		int cols = columns[c];
+		
+		for(int r = 0; r < rows[c]; r++) {
+			Arrays.fill(sums, 0, models, 0);
+			
+			int base = r * cols * models;
+			for(int col = 0; col < cols; col++) {
+				int wIndex = base + col * models;
+				int sIndex = col * models;
+				
+				for(int k = 0; k < models; k++) sums[k] += w[wIndex + k] * source[sIndex + k];
+			}
+			
+			int dIndex = r * models;
+			for(int k = 0; k < models; k++) dest[dIndex + k] = (accumulate ? dest[dIndex + k] : 0.0) + sums[k];
+		}
+	}
+	
+	/**
+	 * Helper function to add the MSE loss of the most recent outputs of every network to its total loss
+	 */
+	private void calculateLoss(double[] target) {
+		calculateLoss(target, null);
+	}
+	
+	/**
+	 * Helper function to add the MSE loss of the most recent outputs of every active network to its total loss
+	 */
+	private void calculateLoss(double[] target, boolean[] active) {
+		double[] outputs = values[out][newest()];
+		
+		for(int k = 0; k < models; k++) {
+			if(active != null && !active[k]) continue;
+			
+			double sum = 0;
+			for(int col = 0; col < sizes[out]; col++) {
+				sum += Math.pow(target[col * models + k] - outputs[col * models + k], 2);
+			}
+			
+			sum /= sizes[out];
+			totalLoss[k] += sum;
+		}
+	}
+	
+	/**
+	 * Helper function to calculate the errors of every layer at every timestep of the batch, as
+	 * Network.propagateError() does
+	 */
+	private void propagateError() {
+		int memIndexSrt = memoryLength - batchSize;
+		
+		for(int step = batchSize - 1; step >= 0; step--) {
+			int memIndex = memIndexSrt + step;
+			int slot = (head + memIndex) % memoryLength;
+			int errorSlot = (errorHead + memIndex) % memoryLength;
+			
+			//dE/dy = 2/n(y - t) multiplied by the derivative of the activation of y
+			double scalar = 2.0 / sizes[out];
+			double[] y = values[out][slot], d = derivatives[out][slot], e = errors[out][errorSlot];
+			double[] t = targets[step];
+			
+			for(int index = 0; index < sizes[out] * models; index++) {
+				e[index] = 0.0 + ((y[index] + t[index] * -1) * scalar) * d[index];
+			}
+			
+			//dE/dY of a hidden layer is the errors of the next Unit multiplied by its transposed entry matrix
+			for(int layer = out - 1; layer >= 1; layer--) {
+				double[] entry = buffers[0];
+				entryErrors(layer, errorSlot, entry);
+				
+				double[] dLayer = derivatives[layer][slot], eLayer = errors[layer][errorSlot];
+				for(int index = 0; index < sizes[layer] * models; index++) {
+					eLayer[index] = 0.0 + entry[index] * dLayer[index];
+				}
+				
+				//Recurrent layers also receive the errors of the next timestep
+				switch(types[layer]) {
+				case RECURRENT:
+					recurrentErrors(layer, memIndex, errorSlot);
+					break;
+				case GRU:
+					gruErrors(layer, memIndex);
+					break;
+				default:
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Helper function to calculate the errors a layer receives from the Unit after it, with the bias removed, as
+	 * the transposed Unit.getEntryMatrix() multiplied by Unit.getEntryErrors()
+	 */
+	private void entryErrors(int layer, int errorSlot, double[] dest) {
+		int c = firstConnection[layer];
+		int size = sizes[layer];
+		
+		if(types[layer + 1] != LayerType.GRU) {
+			transposed(c, errors[layer + 1][errorSlot], dest, size);
+			return;
+		}
+		
+		//A GRU passes back the errors of its 3 entry ConnectionLayers through an identity matrix
+		int gate = gates[layer + 1];
+		double[] update = buffers[1], intermediate = buffers[2];
+		
+		transposed(c, errors[gate + RESET][errorSlot], dest, size);
+		transposed(c + 2, errors[gate + UPDATE][errorSlot], update, size);
+		transposed(c + 4, errors[gate + CANDIDATE][errorSlot], intermediate, size);
+		
+		for(int index = 0; index < size * models; index++) {
+			dest[index] = 0.0 + ((dest[index] + update[index]) + intermediate[index]);
+		}
+	}
+	
+	/**
+	 * Helper function to add the errors a RecurrentLayer receives from the next timestep through its
+	 * RecurrentConnectionLayer, as RecurrentLayer.calcRecErrors() does
+	 */
+	private void recurrentErrors(int layer, int memIndex, int errorSlot) {
+		int n = sizes[layer] * models;
+		double[] future = memIndex + 1 < memoryLength ? errors[layer][(errorSlot + 1) % memoryLength] : zeros;
+		double[] retro = buffers[1];
+		
+		transposed(firstConnection[layer - 1] + 1, future, retro, sizes[layer]);
+		
+		double[] d = derivatives[layer][(head + memIndex) % memoryLength], e = errors[layer][errorSlot];
+		for(int index = 0; index < n; index++) e[index] += retro[index] * d[index];
+	}
+	
+	/**
+	 * Helper function to add the errors the output of a GRU unit receives from the next timestep and calculate the
+	 * errors of its gates, as GRU_Unit.calcErrors() does with the same GRU_Functions
+	 */
+	private void gruErrors(int layer, int memIndex) {
+		int n = sizes[layer] * models;
+		int c = firstConnection[layer - 1];
+		int gate = gates[layer];
+		
+		int slot = (head + memIndex) % memoryLength;
+		int errorSlot = (errorHead + memIndex) % memoryLength;
+		
+		//Values and errors of the timesteps before and after memory are 0
+		boolean future = memIndex + 1 < memoryLength;
+		int nextSlot = (slot + 1) % memoryLength, nextErrorSlot = (errorSlot + 1) % memoryLength;
+		double[] previous = memIndex > 0 ? values[layer][(slot + memoryLength - 1) % memoryLength] : zeros;
+		
+		double[] resetErrors = buffers[1], updateErrors = buffers[2], intermediateErrors = buffers[3];
+		transposed(c + 1, future ? errors[gate + RESET][nextErrorSlot] : zeros, resetErrors, sizes[layer]);
+		transposed(c + 3, future ? errors[gate + UPDATE][nextErrorSlot] : zeros, updateErrors, sizes[layer]);
+		transposed(c + 5, future ? errors[gate + CANDIDATE][nextErrorSlot] : zeros, intermediateErrors, sizes[layer]);
+		
+		double[] e = errors[layer][errorSlot];
+		GRU_Functions.outputErrors(resetErrors, updateErrors, intermediateErrors,
+				future ? values[gate + RESET][nextSlot] : zeros, future ? values[gate + UPDATE][nextSlot] : zeros,
+				future ? errors[layer][nextErrorSlot] : zeros, e, n);
+		
+		double[] eReset = errors[gate + RESET][errorSlot];
+		double[] eUpdate = errors[gate + UPDATE][errorSlot];
+		double[] eCandidate = errors[gate + CANDIDATE][errorSlot];
+		
+		Arrays.fill(eCandidate, 0);
+		GRU_Functions.intermediateErrors(e, values[gate + UPDATE][slot], derivatives[gate + CANDIDATE][slot],
+				eCandidate, n);
+		
+		Arrays.fill(eUpdate, 0);
+		GRU_Functions.updateErrors(e, values[gate + CANDIDATE][slot], previous, derivatives[gate + UPDATE][slot],
+				eUpdate, n);
+		
+		Arrays.fill(eReset, 0);
+		transposed(c + 5, eCandidate, resetErrors, sizes[layer]);
+		GRU_Functions.resetErrors(resetErrors, previous, derivatives[gate + RESET][slot], eReset, n);
+	}
+	
+	/**
+	 * Helper function to multiply the transposed stacked weights of a ConnectionLayer with the stacked errors of
+	 * its destination, for the first columns of the matrix
+	 * @param c Index of the ConnectionLayer
+	 * @param errors Stacked errors of the destination layer
+	 * @param dest Stacked array the results are written to
+	 * @param size Number of columns to multiply, which leaves out the bias of the source layer
+	 */
+	private void transposed(int c, double[] errors, double[] dest, int size) {
+		double[] w = weights[c];
+		int cols = columns[c];
+		
+		for(int col = 0; col < size; col++) {
+			Arrays.fill(sums, 0, models, 0);
+			
+			for(int r = 0; r < rows[c]; r++) {
+				int wIndex = (r * cols + col) * models;
+				int eIndex = r * models;
+				
+				for(int k = 0; k < models; k++) sums[k] += w[wIndex + k] * errors[eIndex + k];
+			}
+			
+			System.arraycopy(sums, 0, dest, col * models, models);
+		}
+	}
+	
+	/**
+	 * Helper function to adjust the weights of every ConnectionLayer and move the errors along, as
+	 * Network.backpropagate() does<br>
+	 * ConnectionLayers are adjusted with the Adam optimizer, and RecurrentConnectionLayers with plain gradient
+	 * descent from the errors of the timestep after their source values
+	 */
+	private void backpropagate() {
+		double[] lr = new double[models];
+		for(int k = 0; k < models; k++) lr[k] = -networks[k].getLearningRate();
+		
+		for(int c = 0; c < weights.length; c++) {
+			if(adam[c]) adjustAdam(c, lr);
+			else adjustRecurrent(c, lr);
+		}
+		
+		optimized = true;
+		
+		//Purge errors after backpropagation
+		for(int step = 0; step < batchSize; step++) {
+			for(int layer = 0; layer < errors.length; layer++) Arrays.fill(errors[layer][errorHead], 0);
+			errorHead = (errorHead + 1) % memoryLength;
+		}
+	}
+	
+	/**
+	 * Helper function to adjust the weights of a ConnectionLayer with the Adam optimizer, as
+	 * ConnectionLayer.adjustWeights() does
+	 */
+	private void adjustAdam(int c, double[] lr) {
+		//Every weight of a layer shares its iteration, so the bias corrections are computed once per timestep
+		double[][] correction1 = new double[memoryLength][models], correction2 = new double[memoryLength][models];
+		double[] adamErr = new double[models];
+		
+		for(int k = 0; k < models; k++) {
+			int stored = iteration[c][k];
+			for(int count = 0; count < memoryLength; count++) {
+				int currIteration = stored + 1;
+				stored = Adam.nextIteration(stored);
+				
+				correction1[count][k] = Adam.correction1(currIteration);
+				correction2[count][k] = Adam.correction2(currIteration);
+			}
+			
+			iteration[c][k] = stored;
+		}
+		
+		double[] w = weights[c], m = m_t[c], v = v_t[c];
+		int cols = columns[c];
+		
+		for(int r = 0; r < rows[c]; r++) {
+			for(int col = 0; col < cols; col++) {
+				int index = (r * cols + col) * models;
+				Arrays.fill(adamErr, 0);
+				
+				for(int count = 0; count < memoryLength; count++) {
+					double[] source = values[from[c]][(head + count) % memoryLength];
+					double[] dest = errors[to[c]][(errorHead + count) % memoryLength];
+					double[] c1 = correction1[count], c2 = correction2[count];
+					
+					for(int k = 0; k < models; k++) {
+						double gradient = source[col * models + k] * dest[r * models + k];
+						
+						double mk = Adam.firstMoment(m[index + k], gradient);
+						double vk = Adam.secondMoment(v[index + k], gradient);
+						
+						m[index + k] = mk;
+						v[index + k] = vk;
+						
+						adamErr[k] += Adam.step(mk, vk, c1[k], c2[k]);
+					}
+				}
+				
+				for(int k = 0; k < models; k++) w[index + k] = w[index + k] + adamErr[k] * lr[k];
+			}
+		}
+	}
+	
+	/**
+	 * Helper function to adjust the weights of a RecurrentConnectionLayer, as its adjustWeights() does
+	 */
+	private void adjustRecurrent(int c, double[] lr) {
+		double[] w = weights[c];
+		int cols = columns[c];
+		
+		for(int r = 0; r < rows[c]; r++) {
+			for(int col = 0; col < cols; col++) {
+				int index = (r * cols + col) * models;
+				Arrays.fill(sums, 0, models, 0);
+				
+				//There is 1 less pass between timesteps than there are timesteps in memory
+				for(int count = 0; count < memoryLength - 1; count++) {
+					double[] source = values[from[c]][(head + count) % memoryLength];
+					double[] dest = errors[to[c]][(errorHead + count + 1) % memoryLength];
+					
+					for(int k = 0; k < models; k++) sums[k] += source[col * models + k] * dest[r * models + k];
+				}
+				
+				for(int k = 0; k < models; k++) w[index + k] = w[index + k] + sums[k] * lr[k];
+			}
+		}
+	}
+}
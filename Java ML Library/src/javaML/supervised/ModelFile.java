@@ -0,0 +1,379 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import javaML.supervised.structures.MappedMatrix;
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+import javaML.supervised.structures.networkElements.NeuronLayer;
+import javaML.supervised.structures.networkElements.Unit;
+
+/**
+ * ModelFile is responsible for reading and writing networks in the binary (.nnb) model format.<br>
+ * The text format produced by Network.toString() remains the format for import and export, while this format
+ * is meant for fast saving and loading of large networks.
+ * <br><br>
+ * Every value in the file is little-endian. The file is laid out as:
+ * <ul>
+ * <li>Header: magic number, format version, header length in bytes, memoryLength and batchSize</li>
+ * <li>Topology: the number of layers, then for every layer its LayerType code, size, Activation code and bias,
+ * followed (for every Unit) by the number of ConnectionLayers and the rows and columns of each of their
+ * matrices</li>
+ * <li>Padding up to the next multiple of 8 bytes</li>
+ * <li>Weights: every ConnectionLayer matrix in forward order, each stored row-major as raw doubles</li>
+ * </ul>
+ * Weight blocks are written and read through a FileChannel with bulk DoubleBuffer transfers, so no weight is
+ * ever formatted or parsed as text.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class ModelFile {
+	
+	/**
+	 * Magic number found at the start of every binary model file ("JMLN")
+	 */
+	static final int MAGIC = 0x4E4C4D4A;
+	
+	/**
+	 * Current version of the binary model format
+	 */
+	static final int VERSION = 1;
+	
+	/**
+	 * File extension used by the binary model format
+	 */
+	public static final String EXTENSION = ".nnb";
+	
+	/**
+	 * Private constructor to enforce non-instantiability
+	 */
+	private ModelFile() { }
+	
+	/**
+	 * Function to write a network to a file in the binary model format
+	 * @param network Network to be written
+	 * @param file File to write to, any existing file is overwritten
+	 * @throws IOException if the file could not be written
+	 */
+	public static void write(Network network, File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				ChannelOutput out = new ChannelOutput(channel)) {
+			
+			Header.of(network).write(out);
+			
+			for(Unit u: network.getUnits()) {
+				for(ConnectionLayer c: u.getConnectionLayers()) writeMatrix(out, c.getMatrix());
+			}
+		}
+	}
+	
+	/**
+	 * Function to build a network from a file written in the binary model format
+	 * @param file File to be read
+	 * @return Returns the network described by the file
+	 * @throws IOException if the file could not be read or is not a valid binary model file
+	 */
+	public static Network read(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ChannelInput in = new ChannelInput(channel);
+			Network network = Header.read(in).build();
+			
+			for(Unit u: network.getUnits()) {
+				for(ConnectionLayer c: u.getConnectionLayers()) {
+					c.setMatrix(readMatrix(in, c.getMatrix().getRows(), c.getMatrix().getColumns()));
+				}
+			}
+			
+			return network;
+		}
+	}
+	
+	/**
+	 * Function to build a network whose ConnectionLayers are backed directly by a read-only memory mapping of a
+	 * file written in the binary model format.<br>
+	 * Weights are neither parsed nor copied onto the heap; each matrix is a MappedMatrix over its own weight
+	 * block of the file, so loading is near-instant and every process that maps the same file shares a single
+	 * copy of the weights in the page cache.<br><br>
+	 * The file should not be modified while a network mapped from it is in use.
+	 * @param file File to be mapped
+	 * @return Returns the network described by the file
+	 * @throws IOException if the file could not be mapped or is not a valid binary model file
+	 */
+	public static Network map(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			Header header = Header.read(new ChannelInput(channel));
+			Network network = header.build();
+			
+			long offset = header.length();
+			if(channel.size() < offset + header.weightCount() * Double.BYTES)
+				throw new IOException("Unexpected end of model file");
+			
+			//Each weight block is mapped on its own so that files larger than a single mapping are supported
+			//Mappings stay valid after the channel is closed
+			for(Unit u: network.getUnits()) {
+				for(ConnectionLayer c: u.getConnectionLayers()) {
+					int rows = c.getMatrix().getRows();
+					int columns = c.getMatrix().getColumns();
+					long bytes = (long) rows * columns * Double.BYTES;
+					
+					DoubleBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes)
+							.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+					
+					c.setMatrix(new MappedMatrix(block, rows, columns));
+					offset += bytes;
+				}
+			}
+			
+			return network;
+		}
+	}
+	
+	/**
+	 * Function to write the values of a matrix row-major
+	 * @param out Destination of the values
+	 * @param mat Matrix to be written
+	 */
+	static void writeMatrix(ChannelOutput out, Matrix mat) throws IOException {
+		for(double[] row: mat.getMatrix()) out.putDoubles(row);
+	}
+	
+	/**
+	 * Function to read a matrix written by writeMatrix()
+	 * @param in Source of the values
+	 * @param rows Number of rows in the matrix
+	 * @param columns Number of columns in the matrix
+	 * @return The Matrix read
+	 */
+	static Matrix readMatrix(ChannelInput in, int rows, int columns) throws IOException {
+		//Values are read straight into the rows of the new Matrix to avoid an extra copy
+		Matrix mat = new Matrix(rows, columns, Matrix.FILL_ZERO);
+		for(double[] row: mat.getMatrix()) in.getDoubles(row);
+		
+		return mat;
+	}
+	
+	/**
+	 * The Header class holds the topology of a binary model file.<br>
+	 * It is able to encode itself to the front of a file, decode itself from one, and rebuild a network with
+	 * the described topology through the NetworkBuilder.
+	 */
+	static final class Header {
+		
+		//Number of ints before the per-layer records
+		private static final int FIXED_INTS = 6;
+		
+		final int memoryLength;
+		final int batchSize;
+		
+		//Per layer [type, size, activation, bias]; index 0 is the input layer
+		final int[][] layers;
+		
+		//Per Unit, per ConnectionLayer [rows, columns]
+		final int[][][] shapes;
+		
+		private Header(int memoryLength, int batchSize, int[][] layers, int[][][] shapes) {
+			this.memoryLength = memoryLength;
+			this.batchSize = batchSize;
+			this.layers = layers;
+			this.shapes = shapes;
+		}
+		
+		/**
+		 * Function to describe the topology of an existing network
+		 * @param network Network to be described
+		 * @return Header for the network
+		 */
+		static Header of(Network network) {
+			Unit[] units = network.getUnits();
+			
+			int[][] layers = new int[units.length + 1][];
+			int[][][] shapes = new int[units.length][][];
+			
+			layers[0] = describe(network.getInputLayer());
+			
+			for(int index = 0; index < units.length; index++) {
+				layers[index + 1] = describe(units[index].getEntry());
+				
+				ConnectionLayer[] cLayers = units[index].getConnectionLayers();
+				shapes[index] = new int[cLayers.length][];
+				
+				for(int c = 0; c < cLayers.length; c++) {
+					Matrix mat = cLayers[c].getMatrix();
+					shapes[index][c] = new int[] {mat.getRows(), mat.getColumns()};
+				}
+			}
+			
+			return new Header(network.getMemoryLength(), network.getBatchSize(), layers, shapes);
+		}
+		
+		private static int[] describe(NeuronLayer layer) {
+			return new int[] {layer.getLayerType().getVal(), layer.getLayerSize(), layer.getActivation().getVal(),
+					layer.hasBias() ? 1 : 0};
+		}
+		
+		/**
+		 * Function to get the length of the encoded header, including the padding which aligns the weight blocks
+		 * to 8 bytes
+		 * @return Length in bytes
+		 */
+		int length() {
+			int ints = FIXED_INTS + 4 * layers.length;
+			for(int[][] unit: shapes) ints += 1 + 2 * unit.length;
+			
+			int bytes = ints * Integer.BYTES;
+			return (bytes + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+		}
+		
+		/**
+		 * Function to get the number of weights stored after the header
+		 * @return Total number of doubles in every weight block
+		 */
+		long weightCount() {
+			long count = 0;
+			for(int[][] unit: shapes) {
+				for(int[] shape: unit) count += (long) shape[0] * shape[1];
+			}
+			
+			return count;
+		}
+		
+		/**
+		 * Function to write the header, including the padding before the first weight block
+		 * @param out Destination of the header
+		 */
+		void write(ChannelOutput out) throws IOException {
+			out.putInt(MAGIC);
+			out.putInt(VERSION);
+			out.putInt(length());
+			out.putInt(memoryLength);
+			out.putInt(batchSize);
+			out.putInt(layers.length);
+			
+			for(int index = 0; index < layers.length; index++) {
+				for(int value: layers[index]) out.putInt(value);
+				if(index == 0) continue;
+				
+				out.putInt(shapes[index - 1].length);
+				for(int[] shape: shapes[index - 1]) {
+					out.putInt(shape[0]);
+					out.putInt(shape[1]);
+				}
+			}
+			
+			out.pad(Double.BYTES);
+		}
+		
+		/**
+		 * Function to read a header written by write().<br>
+		 * Leaves the input positioned at the first weight block
+		 * @param in Input positioned at the start of a header
+		 * @return The decoded Header
+		 * @throws IOException if the input does not contain a supported binary model header
+		 */
+		static Header read(ChannelInput in) throws IOException {
+			if(in.getInt() != MAGIC) throw new IOException("Not a binary model file");
+			int version = in.getInt();
+			if(version != VERSION) throw new IOException("Unsupported model file version " + version);
+			
+			in.getInt();	//Header length, only needed when mapping the file
+			int memoryLength = in.getInt();
+			int batchSize = in.getInt();
+			
+			//Every layer is stored as 4 ints, and every layer after the input also stores its number of matrices
+			int layerCount = count(in, 5 * Integer.BYTES);
+			
+			if(layerCount < 2) throw new IOException("Corrupt model file header");
+			
+			int[][] layers = new int[layerCount][4];
+			int[][][] shapes = new int[layerCount - 1][][];
+			
+			for(int index = 0; index < layerCount; index++) {
+				for(int value = 0; value < 4; value++) layers[index][value] = in.getInt();
+				if(index == 0) continue;
+				
+				shapes[index - 1] = new int[count(in, 2 * Integer.BYTES)][2];
+				for(int[] shape: shapes[index - 1]) {
+					shape[0] = in.getInt();
+					shape[1] = in.getInt();
+				}
+			}
+			
+			in.align(Double.BYTES);
+			
+			return new Header(memoryLength, batchSize, layers, shapes);
+		}
+		
+		/**
+		 * Helper function to read the number of records that follow in the header.<br>
+		 * The count is checked against the bytes left in the file before anything is allocated for it, so a
+		 * corrupt file cannot cause a negative or oversized allocation
+		 * @param in Input positioned at the count
+		 * @param recordBytes Smallest number of bytes a single record takes up in the file
+		 * @return The number of records
+		 * @throws IOException if the count is negative or the records could not fit in the rest of the file
+		 */
+		private static int count(ChannelInput in, int recordBytes) throws IOException {
+			int count = in.getInt();
+			if(count < 0 || (long) count * recordBytes > in.remaining())
+				throw new IOException("Corrupt model file header");
+			
+			return count;
+		}
+		
+		/**
+		 * Function to check whether two headers describe the same topology
+		 * @param other Header to compare against
+		 * @return true if both headers describe the same layers, matrices, memoryLength and batchSize
+		 */
+		boolean matches(Header other) {
+			return memoryLength == other.memoryLength && batchSize == other.batchSize
+					&& Arrays.deepEquals(layers, other.layers) && Arrays.deepEquals(shapes, other.shapes);
+		}
+		
+		/**
+		 * Function to build a network with the topology described by the header.<br>
+		 * No weights are generated for the returned network; every ConnectionLayer holds a placeholder Matrix of the
+		 * stored shape that throws on any read, so the caller must fill each layer with setMatrix() before the
+		 * network is used
+		 * @return Network with the described topology
+		 * @throws IOException if the topology could not be built or does not match the stored matrix shapes
+		 */
+		Network build() throws IOException {
+			//Every loader replaces all weights after building, so no random weights are generated
+			NetworkBuilder bob = new NetworkBuilder(memoryLength, true);
+			
+			for(int[] layer: layers) {
+				if(!bob.putLayer(LayerType.getFromVal(layer[0]), layer[1], Activation.getFromVal(layer[2]),
+						layer[3] == 1)) throw new IOException("Invalid layer in model file");
+			}
+			
+			Network network = bob.build(batchSize);
+			
+			if(network == null) throw new IOException("Model file does not describe a complete network");
+			
+			Unit[] units = network.getUnits();
+			for(int index = 0; index < units.length; index++) {
+				ConnectionLayer[] cLayers = units[index].getConnectionLayers();
+				if(cLayers.length != shapes[index].length) throw new IOException("Model file topology mismatch");
+				
+				for(int c = 0; c < cLayers.length; c++) {
+					Matrix mat = cLayers[c].getMatrix();
+					if(mat.getRows() != shapes[index][c][0] || mat.getColumns() != shapes[index][c][1])
+						throw new IOException("Model file topology mismatch");
+				}
+			}
+			
+			return network;
+		}
+	}
+}
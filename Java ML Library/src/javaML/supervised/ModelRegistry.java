@@ -0,0 +1,272 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The ModelRegistry shares networks loaded from model files between every user of a JVM, keeping the most
+ * recently used networks in memory up to a memory budget.
+ * <br><br>
+ * Networks are keyed by the canonical path of their file along with its modification time and length, so a
+ * changed file is loaded again as a new model while the previous version is dropped once it is no longer in use.
+ * When several threads acquire the same model at once, the file is only loaded once and every thread receives
+ * the same network.
+ * <br><br>
+ * acquire() returns a Handle that pins the network in memory until it is closed. Whenever the memory used by the
+ * loaded networks, measured from the footprint of their matrices, exceeds the budget, the least recently used
+ * networks that are not pinned are evicted. Pinned networks are never evicted, so the budget can be exceeded
+ * while more networks are in use than fit in it.
+ * <br><br>
+ * The file format is chosen from the file extension: the binary (.nnb), compressed (.nnz) and checkpoint (.nnc)
+ * formats are read with their own readers and any other file is read as a text (.nn) model file.
+ * <br><br>
+ * The networks are shared, and a Network is not safe to use from several threads at once. Callers that predict
+ * from the same model on several threads must synchronize on the network.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class ModelRegistry {
+	
+	private final long memoryBudget;
+	private long memoryUsed = 0;
+	
+	//Entries in access order, so iteration starts from the least recently used entry
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	
+	/**
+	 * Constructor for a registry that keeps loaded networks within a memory budget
+	 * @param memoryBudget Number of bytes the loaded networks may use before unpinned networks are evicted
+	 */
+	public ModelRegistry(long memoryBudget) {
+		if(memoryBudget < 0) throw new IllegalArgumentException("Memory budget cannot be negative");
+		
+		this.memoryBudget = memoryBudget;
+	}
+	
+	/**
+	 * Function to get a network from the registry, loading it from its file if it is not already loaded.<br>
+	 * The network stays pinned in memory until the returned Handle is closed
+	 * @param path File path to the model file
+	 * @return Handle to the network
+	 * @throws IOException if the file does not exist or could not be read
+	 */
+	public Handle acquire(String path) throws IOException {
+		File file = new File(path).getCanonicalFile();
+		if(!file.isFile()) throw new FileNotFoundException(path);
+		
+		Key key = new Key(file.getPath(), file.lastModified(), file.length());
+		
+		Entry entry;
+		boolean loader = false;
+		synchronized(this) {
+			entry = entries.get(key);
+			if(entry == null) {
+				entry = new Entry(key);
+				entries.put(key, entry);
+				loader = true;
+			}
+			
+			entry.pins++;
+		}
+		
+		//Only the thread that created the entry loads the file, every other thread waits for it
+		if(loader) load(entry, file);
+		
+		try {
+			return new Handle(entry, entry.network.join());
+		} catch (CompletionException e) {
+			release(entry);
+			throw new IOException("Could not load model " + path, e.getCause());
+		}
+	}
+	
+	/**
+	 * Function to get the memory currently used by the loaded networks
+	 * @return Estimated size in bytes
+	 */
+	public synchronized long getMemoryUsed() {
+		return this.memoryUsed;
+	}
+	
+	/**
+	 * Function to get the number of networks held by the registry, including ones still being loaded
+	 * @return Number of networks
+	 */
+	public synchronized int getModelCount() {
+		return entries.size();
+	}
+	
+	/**
+	 * Function to evict every network that is not pinned
+	 */
+	public synchronized void clear() {
+		Iterator<Entry> it = entries.values().iterator();
+		while(it.hasNext()) {
+			Entry entry = it.next();
+			if(entry.pins > 0 || entry.size < 0) continue;
+			
+			it.remove();
+			memoryUsed -= entry.size;
+		}
+	}
+	
+	/**
+	 * Helper function to load the network of an entry and account for its memory
+	 */
+	private void load(Entry entry, File file) {
+		Network network;
+		try {
+			network = NetworkBuilder.read(file);
+		} catch (Exception e) {
+			synchronized(this) {
+				entries.remove(entry.key, entry);
+			}
+			entry.network.completeExceptionally(e);
+			return;
+		}
+		
+		synchronized(this) {
+			entry.size = network.getFootprint();
+			memoryUsed += entry.size;
+			
+			//Older versions of the same file are dropped once they are no longer in use
+			for(Entry other: new ArrayList<>(entries.values())) {
+				if(other == entry || !other.key.path.equals(entry.key.path) || other.size < 0) continue;
+				
+				other.stale = true;
+				if(other.pins == 0) remove(other);
+			}
+			
+			evict();
+		}
+		
+		entry.network.complete(network);
+	}
+	
+	/**
+	 * Helper function to unpin an entry
+	 */
+	private synchronized void release(Entry entry) {
+		entry.pins--;
+		
+		if(entry.pins == 0 && entry.stale) remove(entry);
+		evict();
+	}
+	
+	/**
+	 * Helper function to evict the least recently used unpinned entries until the budget is met
+	 */
+	private void evict() {
+		Iterator<Entry> it = entries.values().iterator();
+		while(memoryUsed > memoryBudget && it.hasNext()) {
+			Entry entry = it.next();
+			if(entry.pins > 0 || entry.size < 0) continue;
+			
+			it.remove();
+			memoryUsed -= entry.size;
+		}
+	}
+	
+	/**
+	 * Helper function to remove a loaded entry
+	 */
+	private void remove(Entry entry) {
+		if(entries.remove(entry.key, entry)) memoryUsed -= entry.size;
+	}
+	
+	/**
+	 * A Handle pins a network of the registry in memory until it is closed
+	 */
+	public final class Handle implements AutoCloseable {
+		
+		private final Entry entry;
+		private final Network network;
+		private volatile boolean closed = false;
+		
+		private Handle(Entry entry, Network network) {
+			this.entry = entry;
+			this.network = network;
+		}
+		
+		/**
+		 * Function to get the network held by the handle
+		 * @return Shared network
+		 */
+		public Network getNetwork() {
+			if(closed) throw new IllegalStateException("Handle has been closed");
+			
+			return this.network;
+		}
+		
+		/**
+		 * Function to unpin the network, after which it may be evicted. Closing a handle more than once has no
+		 * effect
+		 */
+		@Override
+		public synchronized void close() {
+			if(closed) return;
+			
+			closed = true;
+			release(entry);
+		}
+	}
+	
+	/**
+	 * Identity of one version of a model file
+	 */
+	private static final class Key {
+		
+		private final String path;
+		private final long modified;
+		private final long length;
+		
+		private Key(String path, long modified, long length) {
+			this.path = path;
+			this.modified = modified;
+			this.length = length;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) return false;
+			
+			Key other = (Key) obj;
+			return path.equals(other.path) && modified == other.modified && length == other.length;
+		}
+		
+		@Override
+		public int hashCode() {
+			return (path.hashCode() * 31 + Long.hashCode(modified)) * 31 + Long.hashCode(length);
+		}
+	}
+	
+	/**
+	 * Network held by the registry, along with the number of handles pinning it
+	 */
+	private static final class Entry {
+		
+		private final Key key;
+		private final CompletableFuture<Network> network = new CompletableFuture<>();
+		
+		private int pins = 0;
+		
+		//Footprint of the network, -1 while it is being loaded
+		private long size = -1;
+		
+		//Set once a newer version of the file has been loaded
+		private boolean stale = false;
+		
+		private Entry(Key key) {
+			this.key = key;
+		}
+	}
+}
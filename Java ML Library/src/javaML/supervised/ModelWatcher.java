@@ -0,0 +1,173 @@
+package javaML.supervised;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ModelWatcher serves a network loaded from a model file and reloads it whenever the file changes, so a
+ * retrained model can be rolled out without restarting the JVM.
+ * <br><br>
+ * A background thread watches the directory of the file with a WatchService. Once the file has stopped changing
+ * for a short quiet period, the new version is loaded on that thread in the format given by its extension. It is
+ * only swapped in if it has the same topology as the current network; otherwise it is rejected and the current
+ * network keeps serving. A file that cannot be read yet, such as one still being written, is also rejected and
+ * retried on the next change.
+ * <br><br>
+ * The swap replaces a single reference, so every call to getNetwork() after the swap returns the new network
+ * while callers that already hold the old network finish their predictions on the old weights.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class ModelWatcher implements Closeable {
+	
+	//Time the file must go without changes before it is reloaded
+	private static final long QUIET_MILLIS = 250;
+	
+	private final File file;
+	private final WatchService watcher;
+	private final Thread thread;
+	
+	private volatile Network network;
+	private volatile long reloads = 0;
+	private volatile Exception lastError = null;
+	
+	//Modification time and length of the file the current network was loaded from
+	private long modified, length;
+	
+	/**
+	 * Constructor to load a model file and start watching it for changes
+	 * @param path File path to the model file
+	 * @throws IOException if the file could not be read or watched
+	 */
+	public ModelWatcher(String path) throws IOException {
+		this.file = new File(path).getCanonicalFile();
+		
+		this.modified = file.lastModified();
+		this.length = file.length();
+		this.network = NetworkBuilder.read(file);
+		
+		this.watcher = FileSystems.getDefault().newWatchService();
+		file.getParentFile().toPath().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		
+		this.thread = new Thread(this::watch, "ModelWatcher-" + file.getName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+	
+	/**
+	 * Function to get the network currently being served.<br>
+	 * Callers should get the network once per prediction and keep using that reference, so that a swap in the
+	 * middle of a prediction does not mix weights of two versions
+	 * @return Current network
+	 */
+	public Network getNetwork() {
+		return this.network;
+	}
+	
+	/**
+	 * Function to get the number of times a new version of the file has been swapped in
+	 * @return Number of reloads
+	 */
+	public long getReloadCount() {
+		return this.reloads;
+	}
+	
+	/**
+	 * Function to get the reason the last version of the file was rejected
+	 * @return Exception thrown while loading or validating the file, or null if the last reload succeeded
+	 */
+	public Exception getLastError() {
+		return this.lastError;
+	}
+	
+	/**
+	 * Function to check the file and swap in a new version immediately, without waiting for the watcher
+	 * @return true if a new version was swapped in
+	 */
+	public synchronized boolean reload() {
+		long newModified = file.lastModified();
+		long newLength = file.length();
+		if(newModified == modified && newLength == length) return false;
+		
+		try {
+			Network loaded = NetworkBuilder.read(file);
+			
+			if(!ModelFile.Header.of(loaded).matches(ModelFile.Header.of(network)))
+				throw new IOException("Model file does not match the topology of the current network");
+			
+			modified = newModified;
+			length = newLength;
+			network = loaded;
+			lastError = null;
+			reloads++;
+			
+			return true;
+		} catch (Exception e) {
+			lastError = e;
+			return false;
+		}
+	}
+	
+	/**
+	 * Function to stop watching the file. The current network stays available from getNetwork()
+	 */
+	@Override
+	public void close() throws IOException {
+		watcher.close();
+		thread.interrupt();
+	}
+	
+	/**
+	 * Helper function run by the background thread to wait for changes to the file
+	 */
+	private void watch() {
+		try {
+			while(true) {
+				boolean changed = drain(watcher.take());
+				
+				//Keep waiting until the file has been quiet, so a file that is still being written is not read
+				WatchKey key;
+				while((key = watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) changed |= drain(key);
+				
+				if(changed) reload();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			return;
+		}
+	}
+	
+	/**
+	 * Helper function to consume the events of a key
+	 * @return true if any of the events may concern the watched file
+	 */
+	private boolean drain(WatchKey key) {
+		boolean ret = false;
+		
+		for(WatchEvent<?> event: key.pollEvents()) {
+			if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				ret = true;
+				continue;
+			}
+			
+			Path changed = (Path) event.context();
+			if(changed.getFileName().toString().equals(file.getName())) ret = true;
+		}
+		
+		key.reset();
+		
+		return ret;
+	}
+}
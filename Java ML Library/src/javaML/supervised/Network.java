@@ -1,8 +1,24 @@
 package javaML.supervised;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+
 import javaML.DataTransformations;
+import javaML.data.Batch;
+import javaML.data.BatchLoader;
+import javaML.data.DataSource;
+import javaML.data.Dataset;
+import javaML.data.DatasetBuffer;
+import javaML.data.DatasetLoader;
+import javaML.data.ImportanceSampler;
+import javaML.data.Normalizer;
+import javaML.data.PrefetchLoader;
+import javaML.data.SourceLoader;
 import javaML.supervised.structures.networkElements.*;
 import javaML.supervised.structures.networkElements.ffLayerTypes.*;
+import javaML.supervised.structures.networkElements.recurrent.RecurrentUnit;
+import javaML.supervised.structures.networkElements.recurrent.gru.GRU_Unit;
 /**
  * 
  * The network class is the primary controller of the supervised learning package<br>
@@ -29,12 +45,46 @@ public class Network {
 	private int batchSize;
 	private int memoryLength;
 	
-	private double[][][] dataset;
-	private double[][][] validationData;
+	private Dataset dataset;
+	private Dataset validationData;
+	
+	//Every uploaded and appended datapoint, the training data followed by the validation data
+	private Dataset data;
+	private DatasetBuffer buffer;
+	
+	//Reused for every datapoint read from the datasets
+	private double[] inputRow, targetRow;
+	
+	//Targets of the most recent training datapoints, used once the batch has been passed through
+	private double[][] recentTargets;
+	private int recentSlot = 0;
+	
+	//Statistics every datapoint is normalized with as it is read, or null when the data is not normalized
+	private Normalizer normalizer;
+	
+	//Loader the training data is read from one batch at a time, and the loader it wraps when prefetching
+	private BatchLoader loader, baseLoader;
+	private int prefetchDepth = 0;
 	
+	//Whether an uploaded dataset is trained on in a shuffled order, and the seed of the order
+	private boolean shuffle = false;
+	private long shuffleSeed;
+	
+	//Sampler drawing the datapoints of an uploaded dataset by their loss, and the settings it is created with
+	private ImportanceSampler sampler;
+	private boolean importance = false;
+	private double importanceUniform;
+	private long importanceSeed;
+	
+	//Batch of training data currently being read and the position of its first datapoint
+	private Batch batch;
+	private int batchStart = -1;
 	
 	private int dataIndex = 0, dataSize = 0;
 	
+	//Epoch of the datapoint at dataIndex, counted from 0, which decides the order of a shuffled dataset
+	private int epoch = 0;
+	
 	private double totalLoss = 0, averageLoss = 0;
 	
 	private boolean algorithmicLR = false;
@@ -103,24 +153,463 @@ public class Network {
 	 * function
 	 */
 	public void uploadDataset(double[][][] dataset, Normalize normalizeCode) {
-		int resize = dataset.length - (dataset.length % batchSize);
+		upload(Dataset.of(dataset), normalizeCode);
+	}
+	
+	/**
+	 * Use this function to upload a Dataset<br>
+	 * The training and validation data are views of the Dataset, so no values are ever copied. If the Dataset is
+	 * normalized, the statistics are gathered once and every datapoint is normalized as it is read, leaving the
+	 * Dataset itself unchanged. This allows training directly from a read-only Dataset mapped by DatasetFile.map()
+	 * @param dataset Dataset to be loaded
+	 * @param normalizeCode Identifier which states how the dataset will be normalized (if at all).<br>
+	 * Use Normalize.NONE_NORMALIZE, Normalize.SIGMOID_NORMALIZE or Normalize.TANH_NORMALIZE to specify normalization
+	 * function
+	 */
+	public void uploadDataset(Dataset dataset, Normalize normalizeCode) {
+		upload(dataset, normalizeCode);
+	}
+	
+	/**
+	 * Helper function to resize, normalize and split an uploaded Dataset
+	 * @param dataset Dataset to be loaded
+	 * @param normalizeCode Identifier which states how the dataset will be normalized
+	 */
+	private void upload(Dataset dataset, Normalize normalizeCode) {
+		int resize = dataset.size() - (dataset.size() % batchSize);
 		
-		double[][][] data = DataTransformations.resize(dataset, resize, false);
+		Dataset data = DataTransformations.resize(dataset, resize, false);
 		
+		//Values are normalized as they are read, so appending data never has to rewrite the values already held
+		Normalizer normalizer = null;
+		if(normalizeCode == Normalize.SIGMOID_NORMALIZE) normalizer = Normalizer.fit(data, 1, 0);
+		if(normalizeCode == Normalize.TANH_NORMALIZE) normalizer = Normalizer.fit(data, 1, -1);
 		
-		if(normalizeCode == Normalize.SIGMOID_NORMALIZE) 
-			data = DataTransformations.normalize(data, 1, 0, true);
-		if(normalizeCode == Normalize.TANH_NORMALIZE) 
-			data = DataTransformations.normalize(data, 1, -1, true);
+		this.normalizer = normalizer;
+		this.buffer = null;
 		
-		double[][][][] placeHolder = DataTransformations.splitDataset(data, data.length - (batchSize * 2), false);
+		this.dataIndex = 0;
+		this.epoch = 0;
+		split(data);
+	}
+	
+	/**
+	 * Use this function to add new datapoints to the end of the uploaded dataset, such as the newest observations
+	 * of a time series, without uploading the whole dataset again<br>
+	 * The datapoints are appended to a buffer that grows as needed, so appending takes time proportional to the
+	 * number of new datapoints. The normalization statistics are updated with the new datapoints only, which
+	 * changes how every datapoint is normalized only if the new datapoints widen the range of a column.<br>
+	 * The split stays the same as with uploadDataset(): the last 2 batches of the data are the validation data
+	 * and the oldest datapoints are skipped so that the training data is a multiple of the batch size. Training
+	 * continues from the same datapoint, unless that datapoint is now skipped, and the losses recorded for
+	 * importance sampling are kept
+	 * @param rows Datapoints to be added, in the format { { {Input 1}, {Target 1} }, ... }
+	 */
+	public void appendData(double[][][] rows) {
+		appendData(Dataset.of(rows));
+	}
+	
+	/**
+	 * Use this function to add the rows of a Dataset to the end of the uploaded dataset<br>
+	 * See appendData(double[][][]) for details
+	 * @param rows Dataset whose rows are added
+	 */
+	public void appendData(Dataset rows) {
+		if(data == null) throw new IllegalStateException("Data can only be appended to a dataset uploaded with uploadDataset()");
+		if(rows.getInputWidth() != data.getInputWidth() || rows.getTargetWidth() != data.getTargetWidth())
+			throw new IllegalArgumentException("Appended rows do not match the width of the dataset");
+		
+		if(buffer == null) buffer = new DatasetBuffer(data);
+		
+		int skip = data.size() % batchSize;
+		ImportanceSampler previous = sampler;
+		
+		//The statistics are updated on a copy, so forks and callers still holding the old statistics are unaffected
+		Normalizer updated = normalizer == null ? null : normalizer.copy();
+		
+		double[] input = new double[rows.getInputWidth()];
+		double[] target = new double[rows.getTargetWidth()];
+		for(int row = 0; row < rows.size(); row++) {
+			rows.getInput(row, input);
+			rows.getTarget(row, target);
+			
+			buffer.append(input, target);
+			if(updated != null) updated.accept(input, target);
+		}
+		
+		normalizer = updated;
+		split(buffer.view(0, buffer.size()));
+		
+		//The training data may now start at a later datapoint, so the position and the recorded losses are shifted
+		//to keep referring to the same datapoints. Rows taken from the validation data are added after them
+		int shift = data.size() % batchSize - skip;
+		if(previous != null) sampler = previous.resize(dataSize, shift);
 		
+		dataIndex -= shift;
+		if(dataIndex < 0 || dataIndex >= dataSize) dataIndex = 0;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Splits the data into the training data and the last 2 batches as validation data
+	 * @param data Every datapoint held by the network
+	 */
+	private void split(Dataset data) {
+		int skip = data.size() % batchSize;
+		Dataset[] placeHolder = DataTransformations.splitDataset(data.view(skip, data.size()),
+				data.size() - skip - (batchSize * 2), false);
+		
+		this.data = data;
 		this.dataset = placeHolder[0];
 		this.validationData = placeHolder[1];
+		this.dataSize = this.dataset.size();
+		
+		setLoader(datasetLoader());
+		this.sampler = importanceSampler();
+	}
+	
+	/**
+	 * Use this function to train from a DataSource that streams the dataset, such as a dataset too large to be held
+	 * in memory.<br>
+	 * The source is read once to count its rows and gather the statistics for normalization, then read again from
+	 * the start for every epoch. Only the current batch and the validation data are ever held in memory.<br>
+	 * Like uploadDataset(), the first rows are dropped so that the dataset is a multiple of the batch size and the
+	 * last 2 batches are kept aside as validation data. Normalization statistics are gathered over every row of
+	 * the source.<br>
+	 * The network reads from the source until another dataset is uploaded, so the source should not be closed or
+	 * used elsewhere in the meantime.
+	 * @param source DataSource to be trained from
+	 * @param normalizeCode Identifier which states how the dataset will be normalized (if at all).<br>
+	 * Use Normalize.NONE_NORMALIZE, Normalize.SIGMOID_NORMALIZE or Normalize.TANH_NORMALIZE to specify normalization
+	 * function
+	 * @throws IOException if the source could not be read
+	 */
+	public void uploadSource(DataSource source, Normalize normalizeCode) throws IOException {
+		int inputWidth = source.getInputWidth();
+		int targetWidth = source.getTargetWidth();
+		int validationSize = batchSize * 2;
 		
+		Normalizer normalizer = createNormalizer(inputWidth, targetWidth, normalizeCode);
+		
+		//First pass counts the rows and gathers statistics, only keeping the most recent rows for validation
+		double[][] lastInputs = new double[validationSize][inputWidth];
+		double[][] lastTargets = new double[validationSize][targetWidth];
+		long count = 0;
+		
+		source.reset();
+		while(source.next(lastInputs[(int) (count % validationSize)], lastTargets[(int) (count % validationSize)])) {
+			if(normalizer != null) 
+				normalizer.accept(lastInputs[(int) (count % validationSize)], lastTargets[(int) (count % validationSize)]);
+			count++;
+		}
+		
+		long trainSize = count - (count % batchSize) - validationSize;
+		if(trainSize <= 0 || trainSize > Integer.MAX_VALUE) 
+			throw new IllegalArgumentException("Data source holds " + count + " rows, which cannot be trained on");
+		
+		Dataset validation = new Dataset(validationSize, inputWidth, targetWidth);
+		for(int row = 0; row < validationSize; row++) {
+			int slot = (int) ((count - validationSize + row) % validationSize);
+			
+			for(int col = 0; col < inputWidth; col++) validation.setInput(lastInputs[slot][col], row, col);
+			for(int col = 0; col < targetWidth; col++) validation.setTarget(lastTargets[slot][col], row, col);
+		}
+		
+		this.dataset = null;
+		this.validationData = validation;
+		
+		this.normalizer = normalizer;
+		this.data = null;
+		this.buffer = null;
+		this.sampler = null;
 		
 		this.dataIndex = 0;
-		this.dataSize = this.dataset.length;
+		this.epoch = 0;
+		this.dataSize = (int) trainSize;
+		
+		setLoader(new SourceLoader(source, count % batchSize, (int) trainSize, normalizer));
+	}
+	
+	/**
+	 * Use this function to train from a custom BatchLoader, such as one that decodes or windows its rows<br>
+	 * The loader supplies the training data already prepared, so no normalization is applied to it. Every row of
+	 * the loader is trained on and the validation data is given separately.
+	 * @param loader BatchLoader the training data is read from
+	 * @param validationData Dataset used by validate(), prepared the same way as the rows of the loader
+	 */
+	public void uploadLoader(BatchLoader loader, Dataset validationData) {
+		if(loader.getInputWidth() != validationData.getInputWidth() 
+				|| loader.getTargetWidth() != validationData.getTargetWidth())
+			throw new IllegalArgumentException("Validation data does not match the width of the loader");
+		
+		this.dataset = null;
+		this.validationData = validationData;
+		
+		this.normalizer = null;
+		this.data = null;
+		this.buffer = null;
+		this.sampler = null;
+		
+		this.dataIndex = 0;
+		this.epoch = 0;
+		this.dataSize = loader.size();
+		
+		setLoader(loader);
+	}
+	
+	/**
+	 * Use this function to train on an uploaded dataset in a shuffled order, drawn from a random seed<br>
+	 * See setShuffle(boolean, long) for details
+	 * @param shuffle True to shuffle the order every epoch, false to train in the order the data is stored in
+	 */
+	public void setShuffle(boolean shuffle) {
+		setShuffle(shuffle, System.nanoTime());
+	}
+	
+	/**
+	 * Use this function to train on an uploaded dataset in a shuffled order<br>
+	 * Every epoch visits the training data in a new order, drawn as a permutation of the positions of the
+	 * datapoints, so no datapoint is moved or copied. Shuffling usually lets a network without recurrent units
+	 * converge in fewer epochs. The order only depends on the seed, so training with the same seed is repeatable.
+	 * <br>
+	 * The data is trained on in the order it is stored in by default. Recurrent networks must keep that order, as
+	 * their memory relies on consecutive datapoints, and data streamed from a DataSource or a BatchLoader is
+	 * always read in order
+	 * @param shuffle True to shuffle the order every epoch, false to train in the order the data is stored in
+	 * @param seed Seed the orders are drawn from
+	 */
+	public void setShuffle(boolean shuffle, long seed) {
+		if(shuffle && isRecurrent()) throw new IllegalStateException("Recurrent networks must be trained in order");
+		
+		this.shuffle = shuffle;
+		this.shuffleSeed = seed;
+		
+		if(dataset != null) setLoader(datasetLoader());
+	}
+	
+	/**
+	 * Use this function to draw the datapoints of an uploaded dataset in proportion to their most recent loss<br>
+	 * Every step of training draws a datapoint from the training data, favouring the datapoints with the largest
+	 * loss the last time they were trained on, so training spends less time on datapoints that are already
+	 * learned. The gradient of every drawn datapoint is scaled by its importance weight, which corrects the bias of
+	 * drawing datapoints unevenly. An epoch still trains on as many datapoints as the training data holds, but
+	 * some datapoints may be drawn several times and others not at all.<br>
+	 * Importance sampling replaces shuffling while it is enabled. It cannot be used by recurrent networks, and data
+	 * streamed from a DataSource or a BatchLoader is always read in order
+	 * @param sample True to draw datapoints by their loss, false to train through the data in order
+	 * @param uniform Fraction of the datapoints drawn uniformly instead of by their loss, between 0 and 1.
+	 * Larger values keep the importance weights closer to 1
+	 * @param seed Seed the datapoints are drawn with
+	 */
+	public void setImportanceSampling(boolean sample, double uniform, long seed) {
+		if(sample && isRecurrent()) throw new IllegalStateException("Recurrent networks must be trained in order");
+		if(!(uniform >= 0 && uniform <= 1)) throw new IllegalArgumentException("Uniform fraction must be between 0 and 1");
+		
+		this.importance = sample;
+		this.importanceUniform = uniform;
+		this.importanceSeed = seed;
+		
+		if(dataset != null) this.sampler = importanceSampler();
+	}
+	
+	/**
+	 * Use this function to read the training data ahead of time on a background thread<br>
+	 * While the network trains on a batch, up to depth of the following batches are read and prepared, so reading
+	 * from disk and normalization overlap with training. Prefetching stays enabled when another dataset is
+	 * uploaded, and the background thread runs until stopPrefetch() is called
+	 * @param depth Maximum number of batches read ahead, or 0 to read every batch when it is needed
+	 */
+	public void setPrefetch(int depth) {
+		if(depth < 0) throw new IllegalArgumentException("Prefetch depth cannot be negative");
+		
+		this.prefetchDepth = depth;
+		
+		//A shuffled loader that was read ahead may already be in a later epoch, so loaders of the uploaded
+		//dataset are made again at the current position
+		if(dataset != null) setLoader(datasetLoader());
+		else if(baseLoader != null) setLoader(baseLoader);
+	}
+	
+	/**
+	 * Use this function to stop the background thread started by setPrefetch() when the network will not be
+	 * trained for a while or is about to be discarded, as the thread keeps running until it is stopped<br>
+	 * The uploaded training data is kept and read when it is needed, until setPrefetch() is called again
+	 */
+	public void stopPrefetch() {
+		this.prefetchDepth = 0;
+		if(!(loader instanceof PrefetchLoader)) return;
+		
+		//A shuffled loader that was read ahead may already be in a later epoch, so it is made again at the
+		//current position instead
+		if(shuffle && dataset != null) {
+			setLoader(datasetLoader());
+			return;
+		}
+		
+		try {
+			loader.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		//The current batch stays valid, as it was already handed over by the PrefetchLoader
+		this.loader = baseLoader;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Creates the loader of the uploaded training data, shuffled if shuffling is enabled
+	 * @return Loader of the uploaded training data
+	 */
+	private DatasetLoader datasetLoader() {
+		if(shuffle) return new DatasetLoader(dataset, normalizer, shuffleSeed, epoch);
+		
+		return new DatasetLoader(dataset, normalizer);
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Creates the sampler of the uploaded training data if importance sampling is enabled
+	 * @return Sampler with every datapoint equally likely, or null if importance sampling is disabled
+	 */
+	private ImportanceSampler importanceSampler() {
+		if(!importance) return null;
+		
+		return new ImportanceSampler(dataSize, importanceUniform, importanceSeed);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package<br>
+	 * Checks whether any of the hidden units keep a memory of previous datapoints
+	 * @return True if the network holds a recurrent or GRU unit
+	 */
+	boolean isRecurrent() {
+		for(Unit unit : hiddenLayers) {
+			if(unit instanceof RecurrentUnit || unit instanceof GRU_Unit) return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Sets the loader the training data is read from, wrapping it in a PrefetchLoader if prefetching is enabled
+	 * @param loader BatchLoader of the training data
+	 */
+	private void setLoader(BatchLoader loader) {
+		//Only the prefetching thread is stopped, the loader it wraps may be used again
+		if(this.loader instanceof PrefetchLoader) {
+			try {
+				this.loader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		this.baseLoader = loader;
+		this.loader = prefetchDepth > 0 ? new PrefetchLoader(loader, batchSize, prefetchDepth) : loader;
+		
+		this.batch = new Batch(batchSize, loader.getInputWidth(), loader.getTargetWidth());
+		this.batchStart = -1;
+		
+		this.inputRow = new double[loader.getInputWidth()];
+		this.recentTargets = new double[batchSize][loader.getTargetWidth()];
+	}
+	
+	/**
+	 * Function to get the statistics the uploaded data was normalized with.<br>
+	 * Inputs given to the network during inference should be normalized with normalizeInput() of the Normalizer,
+	 * and predictions can be mapped back to the units of the dataset with denormalizeTarget(). The Normalizer can
+	 * be written to a file next to the model so the same statistics are used wherever the model is loaded
+	 * @return Normalizer of the uploaded data, or null if the data is not normalized
+	 */
+	public Normalizer getNormalizer() {
+		return this.normalizer;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Creates the Normalizer matching a normalization code
+	 * @param inputWidth Number of values in every input vector
+	 * @param targetWidth Number of values in every target vector
+	 * @param normalizeCode Identifier which states how the dataset will be normalized
+	 * @return Normalizer that has not seen any rows, or null if the dataset is not normalized
+	 */
+	private static Normalizer createNormalizer(int inputWidth, int targetWidth, Normalize normalizeCode) {
+		if(normalizeCode == Normalize.SIGMOID_NORMALIZE) return new Normalizer(inputWidth, targetWidth, 1, 0);
+		if(normalizeCode == Normalize.TANH_NORMALIZE) return new Normalizer(inputWidth, targetWidth, 1, -1);
+		
+		return null;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Reads a datapoint of the training data into inputRow and the next slot of recentTargets
+	 * @param index Position of the datapoint in the training data
+	 * @return Array holding the target values of the datapoint
+	 */
+	private double[] readRow(int index) {
+		recentSlot = (recentSlot + 1) % recentTargets.length;
+		
+		int offset = index - batchStart;
+		if(offset < 0) offset += dataSize;
+		
+		//Read the batch starting at the datapoint if it is not in the current batch
+		if(batchStart < 0 || offset >= batch.size()) {
+			try {
+				loader.read(index, batch);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			
+			batchStart = index;
+			offset = 0;
+		}
+		
+		double[] target = recentTargets[recentSlot];
+		System.arraycopy(batch.getInput(offset), 0, inputRow, 0, inputRow.length);
+		System.arraycopy(batch.getTarget(offset), 0, target, 0, target.length);
+		
+		return target;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Reads a datapoint drawn from the uploaded dataset into inputRow and the next slot of recentTargets
+	 * @param row Row of the datapoint in the training data
+	 * @return Array holding the target values of the datapoint
+	 */
+	private double[] readSample(int row) {
+		recentSlot = (recentSlot + 1) % recentTargets.length;
+		
+		double[] target = recentTargets[recentSlot];
+		dataset.getInput(row, inputRow);
+		dataset.getTarget(row, target);
+		
+		if(normalizer != null) {
+			normalizer.normalizeInput(inputRow);
+			normalizer.normalizeTarget(target);
+		}
+		
+		return target;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Reads the next datapoint of the training data and moves past it, as every step of train() does
+	 * @param inputs Array the inputs of the datapoint are copied into
+	 * @return Array holding the target values of the datapoint, which is overwritten by later datapoints
+	 */
+	double[] readNext(double[] inputs) {
+		if(sampler != null) throw new IllegalStateException("Networks with importance sampling can only train on their own");
+		
+		double[] target = readRow(dataIndex);
+		System.arraycopy(inputRow, 0, inputs, 0, inputRow.length);
+		
+		dataIndex = (dataIndex + 1) % dataSize;
+		if(dataIndex == 0) epoch++;
+		
+		return target;
 	}
 	
 	
@@ -137,11 +626,32 @@ public class Network {
 	 * Will be useful for RNN's
 	 */
 	public boolean train(boolean backProp, boolean dependency, int batchSize) {
-		if(dataset == null) return false;
+		if(loader == null) return false;
 		
 		totalLoss = 0;
 		averageLoss = 0;
 		
+		boolean overflow = passBatch(batchSize);
+		
+		propagateError();
+		
+		//Backpropagate if desired
+		if(backProp && (!dependency || dataIndex >= memoryLength || dataIndex == 0)) {
+			backpropagate();
+		}
+		
+		averageLoss = totalLoss / batchSize;
+		
+		return overflow;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Passes datapoints of the training data through the network and adds their loss to the total loss
+	 * @param batchSize Number of datapoints to pass through
+	 * @return True if the end of the training data was passed
+	 */
+	private boolean passBatch(int batchSize) {
 		boolean overflow = false;
 		
 		double[] output;
@@ -150,25 +660,35 @@ public class Network {
 		for(int index = 0; index < batchSize; index++) {
 			
 			//Test data, calculate errors, add errors to loss value
-			output = test(dataset[dataIndex][0]);
-			calculateLoss(dataset[dataIndex][1], output);
+			if(sampler == null) {
+				double[] target = readRow(dataIndex);
+				
+				output = test(inputRow);
+				calculateLoss(target, output);
+			}
+			else {
+				int row = sampler.sample();
+				double weight = sampler.weight(row);
+				double[] target = readSample(row);
+				
+				output = test(inputRow);
+				sampler.update(row, calculateLoss(target, output));
+				
+				//The error of the output layer is proportional to the distance from the target, so moving the
+				//target towards the output scales the gradient of the datapoint by its weight
+				for(int col = 0; col < target.length; col++) {
+					target[col] = output[col] + weight * (target[col] - output[col]);
+				}
+			}
 			
 			//ensure dataIndex never reaches out of bounds for the dataset array
 			dataIndex = (dataIndex + 1) % dataSize;
+			if(dataIndex == 0) epoch++;
 			
 			//When data is reset an overflow has occurred
 			if(dataIndex == 0 && index < batchSize - 1) overflow = true;
 		}
 		
-		propagateError();
-		
-		//Backpropagate if desired
-		if(backProp && (!dependency || dataIndex >= memoryLength || dataIndex == 0)) {
-			backpropagate();
-		}
-		
-		averageLoss = totalLoss / batchSize;
-		
 		return overflow;
 	}
 	
@@ -186,11 +706,19 @@ public class Network {
 		}
 		
 		double loss = validate();
+		finishEpoch();
+		
+		return loss;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Resets the network to the start of the training data and steps the learning rate schedule
+	 */
+	void finishEpoch() {
 		this.reset(true);
 		
 		if(algorithmicLR) learning_rate -= (algorithmicMax - algorithmicMin) / algorithmicIt;
-		
-		return loss;
 	}
 	
 	/**
@@ -215,9 +743,17 @@ public class Network {
 		averageLoss = 0;
 		double[] output = new double[0];
 		
-		for(double[][] data: validationData) {
-			output = test(data[0]);
-			calculateLoss(data[1], output);
+		for(int index = 0; index < validationData.size(); index++) {
+			inputRow = validationData.getInput(index, inputRow);
+			targetRow = validationData.getTarget(index, targetRow);
+			
+			if(normalizer != null) {
+				normalizer.normalizeInput(inputRow);
+				normalizer.normalizeTarget(targetRow);
+			}
+			
+			output = test(inputRow);
+			calculateLoss(targetRow, output);
 		}
 		
 		averageLoss = totalLoss / batchSize;
@@ -249,7 +785,13 @@ public class Network {
 			hiddenLayers[index].reset();
 		}
 		
-		if(resetDataIndex) dataIndex = 0;
+		if(!resetDataIndex || dataIndex == 0) return;
+		
+		dataIndex = 0;
+		epoch++;
+		
+		//A shuffled loader is made again so the new epoch is not read from a batch of the previous one
+		if(shuffle && dataset != null) setLoader(datasetLoader());
 	}
 	
 	/**
@@ -273,18 +815,17 @@ public class Network {
 	 * Will be called after the entire batch has been passed through as input
 	 */
 	private void propagateError() {
-		int dataPoint = dataIndex - 1; //Most Recent trained point
-		if(dataPoint < 0) dataPoint += dataSize;
+		int slot = recentSlot; //Most Recent trained point
 		
 		int memIndexSrt = memoryLength - batchSize;
 		
 		for(int step = batchSize - 1; step >= 0; step--) {
-			propagateErrorStep(memIndexSrt + step, dataset[dataPoint][1]);
+			propagateErrorStep(memIndexSrt + step, recentTargets[slot]);
 			
-			//System.out.println(memIndexSrt + step + ", " + dataPoint);
+			//System.out.println(memIndexSrt + step + ", " + slot);
 			
-			dataPoint--;
-			if(dataPoint < 0) dataPoint += dataSize;
+			slot--;
+			if(slot < 0) slot += recentTargets.length;
 		}
 	}
 	
@@ -328,8 +869,9 @@ public class Network {
 	 * Runs the MSE (Mean Squared Error) algorithm to calculate overall loss of a batch
 	 * @param target array of target values
 	 * @param output array of output values
+	 * @return Loss of the datapoint
 	 */
-	private void calculateLoss(double[] target, double[] output) {
+	private double calculateLoss(double[] target, double[] output) {
 		//1/n (t - y)^2
 		//n = number of output neurons
 		//t is the target
@@ -342,6 +884,8 @@ public class Network {
 		sum /= target.length;
 		
 		totalLoss += sum;
+		
+		return sum;
 	}
 	
 	/**
@@ -360,14 +904,361 @@ public class Network {
 		return this.averageLoss;
 	}
 	
+	/**
+	 * Function to get the current learning rate
+	 * @return Learning rate that will be used by the next backpropagation
+	 */
+	public double getLearningRate() {
+		return this.learning_rate;
+	}
+	
+	/**
+	 * Function to estimate the heap memory used by the weights of the network, including the state of the Adam
+	 * optimizer once the network has been trained
+	 * @return Estimated size in bytes
+	 */
+	public long getFootprint() {
+		long ret = 0;
+		for(Unit u: getUnits()) {
+			for(ConnectionLayer c: u.getConnectionLayers()) ret += c.getFootprint();
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to create a copy of the network that can be trained independently, without copying its weights.
+	 * <br>
+	 * The fork shares the weight matrices of this network. Weights are never modified in place by training, so
+	 * the first time either network adjusts a layer it creates a new Matrix for itself and the other network
+	 * keeps the original. Forking therefore only allocates the layer structure, and memory only grows as the
+	 * networks diverge. Shared matrices must not be modified through getMatrix().setValue().<br>
+	 * The fork also shares the uploaded dataset, unless it is streamed from a DataSource, and copies the learning
+	 * rate and its schedule.
+	 * @param copyTrainingState If true, the Adam optimizer state, the memory of every layer and the position in
+	 * the dataset are copied so that the fork continues training exactly where this network is. If false, the
+	 * fork starts with a fresh optimizer, empty memory and at the start of the dataset.
+	 * @return Forked network
+	 */
+	public Network fork(boolean copyTrainingState) {
+		Network fork;
+		try {
+			fork = ModelFile.Header.of(this).build();
+		} catch (IOException e) {
+			throw new IllegalStateException("Network could not be forked", e);
+		}
+		
+		Unit[] units = getUnits();
+		Unit[] forkUnits = fork.getUnits();
+		for(int u = 0; u < units.length; u++) {
+			ConnectionLayer[] cLayers = units[u].getConnectionLayers();
+			ConnectionLayer[] forkLayers = forkUnits[u].getConnectionLayers();
+			
+			for(int c = 0; c < cLayers.length; c++) {
+				forkLayers[c].setMatrix(cLayers[c].getMatrix());
+				if(copyTrainingState) forkLayers[c].setOptimizerState(cLayers[c].getOptimizerState());
+			}
+			
+			if(!copyTrainingState) continue;
+			
+			NeuronLayer[] nLayers = units[u].getNeuronLayers();
+			NeuronLayer[] forkNeurons = forkUnits[u].getNeuronLayers();
+			for(int n = 0; n < nLayers.length; n++) forkNeurons[n].setHistory(nLayers[n].getHistory());
+		}
+		
+		if(copyTrainingState) fork.input.setHistory(input.getHistory());
+		
+		//A DataSource can only be read by one network at a time, so a streamed dataset is not shared
+		if(dataset != null) {
+			fork.dataset = this.dataset;
+			fork.validationData = this.validationData;
+			fork.data = this.data;
+			fork.normalizer = this.normalizer;
+			fork.dataSize = this.dataSize;
+			fork.shuffle = this.shuffle;
+			fork.shuffleSeed = this.shuffleSeed;
+			fork.importance = this.importance;
+			fork.importanceUniform = this.importanceUniform;
+			fork.importanceSeed = this.importanceSeed;
+			fork.setLoader(fork.datasetLoader());
+			fork.sampler = fork.importanceSampler();
+		}
+		
+		fork.restoreTrainingState(learning_rate, getAlgorithmicLR(), copyTrainingState ? dataIndex : 0,
+				copyTrainingState ? epoch : 0);
+		
+		return fork;
+	}
+	
+	/**
+	 * Function to be called only by the TrainingCheckpoint class
+	 * @return Array of the learning rate schedule {enabled (1 or 0), max, min, iterations}
+	 */
+	double[] getAlgorithmicLR() {
+		return new double[] {algorithmicLR ? 1 : 0, algorithmicMax, algorithmicMin, algorithmicIt};
+	}
+	
+	/**
+	 * Function to be called only by the TrainingCheckpoint class
+	 * @return Position of the next datapoint to be trained on
+	 */
+	int getDataIndex() {
+		return this.dataIndex;
+	}
+	
+	/**
+	 * Function to be called only by the TrainingCheckpoint class
+	 * @return Epoch of the next datapoint to be trained on, counted from 0
+	 */
+	int getEpoch() {
+		return this.epoch;
+	}
+	
+	/**
+	 * Function to be called only by the TrainingCheckpoint class
+	 * @return True if an uploaded dataset is trained on in a shuffled order
+	 */
+	boolean isShuffled() {
+		return this.shuffle;
+	}
+	
+	/**
+	 * Function to be called only by the TrainingCheckpoint class
+	 * @return Seed the shuffled orders are drawn from
+	 */
+	long getShuffleSeed() {
+		return this.shuffleSeed;
+	}
+	
+	/**
+	 * Function to be called only by the TrainingCheckpoint class<br>
+	 * Restores the learning rate, its schedule and the position in the dataset
+	 * @param lr Learning rate
+	 * @param schedule Array of the learning rate schedule as returned by getAlgorithmicLR()
+	 * @param dataIndex Position of the next datapoint to be trained on; only kept if it is within the currently
+	 * uploaded dataset
+	 * @param epoch Epoch of the next datapoint to be trained on, which decides the order of a shuffled dataset
+	 */
+	void restoreTrainingState(double lr, double[] schedule, int dataIndex, int epoch) {
+		this.learning_rate = lr;
+		
+		this.algorithmicLR = schedule[0] == 1;
+		this.algorithmicMax = schedule[1];
+		this.algorithmicMin = schedule[2];
+		this.algorithmicIt = (int) schedule[3];
+		
+		this.dataIndex = dataIndex < dataSize ? dataIndex : 0;
+		this.epoch = epoch;
+		
+		//The loader is made again so the rows are read in the order of the restored epoch
+		if(shuffle && dataset != null) setLoader(datasetLoader());
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that read and write networks
+	 * @return Memory length the network was built with
+	 */
+	int getMemoryLength() {
+		return this.memoryLength;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that read and write networks
+	 * @return Default batch size of the network
+	 */
+	int getBatchSize() {
+		return this.batchSize;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that read and write networks
+	 * @return Input Layer of the network
+	 */
+	InputLayer getInputLayer() {
+		return this.input;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Trains on the next batch of the training data without adjusting any weights, writing the gradients every
+	 * ConnectionLayer would apply into a buffer instead
+	 * @param gradients Buffer of getGradientSize() values the gradients are written to, in the order of
+	 * getConnectionLayers()
+	 * @return True if an overflow occurred when reading through the data
+	 */
+	boolean computeGradients(double[] gradients) {
+		totalLoss = 0;
+		averageLoss = 0;
+		
+		boolean overflow = passBatch(batchSize);
+		propagateError();
+		
+		int offset = 0;
+		for(ConnectionLayer c: getConnectionLayers()) {
+			c.computeGradients(gradients, offset);
+			offset += c.getGradientSize();
+		}
+		
+		purgeErrors();
+		
+		averageLoss = totalLoss / batchSize;
+		
+		return overflow;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Trains on the next batch of the training data, adjusting the weights in place so that networks sharing the
+	 * same weight matrices on other threads see the adjustments. See HogwildTrainer.adjustShared()
+	 * @return True if an overflow occurred when reading through the data
+	 */
+	boolean trainShared() {
+		totalLoss = 0;
+		averageLoss = 0;
+		
+		boolean overflow = passBatch(batchSize);
+		propagateError();
+		
+		for(ConnectionLayer c: getConnectionLayers()) HogwildTrainer.adjustShared(c, learning_rate);
+		purgeErrors();
+		
+		averageLoss = totalLoss / batchSize;
+		
+		return overflow;
+	}
+	
+	/**
+	 * Function to be called only natively by the Network class<br>
+	 * Moves the errors of every layer along exactly as backpropagate() does, without adjusting any weights
+	 */
+	private void purgeErrors() {
+		output.purgeErrors(batchSize);
+		for(Unit u: hiddenLayers) u.purgeErrors(batchSize);
+		input.purgeErrors(batchSize);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network
+	 * @return Number of values in a buffer holding the gradients of every ConnectionLayer
+	 * @throws IllegalStateException if the gradients do not fit in a single array
+	 */
+	int getGradientSize() {
+		long size = 0;
+		for(ConnectionLayer c: getConnectionLayers()) size += c.getGradientSize();
+		
+		if(size > Integer.MAX_VALUE - 8) throw new IllegalStateException("The gradients of the network do not fit in a single buffer");
+		
+		return (int) size;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Replaces every weight matrix of the network with the weight matrix of another network with the same
+	 * structure. The matrices are shared, not copied, as weights are never modified in place
+	 * @param source Network whose weights are shared
+	 */
+	void shareWeights(Network source) {
+		ConnectionLayer[] cLayers = getConnectionLayers();
+		ConnectionLayer[] sourceLayers = source.getConnectionLayers();
+		
+		for(int index = 0; index < cLayers.length; index++) cLayers[index].setMatrix(sourceLayers[index].getMatrix());
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network<br>
+	 * Trains on a part of the training data of another network, with its normalization. Settings for shuffling
+	 * and importance sampling are kept
+	 * @param shard Rows of the training data
+	 * @param validationData Validation data of the other network, or null if this network is not validated
+	 * @param normalizer Statistics every datapoint is normalized with, or null
+	 */
+	void uploadShard(Dataset shard, Dataset validationData, Normalizer normalizer) {
+		this.dataset = shard;
+		this.validationData = validationData;
+		
+		this.normalizer = normalizer;
+		this.data = null;
+		this.buffer = null;
+		
+		this.dataIndex = 0;
+		this.epoch = 0;
+		this.dataSize = shard.size();
+		
+		setLoader(datasetLoader());
+		this.sampler = importanceSampler();
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network
+	 * @return Number of datapoints in the training data, whether it is uploaded or streamed, 0 if there is none
+	 */
+	int getTrainingSize() {
+		return loader == null ? 0 : this.dataSize;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network
+	 * @return Validation data of the uploaded dataset, or null if no dataset was uploaded
+	 */
+	Dataset getValidationData() {
+		return this.validationData;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that train the network
+	 * @return Training data of the uploaded dataset, or null if no dataset was uploaded with uploadDataset()
+	 */
+	Dataset getTrainingData() {
+		return this.dataset;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package
+	 * @return Array of every ConnectionLayer of the network in forward order
+	 */
+	ConnectionLayer[] getConnectionLayers() {
+		ArrayList<ConnectionLayer> ret = new ArrayList<>();
+		for(Unit u: getUnits()) {
+			for(ConnectionLayer c: u.getConnectionLayers()) ret.add(c);
+		}
+		
+		return ret.toArray(new ConnectionLayer[0]);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package
+	 * @return Array of every NeuronLayer of the network in forward order, starting with the InputLayer
+	 */
+	NeuronLayer[] getNeuronLayers() {
+		ArrayList<NeuronLayer> ret = new ArrayList<>();
+		ret.add(getInputLayer());
+		for(Unit u: getUnits()) {
+			for(NeuronLayer n: u.getNeuronLayers()) ret.add(n);
+		}
+		
+		return ret.toArray(new NeuronLayer[0]);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that read and write networks
+	 * @return Array of every Unit in the network in forward order; the hidden Units followed by the OutputUnit
+	 */
+	Unit[] getUnits() {
+		Unit[] units = new Unit[numHidden + 1];
+		for(int index = 0; index < numHidden; index++) units[index] = hiddenLayers[index];
+		units[numHidden] = output;
+		
+		return units;
+	}
+	
 	@Override
 	public String toString() {
-		String ret = String.format("%s,%s\n", memoryLength, batchSize);
-		ret += input + "-\n";
+		StringBuilder ret = new StringBuilder(String.format("%s,%s\n", memoryLength, batchSize));
+		ret.append(input).append("-\n");
 		
-		for(Unit u: hiddenLayers) ret += u;
-		ret += output + "---";
+		for(Unit u: hiddenLayers) ret.append(u);
+		ret.append(output).append("---");
 		
-		return ret;
+		return ret.toString();
 	}
 }
\ No newline at end of file
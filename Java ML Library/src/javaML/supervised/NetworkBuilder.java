@@ -1,6 +1,7 @@
 package javaML.supervised;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Formatter;
 import java.util.LinkedList;
@@ -34,6 +35,9 @@ public class NetworkBuilder {
 	private int memoryLength;
 	//private int numRecurrent;
 	
+	//Set when every weight of the built network is replaced right after it is built
+	private final boolean deferWeights;
+	
 	private InputLayer input;
 	private OutputUnit output;
 	private ArrayList<Unit> hiddenLayers;
@@ -45,7 +49,19 @@ public class NetworkBuilder {
 	 * a backpropagation routine
 	 */
 	public NetworkBuilder(int memoryLength) {
+		this(memoryLength, false);
+	}
+	
+	/**
+	 * Constructor to be called only by classes of the supervised package that replace every weight of the network
+	 * right after building it
+	 * @param memoryLength Declared to specify how deep each neuron layer will remember inputs for
+	 * @param deferWeights set to true to skip generating random weights. Every ConnectionLayer holds a Matrix of
+	 * the correct dimensions without any values until setMatrix() is called
+	 */
+	NetworkBuilder(int memoryLength, boolean deferWeights) {
 		this.memoryLength = memoryLength;
+		this.deferWeights = deferWeights;
 		allowInput = true;
 		allowHidden = false;
 		allowOutput = false;
@@ -138,8 +154,8 @@ public class NetworkBuilder {
 		int prev = hiddenLayers.size() - 1;
 		
 		ConnectionLayer con;
-		if(prev == -1) con = new ConnectionLayer(input, hidden);
-		else con = new ConnectionLayer((HiddenLayer) hiddenLayers.get(prev).getExit(), hidden);
+		if(prev == -1) con = new ConnectionLayer(input, hidden, deferWeights);
+		else con = new ConnectionLayer((HiddenLayer) hiddenLayers.get(prev).getExit(), hidden, deferWeights);
 		
 		hiddenLayers.add(new HiddenUnit(hidden, con));
 		
@@ -161,10 +177,10 @@ public class NetworkBuilder {
 		int prev = hiddenLayers.size() - 1;
 		
 		ConnectionLayer con;
-		if(prev == -1) con = new ConnectionLayer(input, rLayer);
-		else con = new ConnectionLayer((HiddenLayer) hiddenLayers.get(prev).getExit(), rLayer);
+		if(prev == -1) con = new ConnectionLayer(input, rLayer, deferWeights);
+		else con = new ConnectionLayer((HiddenLayer) hiddenLayers.get(prev).getExit(), rLayer, deferWeights);
 		
-		RecurrentConnectionLayer rCon = new RecurrentConnectionLayer(rLayer);
+		RecurrentConnectionLayer rCon = new RecurrentConnectionLayer(rLayer, deferWeights);
 		
 		hiddenLayers.add(new RecurrentUnit(rLayer, con, rCon));
 		
@@ -188,7 +204,7 @@ public class NetworkBuilder {
 		if(prev == -1) prevLayer = input;
 		else prevLayer = hiddenLayers.get(prev).getExit();
 		
-		gru = GRU_Constructor.construct(prevLayer, layerSize, memoryLength);
+		gru = GRU_Constructor.construct(prevLayer, layerSize, memoryLength, deferWeights);
 		
 		hiddenLayers.add(gru);
 		
@@ -211,8 +227,8 @@ public class NetworkBuilder {
 		ConnectionLayer con;
 		int prev = hiddenLayers.size() - 1;
 		
-		if(prev == -1) con = new ConnectionLayer(input, outputLayer);
-		else con = new ConnectionLayer((HiddenLayer) hiddenLayers.get(prev).getExit(), outputLayer);
+		if(prev == -1) con = new ConnectionLayer(input, outputLayer, deferWeights);
+		else con = new ConnectionLayer((HiddenLayer) hiddenLayers.get(prev).getExit(), outputLayer, deferWeights);
 		
 		output = new OutputUnit(outputLayer, con);
 		
@@ -257,25 +273,7 @@ public class NetworkBuilder {
 	
 	public static boolean writeFile(Network network, String fileName, boolean avoidOverwriting) {
 		try {
-			File folder = new File("files//networks//");
-			if(!folder.exists()) folder.mkdirs();	//Make standard directory for network saving location
-			
-			String path = String.format("files//networks//%s", fileName);
-			String extension = ".nn";
-			
-			int addition = 0;
-			
-			File file;
-			
-			//Add unique # to the end of the file name to ensure a new file will be written
-			//(if avoidOverwriting is set to true)
-			if(avoidOverwriting) {
-				do {
-					file = new File(String.format("%s%d%s", path, addition++, extension));
-				} while(file.exists());
-			} else {
-				file = new File(path + extension);
-			}
+			File file = resolveFile(fileName, ".nn", avoidOverwriting);
 			
 			Formatter fileWriter = new Formatter(file);
 			
@@ -293,6 +291,179 @@ public class NetworkBuilder {
 		return false;
 	}
 	
+	/**
+	 * Writes a file for given network using the binary model format<br>
+	 * The binary format is much faster to save and load than the text format written by writeFile(), and is
+	 * recommended for large networks.<br><br>
+	 * File is written in a local directory named files/networks/ and a .nnb extension is added automatically
+	 * @param network The network to be saved
+	 * @param fileName The name of the file to write to (extension = .nnb)
+	 * @param avoidOverwriting If true, program will add a number to the end of the file name to ensure no
+	 * files are overwritten.
+	 * @return Returns true if the file was successfully written
+	 */
+	
+	public static boolean writeBinaryFile(Network network, String fileName, boolean avoidOverwriting) {
+		try {
+			File file = resolveFile(fileName, ModelFile.EXTENSION, avoidOverwriting);
+			
+			ModelFile.write(network, file);
+			
+			return file.exists();
+		} catch (Exception e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Writes a file for given network using the compressed model format<br>
+	 * The compressed format produces the smallest files, and is recommended for distributing networks.
+	 * Encodings other than WeightEncoding.DOUBLE are lossy.<br><br>
+	 * File is written in a local directory named files/networks/ and a .nnz extension is added automatically
+	 * @param network The network to be saved
+	 * @param fileName The name of the file to write to (extension = .nnz)
+	 * @param encoding Declares how the weights are stored<br>
+	 * Use the WeightEncoding enum to choose between WeightEncoding.DOUBLE, WeightEncoding.FLOAT16 and
+	 * WeightEncoding.INT8
+	 * @param avoidOverwriting If true, program will add a number to the end of the file name to ensure no
+	 * files are overwritten.
+	 * @return Returns true if the file was successfully written
+	 */
+	
+	public static boolean writeCompressedFile(Network network, String fileName, WeightEncoding encoding, 
+			boolean avoidOverwriting) {
+		try {
+			File file = resolveFile(fileName, CompressedModelFile.EXTENSION, avoidOverwriting);
+			
+			CompressedModelFile.write(network, file, encoding);
+			
+			return file.exists();
+		} catch (Exception e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Function to be called only by the native class<br>
+	 * Finds the file in the standard network saving location that a network should be written to
+	 * @param fileName The name of the file without extension
+	 * @param extension Extension to be added to the file name
+	 * @param avoidOverwriting If true, a number is added to the end of the file name so that no existing file
+	 * is chosen
+	 * @return File to be written
+	 */
+	private static File resolveFile(String fileName, String extension, boolean avoidOverwriting) {
+		File folder = new File("files//networks//");
+		if(!folder.exists()) folder.mkdirs();	//Make standard directory for network saving location
+		
+		String path = String.format("files//networks//%s", fileName);
+		
+		int addition = 0;
+		
+		File file;
+		
+		//Add unique # to the end of the file name to ensure a new file will be written
+		//(if avoidOverwriting is set to true)
+		if(avoidOverwriting) {
+			do {
+				file = new File(String.format("%s%d%s", path, addition++, extension));
+			} while(file.exists());
+		} else {
+			file = new File(path + extension);
+		}
+		
+		return file;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package<br>
+	 * Reads a model file in the format given by its extension: the binary (.nnb), compressed (.nnz) and checkpoint
+	 * (.nnc) formats are read with their own readers and any other file is read as a text (.nn) model file
+	 * @param file Model file to be read
+	 * @return The network held by the file
+	 * @throws IOException if the file could not be read or is not a valid model file
+	 */
+	static Network read(File file) throws IOException {
+		String name = file.getName();
+		
+		if(name.endsWith(ModelFile.EXTENSION)) return ModelFile.read(file);
+		if(name.endsWith(CompressedModelFile.EXTENSION)) return CompressedModelFile.read(file);
+		if(name.endsWith(TrainingCheckpoint.EXTENSION)) return TrainingCheckpoint.read(file).build();
+		
+		Network network = buildFromFile(file.getPath());
+		if(network == null) throw new IOException("Not a valid model file");
+		
+		return network;
+	}
+	
+	/**
+	 * Function to build a network from a file written in the binary model format, such as one that might be
+	 * created from the writeBinaryFile() function
+	 * @param path File path to the target file
+	 * @return Returns the network built from the file, if one could be made
+	 */
+	
+	public static Network buildFromBinaryFile(String path) {
+		try {
+			return ModelFile.read(new File(path));
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Function to build a network that reads its weights directly from a memory mapping of a binary model file,
+	 * such as one that might be created from the writeBinaryFile() function<br>
+	 * This is the fastest way to load a network for inference, and allows several processes using the same file
+	 * to share one copy of the weights. The file should not be modified while the network is in use.
+	 * @param path File path to the target file
+	 * @return Returns the network backed by the file, if one could be made
+	 */
+	
+	public static Network buildFromMappedFile(String path) {
+		try {
+			return ModelFile.map(new File(path));
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Function to build a network from a file written in the compressed model format, such as one that might be
+	 * created from the writeCompressedFile() function
+	 * @param path File path to the target file
+	 * @return Returns the network built from the file, if one could be made
+	 */
+	
+	public static Network buildFromCompressedFile(String path) {
+		try {
+			return CompressedModelFile.read(new File(path));
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Function to build a network from a checkpoint file, such as one that might be written by the
+	 * TrainingCheckpoint class<br>
+	 * The network is restored with its full training state, including the optimizer state, learning rate
+	 * schedule and the memory of each layer
+	 * @param path File path to the target file
+	 * @return Returns the network built from the checkpoint, if one could be made
+	 */
+	
+	public static Network buildFromCheckpoint(String path) {
+		try {
+			return TrainingCheckpoint.read(new File(path)).build();
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
 	/**
 	 * Function to build a network from a file, such as one that might be created from the writeFile() 
 	 * function
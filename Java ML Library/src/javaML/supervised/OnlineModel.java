@@ -0,0 +1,198 @@
+package javaML.supervised;
+
+import java.io.IOException;
+
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The OnlineModel keeps training a network while serving predictions from it on any number of other threads.
+ * <br>
+ * Training works on the network itself, which acts as the back buffer. The weights being served are a snapshot of
+ * the weight matrices of the network, which is published at a fixed interval of training steps by replacing a
+ * single volatile reference. Every prediction reads that reference once and is made entirely with the weights of
+ * that snapshot, so a prediction never sees weights of two different steps, and predictions never take a lock or
+ * wait on training.
+ * <br><br>
+ * ConnectionLayers never modify their Matrix in place, every adjustment replaces it with a new one, so a snapshot
+ * only holds references to the matrices of the network and publishing never copies a weight. The matrices of a
+ * snapshot stay in memory until no thread serves from it.
+ * <br><br>
+ * Every thread that predicts is given its own copy of the network layers, sharing the weights of the snapshot,
+ * since a network holds the values of its most recent prediction. A recurrent network therefore keeps a separate
+ * memory for every thread. The network should only be trained through the OnlineModel, or by a trainer on the same
+ * thread between calls to publish().
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class OnlineModel {
+	
+	private final Network network;
+	private final ConnectionLayer[] cLayers;
+	
+	//Topology every serving copy of the network is built from
+	private final ModelFile.Header header;
+	
+	private volatile Snapshot front;
+	
+	//Copy of the network used by every serving thread, with the snapshot it currently serves
+	private final ThreadLocal<Replica> replicas = ThreadLocal.withInitial(Replica::new);
+	
+	//Only accessed by the training thread
+	private int interval;
+	private int steps = 0;
+	
+	/**
+	 * Constructor for an OnlineModel, which immediately serves the current weights of the network
+	 * @param network Network to be trained, with its training data uploaded
+	 * @param interval Number of training steps between every publish of the weights
+	 */
+	public OnlineModel(Network network, int interval) {
+		this.network = network;
+		this.cLayers = network.getConnectionLayers();
+		this.header = ModelFile.Header.of(network);
+		
+		setInterval(interval);
+		publish();
+	}
+	
+	/**
+	 * Function to change how often the weights are published
+	 * @param interval Number of training steps between every publish of the weights
+	 */
+	public void setInterval(int interval) {
+		if(interval <= 0) throw new IllegalArgumentException("Interval must be at least 1 step");
+		this.interval = interval;
+	}
+	
+	/**
+	 * Function to train the network on its next batch, publishing the weights once the interval is reached
+	 * @return Returns true if an overflow occurred when reading through the data
+	 */
+	public boolean train() {
+		boolean overflow = network.train(true, false);
+		
+		if(++steps >= interval) publish();
+		
+		return overflow;
+	}
+	
+	/**
+	 * Function to train through the training data one time, publishing the weights at every interval and once
+	 * the epoch is finished
+	 * @return Loss calculated through a validation check immediately after the epoch is finished
+	 */
+	public double trainEpoch() {
+		for(int i = 0; i * network.getBatchSize() < network.getTrainingSize(); i++) train();
+		
+		double loss = network.validate();
+		network.finishEpoch();
+		
+		publish();
+		
+		return loss;
+	}
+	
+	/**
+	 * Function to serve the current weights of the network immediately<br>
+	 * Must be called on the thread that trains the network
+	 * @return Version of the published weights
+	 */
+	public long publish() {
+		Matrix[] weights = new Matrix[cLayers.length];
+		for(int index = 0; index < cLayers.length; index++) weights[index] = cLayers[index].getMatrix();
+		
+		Snapshot current = front;
+		front = new Snapshot(weights, current == null ? 1 : current.version + 1);
+		steps = 0;
+		
+		return front.version;
+	}
+	
+	/**
+	 * Function to test a particular set of inputs on the most recently published weights<br>
+	 * May be called from any thread while the network is trained
+	 * @param inputs Input vector of size equal to input layer size
+	 * @return returns the array of outputs produced by the output layer through forward propagation
+	 */
+	public double[] test(double... inputs) {
+		Replica replica = replicas.get();
+		
+		Snapshot snapshot = front;
+		if(replica.served != snapshot) replica.serve(snapshot);
+		
+		return replica.network.test(inputs);
+	}
+	
+	/**
+	 * Function to get the version of the weights the most recent prediction of the calling thread was made with
+	 * @return Version of the weights, 0 if the calling thread has not predicted yet
+	 */
+	public long getServedVersion() {
+		Snapshot served = replicas.get().served;
+		return served == null ? 0 : served.version;
+	}
+	
+	/**
+	 * Function to get the version of the most recently published weights
+	 * @return Version the next prediction is made with
+	 */
+	public long getVersion() {
+		return front.version;
+	}
+	
+	/**
+	 * Function to get the network being trained
+	 * @return Network acting as the back buffer
+	 */
+	public Network getNetwork() {
+		return network;
+	}
+	
+	/**
+	 * Weights of every ConnectionLayer at the time they were published
+	 */
+	private static final class Snapshot {
+		
+		final Matrix[] weights;
+		final long version;
+		
+		Snapshot(Matrix[] weights, long version) {
+			this.weights = weights;
+			this.version = version;
+		}
+	}
+	
+	/**
+	 * Copy of the network layers owned by a single serving thread
+	 */
+	private final class Replica {
+		
+		final Network network;
+		final ConnectionLayer[] cLayers;
+		
+		Snapshot served = null;
+		
+		Replica() {
+			try {
+				this.network = header.build();
+			} catch (IOException e) {
+				throw new IllegalStateException("Network could not be copied for serving", e);
+			}
+			
+			this.cLayers = network.getConnectionLayers();
+		}
+		
+		/**
+		 * Function to point every ConnectionLayer at the weights of a snapshot
+		 * @param snapshot Snapshot to be served
+		 */
+		void serve(Snapshot snapshot) {
+			for(int index = 0; index < cLayers.length; index++) cLayers[index].setMatrix(snapshot.weights[index]);
+			served = snapshot;
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package javaML.supervised;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * The RingCoordinator manages the members of a group of RingTrainers, usually one in every process taking part in
+ * training.<br>
+ * Every RingTrainer registers with the coordinator when it is created. Once the expected number of trainers have
+ * registered, every trainer is given its rank, the size of the group and the address of the next trainer in the
+ * ring, along with the number of steps in an epoch, which is the smallest number of batches held by any trainer.
+ * Every trainer must train a network with the same number of weights and send its gradients in the same
+ * precision, otherwise the group is disconnected as soon as it is complete.
+ * <br><br>
+ * The coordinator then serves barriers: a barrier is released once every trainer still in the group has reached
+ * it, which lets the group stop at the same step to take a checkpoint. If a trainer disconnects without leaving,
+ * the coordinator closes the connections of every trainer, so the rest of the group fails at its next barrier
+ * instead of waiting forever.
+ * <br><br>
+ * The coordinator runs on its own thread and may run in any of the processes or in a process of its own.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class RingCoordinator implements Closeable {
+	
+	/**
+	 * Magic number sent by a trainer when it registers ("JMLR")
+	 */
+	static final int MAGIC = 0x524C4D4A;
+	
+	//Messages sent by a trainer after registering
+	static final int BARRIER = 1;
+	static final int LEAVE = 2;
+	
+	private final ServerSocket server;
+	private final int size;
+	private final Thread thread;
+	
+	private final Socket[] members;
+	private final DataOutputStream[] outputs;
+	
+	//Guarded by this: trainers still in the group and trainers waiting at the current barrier
+	private int active;
+	private int waiting = 0;
+	
+	private volatile boolean closed = false;
+	
+	/**
+	 * Constructor for a RingCoordinator waiting for a group of trainers to register
+	 * @param port Port to listen on, or 0 to use any free port
+	 * @param size Number of trainers in the group
+	 * @throws IOException if the port could not be listened on
+	 */
+	public RingCoordinator(int port, int size) throws IOException {
+		if(size <= 0) throw new IllegalArgumentException("Group must hold at least 1 trainer");
+		
+		this.server = new ServerSocket(port);
+		this.size = size;
+		this.active = size;
+		
+		this.members = new Socket[size];
+		this.outputs = new DataOutputStream[size];
+		
+		this.thread = new Thread(this::serve, "RingCoordinator");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+	
+	/**
+	 * Function to get the port the coordinator listens on
+	 * @return Port for trainers to register on
+	 */
+	public int getPort() {
+		return server.getLocalPort();
+	}
+	
+	/**
+	 * Function to stop the coordinator and disconnect every trainer
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		
+		try {
+			server.close();
+		} catch (IOException e) { }
+		
+		disconnect();
+	}
+	
+	/**
+	 * Helper function run by the coordinator thread to register the group and start serving every trainer
+	 */
+	private void serve() {
+		int[] ports = new int[size];
+		int[] steps = new int[size];
+		int[] lengths = new int[size];
+		boolean[] halfPrecision = new boolean[size];
+		DataInputStream[] inputs = new DataInputStream[size];
+		
+		try {
+			for(int rank = 0; rank < size; rank++) {
+				Socket socket = server.accept();
+				socket.setTcpNoDelay(true);
+				members[rank] = socket;
+				
+				inputs[rank] = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				outputs[rank] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				
+				if(inputs[rank].readInt() != MAGIC) throw new IOException("Connection is not a RingTrainer");
+				ports[rank] = inputs[rank].readInt();
+				steps[rank] = inputs[rank].readInt();
+				lengths[rank] = inputs[rank].readInt();
+				halfPrecision[rank] = inputs[rank].readBoolean();
+			}
+			
+			for(int length: lengths) {
+				if(length != lengths[0]) throw new IOException("Trainers hold networks of different sizes");
+			}
+			
+			//Trainers sending in different precisions would wait forever on chunks of different lengths
+			for(boolean half: halfPrecision) {
+				if(half != halfPrecision[0]) throw new IOException("Trainers send gradients in different precisions");
+			}
+			
+			int epoch = Integer.MAX_VALUE;
+			for(int count: steps) epoch = Math.min(epoch, count);
+			
+			for(int rank = 0; rank < size; rank++) {
+				int next = (rank + 1) % size;
+				
+				outputs[rank].writeInt(rank);
+				outputs[rank].writeInt(size);
+				outputs[rank].writeUTF(members[next].getInetAddress().getHostAddress());
+				outputs[rank].writeInt(ports[next]);
+				outputs[rank].writeInt(epoch);
+				outputs[rank].flush();
+			}
+		} catch (IOException e) {
+			if(!closed) disconnect();
+			return;
+		}
+		
+		for(int rank = 0; rank < size; rank++) {
+			final int member = rank;
+			
+			Thread reader = new Thread(() -> read(member, inputs[member]), "RingCoordinator-" + rank);
+			reader.setDaemon(true);
+			reader.start();
+		}
+	}
+	
+	/**
+	 * Helper function run on a thread for every trainer to read its messages
+	 */
+	private void read(int rank, DataInputStream input) {
+		try {
+			while(true) {
+				int message = input.readInt();
+				
+				if(message == LEAVE) {
+					leave();
+					return;
+				}
+				
+				if(message == BARRIER) arrive();
+				else throw new IOException("Unknown message " + message);
+			}
+		} catch (IOException e) {
+			
+			//A trainer that disconnects without leaving breaks the ring, so the whole group is stopped
+			disconnect();
+		}
+	}
+	
+	/**
+	 * Helper function to count a trainer at the barrier and release the barrier once every trainer reached it
+	 */
+	private synchronized void arrive() throws IOException {
+		waiting++;
+		if(waiting >= active) release();
+	}
+	
+	/**
+	 * Helper function to remove a trainer that left from the group
+	 */
+	private synchronized void leave() throws IOException {
+		active--;
+		if(waiting > 0 && waiting >= active) release();
+	}
+	
+	/**
+	 * Helper function to release every trainer waiting at the barrier
+	 */
+	private void release() throws IOException {
+		waiting = 0;
+		
+		for(int rank = 0; rank < size; rank++) {
+			if(members[rank].isClosed()) continue;
+			
+			try {
+				outputs[rank].writeInt(BARRIER);
+				outputs[rank].flush();
+			} catch (IOException e) {
+				
+				//A trainer that left may already have closed its connection
+			}
+		}
+	}
+	
+	/**
+	 * Helper function to close the connection of every trainer
+	 */
+	private synchronized void disconnect() {
+		for(Socket member: members) {
+			if(member == null) continue;
+			
+			try {
+				member.close();
+			} catch (IOException e) { }
+		}
+	}
+}
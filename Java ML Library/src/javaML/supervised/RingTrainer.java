@@ -0,0 +1,415 @@
+package javaML.supervised;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The RingTrainer trains a network across several processes, each holding its own replica of the network and
+ * its own shard of the training data, so training can use more memory and cores than a single process has.
+ * <br><br>
+ * Every process uploads its own shard to its network, through uploadDataset() or uploadSource(), and creates a
+ * RingTrainer that registers with a RingCoordinator. The trainers form a ring in which every trainer sends to the
+ * next trainer and receives from the previous one over TCP. When the ring is formed, the weights of the trainer
+ * with rank 0 are passed around the ring, so every replica starts from the same weights.
+ * <br><br>
+ * In every step, each trainer computes the gradients of one batch of its shard and the gradients are averaged
+ * with a ring all-reduce: the gradient buffer is split into one chunk per trainer, every chunk is summed as it is
+ * passed once around the ring, and the summed chunks are then passed around the ring again so every trainer holds
+ * all of them. Every trainer sends and receives about twice the size of the gradients per step, no matter how many
+ * trainers there are. Every trainer then applies the same averaged gradient with its own optimizer, so the
+ * replicas stay identical without ever exchanging weights again.
+ * <br><br>
+ * Every weight takes one Adam step for every timestep in memory, as in adjustWeights() of the ConnectionLayers,
+ * so the gradient buffer holds the gradient of every weight at every timestep, memoryLength times the number of
+ * weights. Every trainer therefore sends and receives about 2 * memoryLength times the size of the model per step,
+ * which should be weighed against the time of a step before training a network with a long memory this way.
+ * <br><br>
+ * Gradients can be sent in half precision, which quarters the traffic of the all-reduce. Half precision only holds
+ * about 3 significant digits and flushes values below about 6e-8 to 0. The trainer that finishes summing a chunk
+ * rounds its own copy to half precision too, so every replica applies exactly the same gradient either way.
+ * <br><br>
+ * Every process must train the same number of steps, so an epoch is as many steps as the smallest shard has
+ * batches. Every replica should start with the same optimizer state, such as a fresh optimizer or the same
+ * checkpoint.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class RingTrainer implements Closeable {
+	
+	private final Network network;
+	private final boolean halfPrecision;
+	
+	private final int rank, size, steps;
+	
+	private final Socket coordinator;
+	private final DataInputStream control;
+	private final DataOutputStream controlOut;
+	
+	//Connections to the next and previous trainers in the ring, null if the trainer is alone
+	private final Socket next, previous;
+	private final DataOutputStream out;
+	private final DataInputStream in;
+	
+	//Gradients of every ConnectionLayer followed by the loss of the batch
+	private final double[] gradients;
+	private final ConnectionLayer[] cLayers;
+	
+	//Sends chunks to the next trainer while chunks from the previous trainer are received
+	private final ExecutorService sender;
+	private byte[] sendBytes = new byte[0], receiveBytes = new byte[0];
+	
+	private double averageLoss = 0;
+	
+	/**
+	 * Constructor for a RingTrainer, which blocks until every trainer of the group has registered and the ring
+	 * is formed
+	 * @param network Network to be trained, with its shard of the training data uploaded
+	 * @param host Host of the RingCoordinator
+	 * @param port Port of the RingCoordinator
+	 * @param halfPrecision True to send gradients in half precision, which must be the same for every trainer of
+	 * the group
+	 * @throws IOException if the coordinator or the other trainers could not be reached, or the group was
+	 * disconnected because its trainers do not match
+	 */
+	public RingTrainer(Network network, String host, int port, boolean halfPrecision) throws IOException {
+		if(network.getTrainingSize() == 0) throw new IllegalStateException("A dataset must be uploaded before training");
+		
+		this.network = network;
+		this.halfPrecision = halfPrecision;
+		
+		this.cLayers = network.getConnectionLayers();
+		this.gradients = new double[network.getGradientSize() + 1];
+		
+		Socket coordinator = null, next = null, previous = null;
+		
+		try(ServerSocket ring = new ServerSocket(0)) {
+			coordinator = new Socket(host, port);
+			coordinator.setTcpNoDelay(true);
+			this.control = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+			this.controlOut = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+			
+			controlOut.writeInt(RingCoordinator.MAGIC);
+			controlOut.writeInt(ring.getLocalPort());
+			controlOut.writeInt(network.getTrainingSize() / network.getBatchSize());
+			controlOut.writeInt(gradients.length);
+			controlOut.writeBoolean(halfPrecision);
+			controlOut.flush();
+			
+			this.rank = control.readInt();
+			this.size = control.readInt();
+			String nextHost = control.readUTF();
+			int nextPort = control.readInt();
+			this.steps = control.readInt();
+			
+			//The ring port is listening before registering, so connecting never waits on the next trainer
+			if(size > 1) {
+				next = new Socket(nextHost, nextPort);
+				next.setTcpNoDelay(true);
+				previous = ring.accept();
+				previous.setTcpNoDelay(true);
+				
+				this.out = new DataOutputStream(new BufferedOutputStream(next.getOutputStream()));
+				this.in = new DataInputStream(new BufferedInputStream(previous.getInputStream()));
+			}
+			else {
+				this.out = null;
+				this.in = null;
+			}
+		} catch (IOException | RuntimeException e) {
+			closeAll(e, coordinator, next, previous);
+			throw e;
+		}
+		
+		this.coordinator = coordinator;
+		this.next = next;
+		this.previous = previous;
+		
+		this.sender = DataParallelTrainer.createWorkers(1, "RingTrainer-sender");
+		
+		try {
+			broadcastWeights();
+		} catch (IOException | RuntimeException e) {
+			sender.shutdown();
+			closeAll(e, coordinator, next, previous);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Function to train every replica on its next batch and apply the average gradient to every replica
+	 * @throws IOException if the ring was broken
+	 */
+	public void train() throws IOException {
+		network.computeGradients(gradients);
+		gradients[gradients.length - 1] = network.getAverageLoss();
+		
+		allReduce(gradients, halfPrecision);
+		
+		double scale = 1.0 / size;
+		for(int index = 0; index < gradients.length; index++) gradients[index] *= scale;
+		averageLoss = gradients[gradients.length - 1];
+		
+		double lr = network.getLearningRate();
+		int offset = 0;
+		for(ConnectionLayer c: cLayers) {
+			c.applyGradients(gradients, offset, lr);
+			offset += c.getGradientSize();
+		}
+	}
+	
+	/**
+	 * Function to train one epoch, as many steps as the smallest shard has batches
+	 * @return Validation loss averaged over every replica, each validated on its own validation data
+	 * @throws IOException if the ring was broken
+	 */
+	public double trainEpoch() throws IOException {
+		for(int step = 0; step < steps; step++) train();
+		
+		double[] loss = {network.validate()};
+		network.finishEpoch();
+		
+		allReduce(loss, false);
+		
+		return loss[0] / size;
+	}
+	
+	/**
+	 * Function to wait until every trainer of the group has reached the barrier
+	 * @throws IOException if the group lost a trainer
+	 */
+	public void barrier() throws IOException {
+		controlOut.writeInt(RingCoordinator.BARRIER);
+		controlOut.flush();
+		
+		if(control.readInt() != RingCoordinator.BARRIER) throw new IOException("Unexpected message from the coordinator");
+	}
+	
+	/**
+	 * Function to write a TrainingCheckpoint of the network once every trainer has reached the same step<br>
+	 * Every replica holds the same weights, so only the trainer with rank 0 writes the checkpoint, and no trainer
+	 * continues until it is written
+	 * @param file File the checkpoint is written to by the trainer with rank 0
+	 * @return True if this trainer wrote the checkpoint
+	 * @throws IOException if the checkpoint could not be written or the group lost a trainer
+	 */
+	public boolean checkpoint(File file) throws IOException {
+		barrier();
+		if(rank == 0) TrainingCheckpoint.capture(network).write(file);
+		barrier();
+		
+		return rank == 0;
+	}
+	
+	/**
+	 * Function to get the average loss of the batches of the most recent step
+	 * @return Average loss over every replica
+	 */
+	public double getAverageLoss() {
+		return averageLoss;
+	}
+	
+	/**
+	 * Function to get the rank of this trainer
+	 * @return Position of the trainer in the ring
+	 */
+	public int getRank() {
+		return rank;
+	}
+	
+	/**
+	 * Function to get the number of trainers in the group
+	 * @return Size of the group
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * Function to get the number of steps in an epoch
+	 * @return Number of batches every trainer trains on per epoch
+	 */
+	public int getSteps() {
+		return steps;
+	}
+	
+	/**
+	 * Function to leave the group and close every connection
+	 */
+	@Override
+	public void close() throws IOException {
+		sender.shutdown();
+		
+		try {
+			controlOut.writeInt(RingCoordinator.LEAVE);
+			controlOut.flush();
+		} finally {
+			coordinator.close();
+			if(next != null) next.close();
+			if(previous != null) previous.close();
+		}
+	}
+	
+	/**
+	 * Helper function to close the connections of a trainer that could not join the ring, keeping any failure to
+	 * close them with the error that stopped the trainer
+	 */
+	private static void closeAll(Exception error, Socket... sockets) {
+		for(Socket socket: sockets) {
+			if(socket == null) continue;
+			
+			try {
+				socket.close();
+			} catch (IOException e) {
+				error.addSuppressed(e);
+			}
+		}
+	}
+	
+	/**
+	 * Helper function to give every replica the weights of the trainer with rank 0
+	 */
+	private void broadcastWeights() throws IOException {
+		if(size == 1) return;
+		
+		int length = 0;
+		for(ConnectionLayer c: cLayers) length += c.getMatrix().getRows() * c.getMatrix().getColumns();
+		
+		double[] weights = new double[length];
+		if(rank == 0) {
+			int offset = 0;
+			for(ConnectionLayer c: cLayers) {
+				for(double[] row: c.getMatrix().getMatrix()) {
+					System.arraycopy(row, 0, weights, offset, row.length);
+					offset += row.length;
+				}
+			}
+			
+			send(weights, 0, length, false);
+			return;
+		}
+		
+		receive(weights, 0, length, false, false);
+		if(rank != size - 1) send(weights, 0, length, false);
+		
+		int offset = 0;
+		for(ConnectionLayer c: cLayers) {
+			double[][] matrix = new double[c.getMatrix().getRows()][c.getMatrix().getColumns()];
+			for(double[] row: matrix) {
+				System.arraycopy(weights, offset, row, 0, row.length);
+				offset += row.length;
+			}
+			
+			c.setMatrix(matrix);
+		}
+	}
+	
+	/**
+	 * Helper function to sum a buffer over every trainer of the ring, leaving the sum in the buffer of every
+	 * trainer
+	 */
+	private void allReduce(double[] buffer, boolean half) throws IOException {
+		if(size == 1) return;
+		
+		//Every chunk is summed while it is passed once around the ring
+		for(int step = 0; step < size - 1; step++) {
+			exchange(buffer, Math.floorMod(rank - step, size), Math.floorMod(rank - step - 1, size), half, true);
+		}
+		
+		//The chunk this trainer finished summing is rounded like every copy of it sent around the ring
+		int owned = (rank + 1) % size;
+		if(half) {
+			for(int index = chunkStart(buffer, owned); index < chunkStart(buffer, owned + 1); index++) {
+				buffer[index] = HalfPrecision.fromHalf(HalfPrecision.toHalf(buffer[index]));
+			}
+		}
+		
+		//Every summed chunk is then passed around the ring to every other trainer
+		for(int step = 0; step < size - 1; step++) {
+			exchange(buffer, Math.floorMod(rank + 1 - step, size), Math.floorMod(rank - step, size), half, false);
+		}
+	}
+	
+	/**
+	 * Helper function to send a chunk to the next trainer while receiving a chunk from the previous trainer
+	 */
+	private void exchange(double[] buffer, int sendChunk, int receiveChunk, boolean half, boolean add)
+			throws IOException {
+		int sendFrom = chunkStart(buffer, sendChunk);
+		int sendTo = chunkStart(buffer, sendChunk + 1);
+		
+		Future<?> sending = sender.submit(() -> {
+			send(buffer, sendFrom, sendTo, half);
+			return null;
+		});
+		
+		receive(buffer, chunkStart(buffer, receiveChunk), chunkStart(buffer, receiveChunk + 1), half, add);
+		
+		try {
+			sending.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while sending gradients");
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException("Gradients could not be sent", e.getCause());
+		}
+	}
+	
+	/**
+	 * Helper function to find the first value of a chunk, chunks being as even as possible
+	 */
+	private int chunkStart(double[] buffer, int chunk) {
+		return (int) ((long) buffer.length * chunk / size);
+	}
+	
+	/**
+	 * Helper function to send a range of a buffer to the next trainer
+	 */
+	private void send(double[] buffer, int from, int to, boolean half) throws IOException {
+		int width = half ? 2 : 8;
+		if(sendBytes.length < (to - from) * width) sendBytes = new byte[(to - from) * width];
+		
+		ByteBuffer bytes = ByteBuffer.wrap(sendBytes).order(ByteOrder.LITTLE_ENDIAN);
+		if(half) for(int index = from; index < to; index++) bytes.putShort(HalfPrecision.toHalf(buffer[index]));
+		else bytes.asDoubleBuffer().put(buffer, from, to - from);
+		
+		out.write(sendBytes, 0, (to - from) * width);
+		out.flush();
+	}
+	
+	/**
+	 * Helper function to receive a range of a buffer from the previous trainer, added to or replacing the values
+	 */
+	private void receive(double[] buffer, int from, int to, boolean half, boolean add) throws IOException {
+		int width = half ? 2 : 8;
+		if(receiveBytes.length < (to - from) * width) receiveBytes = new byte[(to - from) * width];
+		
+		in.readFully(receiveBytes, 0, (to - from) * width);
+		
+		ByteBuffer bytes = ByteBuffer.wrap(receiveBytes).order(ByteOrder.LITTLE_ENDIAN);
+		for(int index = from; index < to; index++) {
+			double value = half ? HalfPrecision.fromHalf(bytes.getShort()) : bytes.getDouble();
+			
+			if(add) buffer[index] += value;
+			else buffer[index] = value;
+		}
+	}
+}
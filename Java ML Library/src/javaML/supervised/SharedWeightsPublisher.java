@@ -0,0 +1,225 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The SharedWeightsPublisher writes the weights of a network into a memory-mapped file that any number of
+ * processes on the same host can serve predictions from with a SharedWeightsReader, so the host holds a single
+ * copy of the weights in its page cache no matter how many processes serve them.
+ * <br><br>
+ * The file holds two slots for the weights, each with its own sequence number, so a new version is written into
+ * the slot readers are not using. The file is laid out as:
+ * <ul>
+ * <li>Control block: magic number, format version, the most recently published version, and the sequence number
+ * of each slot</li>
+ * <li>Topology of the network, in the header format of the binary model file</li>
+ * <li>Two slots, each holding every ConnectionLayer matrix in forward order, stored row-major as raw doubles</li>
+ * </ul>
+ * Version n is always written into slot n % 2. The sequence number of the slot is set to 2n - 1 while it is being
+ * written and to 2n once it is complete, and the published version is only advanced after that, so readers
+ * never start a prediction on a slot that is being written. A reader that is still predicting on a slot when it is
+ * written again sees its sequence number change and repeats the prediction, which only happens if the prediction
+ * takes longer than two publishes.
+ * <br><br>
+ * If the file already holds weights of a network with the same topology, the publisher continues its versions.
+ * Otherwise a new file is written next to it and moved in its place, so readers of the old file keep serving the
+ * old weights until they open the new file. Only one publisher should write to a file at a time, and only
+ * feed-forward networks can be shared, as a repeated prediction would be remembered twice by a recurrent network.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class SharedWeightsPublisher {
+	
+	/**
+	 * Magic number found at the start of every shared weights file ("JMLS")
+	 */
+	static final int MAGIC = 0x534C4D4A;
+	
+	/**
+	 * Current version of the shared weights format
+	 */
+	static final int FORMAT = 1;
+	
+	/**
+	 * Position of the most recently published version, and of the sequence number of the first slot
+	 */
+	static final int PUBLISHED = 8;
+	static final int SEQUENCES = 16;
+	
+	/**
+	 * Length of the control block, after which the topology is written
+	 */
+	static final int CONTROL_BYTES = 32;
+	
+	/**
+	 * Access to the longs of the control block, which are read and written by several processes at once
+	 */
+	static final VarHandle CONTROL = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	
+	private final ConnectionLayer[] cLayers;
+	
+	private final ByteBuffer control;
+	
+	//Every ConnectionLayer matrix of both slots
+	private final DoubleBuffer[][] slots;
+	
+	private long version;
+	
+	/**
+	 * Constructor for a SharedWeightsPublisher, which publishes the current weights of the network as soon as the
+	 * file is ready
+	 * @param network Feed-forward network whose weights are published
+	 * @param file File the weights are published to
+	 * @throws IOException if the file could not be written
+	 */
+	public SharedWeightsPublisher(Network network, File file) throws IOException {
+		if(network.isRecurrent()) throw new IllegalArgumentException("Only feed-forward networks can share weights");
+		
+		this.cLayers = network.getConnectionLayers();
+		
+		ModelFile.Header header = ModelFile.Header.of(network);
+		Path path = file.toPath();
+		
+		//A new file is only moved in place once its first version is published
+		boolean reopened = matches(path, header);
+		Path target = reopened ? path : path.resolveSibling(path.getFileName() + ".tmp");
+		if(!reopened) create(target, header);
+		
+		try(FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			this.control = channel.map(FileChannel.MapMode.READ_WRITE, 0, CONTROL_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			this.slots = map(channel, FileChannel.MapMode.READ_WRITE, CONTROL_BYTES + header.length(), cLayers);
+		}
+		
+		this.version = (long) CONTROL.getAcquire(control, PUBLISHED);
+		publish();
+		
+		if(!reopened) Files.move(target, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * Function to publish the current weights of the network as a new version<br>
+	 * The weights are copied into the slot readers are not using, so readers keep predicting while they are
+	 * written and move to the new version with their next prediction. The network should not be trained while
+	 * its weights are published
+	 * @return Version that was published
+	 */
+	public synchronized long publish() {
+		long next = version + 1;
+		int slot = (int) (next & 1);
+		int sequence = SEQUENCES + slot * Long.BYTES;
+		
+		//Readers that see an odd sequence number know the slot is being written
+		CONTROL.setOpaque(control, sequence, 2 * next - 1);
+		VarHandle.releaseFence();
+		
+		for(int index = 0; index < cLayers.length; index++) {
+			double[][] weights = cLayers[index].getMatrix().getMatrix();
+			DoubleBuffer block = slots[slot][index];
+			
+			for(int row = 0; row < weights.length; row++) block.put(row * weights[row].length, weights[row]);
+		}
+		
+		CONTROL.setRelease(control, sequence, 2 * next);
+		CONTROL.setRelease(control, PUBLISHED, next);
+		
+		version = next;
+		return next;
+	}
+	
+	/**
+	 * Function to get the most recently published version
+	 * @return Version readers currently start their predictions on
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package that share weights<br>
+	 * Maps the matrices of both slots of a shared weights file
+	 * @param channel Channel of the file
+	 * @param mode Mode of the mappings
+	 * @param offset Position of the first slot
+	 * @param cLayers ConnectionLayers of a network with the topology of the file
+	 * @return Buffers of every ConnectionLayer matrix of every slot
+	 * @throws IOException if the file is too short or could not be mapped
+	 */
+	static DoubleBuffer[][] map(FileChannel channel, FileChannel.MapMode mode, long offset, ConnectionLayer[] cLayers)
+			throws IOException {
+		long weights = 0;
+		for(ConnectionLayer c: cLayers) weights += (long) c.getMatrix().getRows() * c.getMatrix().getColumns();
+		if(channel.size() < offset + 2 * weights * Double.BYTES) throw new IOException("Unexpected end of shared weights file");
+		
+		//Each matrix is mapped on its own so that files larger than a single mapping are supported
+		DoubleBuffer[][] ret = new DoubleBuffer[2][cLayers.length];
+		for(int slot = 0; slot < 2; slot++) {
+			for(int index = 0; index < cLayers.length; index++) {
+				long bytes = (long) cLayers[index].getMatrix().getRows() * cLayers[index].getMatrix().getColumns()
+						* Double.BYTES;
+				
+				ret[slot][index] = channel.map(mode, offset, bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+				offset += bytes;
+			}
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Helper function to check whether a file already holds shared weights of a network with the same topology
+	 */
+	private static boolean matches(Path path, ModelFile.Header header) {
+		if(!Files.isRegularFile(path)) return false;
+		
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ChannelInput in = new ChannelInput(channel);
+			if(in.getInt() != MAGIC || in.getInt() != FORMAT) return false;
+			
+			in.getLong();
+			in.getLong();
+			in.getLong();
+			
+			return ModelFile.Header.read(in).matches(header);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Helper function to write the control block and topology of a new file, with room for both slots
+	 */
+	private static void create(Path path, ModelFile.Header header) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			try(ChannelOutput out = new ChannelOutput(channel)) {
+				out.putInt(MAGIC);
+				out.putInt(FORMAT);
+				out.putLong(0);
+				out.putLong(0);
+				out.putLong(0);
+				
+				header.write(out);
+			}
+			
+			//Extending the file to its full length leaves both slots zeroed
+			long length = CONTROL_BYTES + header.length() + 2 * header.weightCount() * Double.BYTES;
+			channel.write(ByteBuffer.allocate(1), length - 1);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import javaML.supervised.structures.MappedMatrix;
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+
+/**
+ * The SharedWeightsReader serves predictions from the weights a SharedWeightsPublisher writes to a shared file.
+ * <br>
+ * The file is mapped read-only and every ConnectionLayer of the network reads its weights directly from the
+ * mapping through a MappedMatrix, so the weights are never copied onto the heap and every process that reads the
+ * same file shares a single copy of them in the page cache.
+ * <br><br>
+ * Every prediction starts on the most recently published version. Its slot's sequence number is read before
+ * and after the prediction, and the prediction is repeated if the publisher wrote over the slot in between, so
+ * every prediction is made with the weights of exactly one version. Predictions are synchronized, so a reader may
+ * be used by several threads, and threads that predict at the same time can each open their own reader of the
+ * same file at no cost in memory.
+ * <br><br>
+ * The mappings are released once the reader is garbage collected.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class SharedWeightsReader {
+	
+	private final Network network;
+	private final ConnectionLayer[] cLayers;
+	
+	private final ByteBuffer control;
+	
+	//Every ConnectionLayer matrix of both slots
+	private final Matrix[][] slots;
+	
+	//Slot the ConnectionLayers currently read from, -1 before the first prediction
+	private int bound = -1;
+	
+	private long version = 0;
+	
+	/**
+	 * Constructor to map a file written by a SharedWeightsPublisher
+	 * @param file File the weights are published to
+	 * @throws IOException if the file could not be mapped or is not a shared weights file
+	 */
+	public SharedWeightsReader(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ChannelInput in = new ChannelInput(channel);
+			if(in.getInt() != SharedWeightsPublisher.MAGIC) throw new IOException("Not a shared weights file");
+			int format = in.getInt();
+			if(format != SharedWeightsPublisher.FORMAT) throw new IOException("Unsupported shared weights version " + format);
+			
+			in.getLong();
+			in.getLong();
+			in.getLong();
+			
+			ModelFile.Header header = ModelFile.Header.read(in);
+			this.network = header.build();
+			this.cLayers = network.getConnectionLayers();
+			
+			this.control = channel.map(FileChannel.MapMode.READ_ONLY, 0, SharedWeightsPublisher.CONTROL_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			
+			DoubleBuffer[][] blocks = SharedWeightsPublisher.map(channel, FileChannel.MapMode.READ_ONLY,
+					SharedWeightsPublisher.CONTROL_BYTES + header.length(), cLayers);
+			
+			this.slots = new Matrix[2][cLayers.length];
+			for(int slot = 0; slot < 2; slot++) {
+				for(int index = 0; index < cLayers.length; index++) {
+					Matrix mat = cLayers[index].getMatrix();
+					slots[slot][index] = new MappedMatrix(blocks[slot][index], mat.getRows(), mat.getColumns());
+				}
+			}
+		}
+		
+		if(getLatestVersion() == 0) throw new IOException("No weights have been published to the file");
+	}
+	
+	/**
+	 * Function to test a particular set of inputs on the most recently published weights
+	 * @param inputs Input vector of size equal to input layer size
+	 * @return returns the array of outputs produced by the output layer through forward propagation
+	 */
+	public synchronized double[] test(double... inputs) {
+		while(true) {
+			long published = (long) SharedWeightsPublisher.CONTROL.getAcquire(control, SharedWeightsPublisher.PUBLISHED);
+			int slot = (int) (published & 1);
+			int sequence = SharedWeightsPublisher.SEQUENCES + slot * Long.BYTES;
+			
+			//The publisher is already writing the next version over this slot
+			long before = (long) SharedWeightsPublisher.CONTROL.getAcquire(control, sequence);
+			if((before & 1) == 1) {
+				Thread.onSpinWait();
+				continue;
+			}
+			
+			if(slot != bound) bind(slot);
+			double[] outputs = network.test(inputs);
+			
+			//Every weight is read before the sequence number is read again
+			VarHandle.acquireFence();
+			if((long) SharedWeightsPublisher.CONTROL.getAcquire(control, sequence) == before) {
+				version = before / 2;
+				return outputs;
+			}
+		}
+	}
+	
+	/**
+	 * Function to get the version of the weights the most recent prediction was made with
+	 * @return Version of the weights, 0 before the first prediction
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Function to get the most recently published version, which the next prediction starts on
+	 * @return Most recently published version
+	 */
+	public long getLatestVersion() {
+		return (long) SharedWeightsPublisher.CONTROL.getAcquire(control, SharedWeightsPublisher.PUBLISHED);
+	}
+	
+	/**
+	 * Function to estimate the heap memory used by the weights of the network
+	 * @return Estimated size in bytes, 0 as every weight is read from the mapping
+	 */
+	public long getFootprint() {
+		return network.getFootprint();
+	}
+	
+	/**
+	 * Helper function to point every ConnectionLayer at the matrices of a slot
+	 */
+	private void bind(int slot) {
+		for(int index = 0; index < cLayers.length; index++) cLayers[index].setMatrix(slots[slot][index]);
+		bound = slot;
+	}
+}
@@ -0,0 +1,377 @@
+package javaML.supervised;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javaML.supervised.structures.Matrix;
+import javaML.supervised.structures.networkElements.ConnectionLayer;
+import javaML.supervised.structures.networkElements.NeuronLayer;
+
+/**
+ * A TrainingCheckpoint is a snapshot of the complete training state of a network.<br>
+ * Unlike the model files written by the NetworkBuilder, which only hold the weights, a checkpoint also holds:
+ * <ul>
+ * <li>The Adam optimizer state (m_t, v_t and iteration) of every ConnectionLayer</li>
+ * <li>The learning rate and its algorithmic schedule</li>
+ * <li>The position in the dataset (dataIndex) and the epoch it is in</li>
+ * <li>Whether the dataset is shuffled and the seed of the order (see Network.setShuffle())</li>
+ * <li>The memory (histories) of every NeuronLayer</li>
+ * </ul>
+ * Resuming from a checkpoint therefore continues training exactly where it left off instead of restarting the
+ * optimizer cold. A shuffled dataset is read in the same order as well, as the order of every epoch is drawn again
+ * from the seed and the number of the epoch.
+ * <br><br>
+ * Taking a checkpoint is split into two steps. capture() takes an in-memory snapshot on the training thread,
+ * which only copies the optimizer state and histories since ConnectionLayer weights are never modified in
+ * place and can be shared. writeAsync() then writes the snapshot on a background thread so that training can
+ * continue while the file is written. Files are written to a temporary file first and moved into place, so an
+ * interrupted write never replaces a previous checkpoint with a partial one.
+ * <br><br>
+ * The dataset itself is not part of a checkpoint; it should be uploaded to the network before restoring so
+ * that the position in the dataset is kept.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class TrainingCheckpoint {
+	
+	/**
+	 * Magic number found at the start of every checkpoint file ("JMLC")
+	 */
+	static final int MAGIC = 0x434C4D4A;
+	
+	/**
+	 * Current version of the checkpoint format
+	 */
+	static final int VERSION = 2;
+	
+	/**
+	 * File extension used by checkpoint files
+	 */
+	public static final String EXTENSION = ".nnc";
+	
+	//Single background thread so checkpoints are written one at a time and in order
+	static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "TrainingCheckpoint-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final ModelFile.Header header;
+	
+	private final double learningRate;
+	private final double[] schedule;
+	private final int dataIndex;
+	private final int epoch;
+	private final boolean shuffle;
+	private final long shuffleSeed;
+	
+	//Weights are shared with the network, optimizer states and histories are copies
+	//Weights of layers left out of a partial checkpoint are null
+	private final Matrix[] weights;
+	private final Matrix[][] optimizer;
+	private final double[][][] histories;
+	
+	private TrainingCheckpoint(ModelFile.Header header, double learningRate, double[] schedule, int dataIndex,
+			int epoch, boolean shuffle, long shuffleSeed, Matrix[] weights, Matrix[][] optimizer,
+			double[][][] histories) {
+		this.header = header;
+		this.learningRate = learningRate;
+		this.schedule = schedule;
+		this.dataIndex = dataIndex;
+		this.epoch = epoch;
+		this.shuffle = shuffle;
+		this.shuffleSeed = shuffleSeed;
+		this.weights = weights;
+		this.optimizer = optimizer;
+		this.histories = histories;
+	}
+	
+	/**
+	 * Function to take an in-memory snapshot of the training state of a network.<br>
+	 * Should be called from the thread that trains the network, between calls to train()
+	 * @param network Network to be captured
+	 * @return Snapshot that is unaffected by further training of the network
+	 */
+	public static TrainingCheckpoint capture(Network network) {
+		return capture(network, null);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package<br>
+	 * Takes a snapshot that only holds the weights and optimizer state of some of the ConnectionLayers; all
+	 * other training state is always captured
+	 * @param network Network to be captured
+	 * @param include Array with one entry for every ConnectionLayer in forward order, set to true for the layers
+	 * to be captured; if null every layer is captured
+	 * @return Snapshot that is unaffected by further training of the network
+	 */
+	static TrainingCheckpoint capture(Network network, boolean[] include) {
+		ConnectionLayer[] cLayers = network.getConnectionLayers();
+		NeuronLayer[] nLayers = network.getNeuronLayers();
+		
+		Matrix[] weights = new Matrix[cLayers.length];
+		Matrix[][] optimizer = new Matrix[cLayers.length][];
+		double[][][] histories = new double[nLayers.length][][];
+		
+		for(int index = 0; index < cLayers.length; index++) {
+			if(include != null && !include[index]) continue;
+			
+			weights[index] = cLayers[index].getMatrix();
+			optimizer[index] = cLayers[index].getOptimizerState();
+		}
+		
+		for(int index = 0; index < nLayers.length; index++) histories[index] = nLayers[index].getHistory();
+		
+		return new TrainingCheckpoint(ModelFile.Header.of(network), network.getLearningRate(),
+				network.getAlgorithmicLR(), network.getDataIndex(), network.getEpoch(), network.isShuffled(),
+				network.getShuffleSeed(), weights, optimizer, histories);
+	}
+	
+	/**
+	 * Function to capture a network and write the checkpoint on the background writer thread
+	 * @param network Network to be checkpointed
+	 * @param file File to write to
+	 * @return Future that completes with the written file once the checkpoint is on disk
+	 */
+	public static Future<File> save(Network network, File file) {
+		return capture(network).writeAsync(file);
+	}
+	
+	/**
+	 * Function to write the checkpoint on the background writer thread.<br>
+	 * Checkpoints are written one at a time in the order they were submitted
+	 * @param file File to write to
+	 * @return Future that completes with the written file once the checkpoint is on disk, or completes
+	 * exceptionally if it could not be written
+	 */
+	public Future<File> writeAsync(File file) {
+		return WRITER.submit(() -> {
+			write(file);
+			return file;
+		});
+	}
+	
+	/**
+	 * Function to write the checkpoint on the calling thread
+	 * @param file File to write to, any existing file is replaced once the new checkpoint is complete
+	 * @throws IOException if the file could not be written
+	 */
+	public void write(File file) throws IOException {
+		write(file, MAGIC, false);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package<br>
+	 * Writes the checkpoint on the calling thread behind a chosen magic number
+	 * @param file File to write to, any existing file is replaced once the new checkpoint is complete
+	 * @param magic Magic number identifying the kind of file
+	 * @param partial Set to true to mark which layers are present, which is required for checkpoints taken
+	 * with capture(Network, boolean[])
+	 * @throws IOException if the file could not be written
+	 */
+	void write(File file, int magic, boolean partial) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		
+		try(FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				ChannelOutput out = new ChannelOutput(channel)) {
+			
+			out.putInt(magic);
+			out.putInt(VERSION);
+			header.write(out);
+			
+			out.putDouble(learningRate);
+			for(double value: schedule) out.putDouble(value);
+			out.putInt(dataIndex);
+			out.putInt(epoch);
+			out.putInt(shuffle ? 1 : 0);
+			out.putLong(shuffleSeed);
+			
+			for(int index = 0; index < weights.length; index++) {
+				if(partial) out.putInt(weights[index] == null ? 0 : 1);
+				if(weights[index] == null) continue;
+				
+				ModelFile.writeMatrix(out, weights[index]);
+				
+				out.putInt(optimizer[index] == null ? 0 : 1);
+				if(optimizer[index] == null) continue;
+				
+				for(Matrix mat: optimizer[index]) ModelFile.writeMatrix(out, mat);
+			}
+			
+			out.putInt(histories.length);
+			for(double[][] history: histories) {
+				out.putInt(history.length);
+				for(double[] vector: history) {
+					out.putInt(vector.length);
+					out.putDoubles(vector);
+				}
+			}
+		}
+		
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Function to read a checkpoint written by write() or writeAsync()
+	 * @param file File to be read
+	 * @return The checkpoint held by the file
+	 * @throws IOException if the file could not be read or is not a valid checkpoint
+	 */
+	public static TrainingCheckpoint read(File file) throws IOException {
+		return read(file, MAGIC, false);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package<br>
+	 * Reads a checkpoint written by write(File, int, boolean)
+	 * @param file File to be read
+	 * @param magic Magic number identifying the kind of file
+	 * @param partial Set to true if the file marks which layers are present
+	 * @return The checkpoint held by the file
+	 * @throws IOException if the file could not be read or is not a valid checkpoint
+	 */
+	static TrainingCheckpoint read(File file, int magic, boolean partial) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ChannelInput in = new ChannelInput(channel);
+			
+			if(in.getInt() != magic) throw new IOException("Not a checkpoint file");
+			int version = in.getInt();
+			if(version != VERSION) throw new IOException("Unsupported checkpoint version " + version);
+			
+			ModelFile.Header header = ModelFile.Header.read(in);
+			
+			double learningRate = in.getDouble();
+			double[] schedule = new double[4];
+			for(int index = 0; index < schedule.length; index++) schedule[index] = in.getDouble();
+			int dataIndex = in.getInt();
+			int epoch = in.getInt();
+			boolean shuffle = in.getInt() == 1;
+			long shuffleSeed = in.getLong();
+			
+			ArrayList<Matrix> weights = new ArrayList<>();
+			ArrayList<Matrix[]> optimizer = new ArrayList<>();
+			
+			for(int[][] unit: header.shapes) {
+				for(int[] shape: unit) {
+					if(partial && in.getInt() == 0) {
+						weights.add(null);
+						optimizer.add(null);
+						continue;
+					}
+					
+					weights.add(ModelFile.readMatrix(in, shape[0], shape[1]));
+					
+					if(in.getInt() == 0) {
+						optimizer.add(null);
+						continue;
+					}
+					
+					Matrix[] state = new Matrix[3];
+					for(int index = 0; index < state.length; index++)
+						state[index] = ModelFile.readMatrix(in, shape[0], shape[1]);
+					optimizer.add(state);
+				}
+			}
+			
+			double[][][] histories = new double[in.getInt()][][];
+			for(int layer = 0; layer < histories.length; layer++) {
+				histories[layer] = new double[in.getInt()][];
+				for(int index = 0; index < histories[layer].length; index++) {
+					histories[layer][index] = new double[in.getInt()];
+					in.getDoubles(histories[layer][index]);
+				}
+			}
+			
+			return new TrainingCheckpoint(header, learningRate, schedule, dataIndex, epoch, shuffle, shuffleSeed,
+					weights.toArray(new Matrix[0]), optimizer.toArray(new Matrix[0][]), histories);
+		}
+	}
+	
+	/**
+	 * Function to restore the checkpoint into an existing network.<br>
+	 * The network must have the same topology as the network the checkpoint was captured from. Upload the
+	 * dataset before restoring so that the position in the dataset is kept. Shuffling is set as it was when the
+	 * checkpoint was captured.<br>
+	 * Layers left out of a partial checkpoint keep their current weights and optimizer state.
+	 * @param network Network to be restored
+	 */
+	public void restore(Network network) {
+		if(!header.matches(ModelFile.Header.of(network)))
+			throw new IllegalArgumentException("Network does not match the topology of the checkpoint");
+		
+		ConnectionLayer[] cLayers = network.getConnectionLayers();
+		NeuronLayer[] nLayers = network.getNeuronLayers();
+		
+		if(nLayers.length != histories.length)
+			throw new IllegalArgumentException("Network does not match the topology of the checkpoint");
+		
+		for(int index = 0; index < cLayers.length; index++) {
+			if(weights[index] == null) continue;
+			
+			cLayers[index].setMatrix(weights[index]);
+			cLayers[index].setOptimizerState(optimizer[index]);
+		}
+		
+		for(int index = 0; index < nLayers.length; index++) nLayers[index].setHistory(histories[index]);
+		
+		network.setShuffle(shuffle, shuffleSeed);
+		network.restoreTrainingState(learningRate, schedule, dataIndex, epoch);
+	}
+	
+	/**
+	 * Function to be called only by classes of the supervised package<br>
+	 * Combines the checkpoint with a later partial checkpoint of the same network
+	 * @param delta Later checkpoint, whose training state and present layers take precedence
+	 * @return Checkpoint holding the layers of both checkpoints
+	 */
+	TrainingCheckpoint merge(TrainingCheckpoint delta) {
+		if(!header.matches(delta.header))
+			throw new IllegalArgumentException("Checkpoints do not describe the same topology");
+		
+		Matrix[] mergedWeights = weights.clone();
+		Matrix[][] mergedOptimizer = optimizer.clone();
+		
+		for(int index = 0; index < weights.length; index++) {
+			if(delta.weights[index] == null) continue;
+			
+			mergedWeights[index] = delta.weights[index];
+			mergedOptimizer[index] = delta.optimizer[index];
+		}
+		
+		return new TrainingCheckpoint(header, delta.learningRate, delta.schedule, delta.dataIndex, delta.epoch,
+				delta.shuffle, delta.shuffleSeed, mergedWeights, mergedOptimizer, delta.histories);
+	}
+	
+	/**
+	 * Function to build a new network from the checkpoint
+	 * @return Network with the topology and training state held by the checkpoint
+	 */
+	public Network build() {
+		try {
+			Network network = header.build();
+			restore(network);
+			
+			return network;
+		} catch (IOException e) {
+			throw new IllegalStateException("Checkpoint does not describe a valid network", e);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package javaML.supervised;
+
+/**
+ * WeightEncoding is a simple enum file consisting of constants of the supported ways of storing weights in a
+ * compressed model file.<br><br>
+ * Double keeps every weight exactly, while Float16 and Int8 are lossy encodings that trade precision for much
+ * smaller files.<br>
+ * Float16 stores every weight as an IEEE half precision float.<br>
+ * Int8 stores every weight as a byte, scaled by a factor stored once for every row of the matrix.<br>
+ * 
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public enum WeightEncoding {
+	INVALID(0),		// Invalid, do not use
+	DOUBLE(1),		// Lossless 64 bit weights
+	FLOAT16(2),		// Lossy 16 bit half precision weights
+	INT8(3);		// Lossy 8 bit weights with a scale per row
+	
+	
+	
+	
+	/*****************************************
+	 * Remainder of this file is dedicated to
+	 * translating between integer values and
+	 * enum constants
+	 ****************************************/
+	
+	
+	
+	
+	private final int value;
+	private WeightEncoding(int value) {
+		this.value = value;
+	}
+	
+	public int getVal() {
+		return value;
+	}
+	
+	protected static WeightEncoding getFromVal(int value) {
+		switch(value) {
+		case 1:
+			return DOUBLE;
+		case 2:
+			return FLOAT16;
+		case 3:
+			return INT8;
+		default:
+			return INVALID;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "" + value;
+	}
+}
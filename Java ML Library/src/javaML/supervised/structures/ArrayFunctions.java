@@ -75,12 +75,12 @@ public class ArrayFunctions {
 	 * @return Deep copied array of [matrix]
 	 */
 	protected static double[][] copyArray(double[][] matrix, int rows, int columns){
-		double[][] ret = new double[rows][columns];
+		double[][] ret = new double[rows][];
 		
+		//Each row is copied in bulk rather than element by element
 		for(int row = 0; row < rows; row++) {
-			for(int col = 0; col < columns; col++) {
-				ret[row][col] = matrix[row][col];
-			}
+			ret[row] = new double[columns];
+			System.arraycopy(matrix[row], 0, ret[row], 0, columns);
 		}
 		
 		return ret;
@@ -94,10 +94,7 @@ public class ArrayFunctions {
 	 */
 	protected static double[] copyArray(double[] vector, int rows) {
 		double[] ret = new double[rows];
-		
-		for(int row = 0; row < rows; row++) {
-			ret[row] = vector[row];
-		}
+		System.arraycopy(vector, 0, ret, 0, rows);
 		
 		return ret;
 	}
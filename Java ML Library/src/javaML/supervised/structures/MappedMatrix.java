@@ -0,0 +1,83 @@
+package javaML.supervised.structures;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * The MappedMatrix extension of the Matrix class is a read-only Matrix whose values are stored outside of the
+ * heap in a DoubleBuffer, such as a slice of a memory-mapped model file.<br>
+ * Values are read directly from the buffer on every access, so no copy of the weights is ever made. When
+ * several processes map the same file, they share one copy of the weights in the operating system's page cache.
+ * <br><br>
+ * Because the buffer is read-only, the set functions are unsupported. The ConnectionLayer never modifies its
+ * Matrix in place (weight adjustments always produce a new Matrix), so a network backed by MappedMatrices can
+ * still be trained; any adjusted layer simply moves back onto the heap.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public class MappedMatrix extends Matrix {
+	
+	private final DoubleBuffer buffer;
+	
+	/**
+	 * Constructor to wrap a buffer of row-major values as a Matrix
+	 * @param buffer Buffer holding exactly rows * columns values in row-major order
+	 * @param rows Number of rows in the matrix
+	 * @param columns Number of columns in the matrix
+	 */
+	public MappedMatrix(DoubleBuffer buffer, int rows, int columns) {
+		super(rows, columns);
+		
+		if(buffer.remaining() != (long) rows * columns)
+			throw new IllegalArgumentException("Buffer size does not match the matrix dimensions");
+		
+		this.buffer = buffer.slice().asReadOnlyBuffer();
+	}
+	
+	@Override
+	public double getValue(int row, int col) {
+		return buffer.get(row * columns + col);
+	}
+	
+	/**
+	 * Because the values are not held in a 2D array, this function creates a copy of the values on the heap
+	 * @return Copy of the matrix as a 2D array
+	 */
+	@Override
+	public double[][] getMatrix() {
+		double[][] ret = new double[rows][columns];
+		
+		for(int row = 0; row < rows; row++) {
+			buffer.get(row * columns, ret[row]);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * The values are stored outside of the heap, so a MappedMatrix uses no heap memory for its values
+	 * @return 0
+	 */
+	@Override
+	public long getFootprint() {
+		return 0;
+	}
+	
+	@Override
+	public Vector getAsVector() {
+		if(this.columns != 1) return null;
+		return new Vector(this.getMatrix());
+	}
+	
+	@Override
+	public void setMatrix(double[][] matrix) {
+		throw new UnsupportedOperationException("MappedMatrix is read-only");
+	}
+	
+	@Override
+	public void setValue(double value, int row, int col) {
+		throw new UnsupportedOperationException("MappedMatrix is read-only");
+	}
+}
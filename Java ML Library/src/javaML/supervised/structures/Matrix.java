@@ -75,6 +75,19 @@ public class Matrix {
 		this.matrix = ArrayFunctions.copyArray(matrix, rows, columns);
 	}
 	
+	/**
+	 * Constructor for extensions of the Matrix class that provide their own storage for the values<br>
+	 * No 2D array is allocated, so extensions must override every function that reads or writes values
+	 * @param rows Number of rows in the matrix
+	 * @param columns Number of columns in the matrix
+	 */
+	protected Matrix(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		
+		this.matrix = null;
+	}
+	
 	/**
 	 * Initialize function to be called by the basic constructors
 	 * @param fillCode User inputed fill code that describes how to build the matrix
@@ -220,7 +233,7 @@ public class Matrix {
 	 * @return Returns the transposed matrix
 	 */
 	public static Matrix transpose(Matrix m1) {
-		double[][] mat = ArrayFunctions.transpose(m1.matrix);
+		double[][] mat = ArrayFunctions.transpose(m1.getMatrix());
 		return new Matrix(mat);
 	}
 	
@@ -346,6 +359,15 @@ public class Matrix {
 		return this.rows;
 	}
 	
+	/**
+	 * Function to estimate the heap memory used to store the values of the Matrix.<br>
+	 * Counts the values along with the headers of the outer array and of every row
+	 * @return Estimated size in bytes
+	 */
+	public long getFootprint() {
+		return 16 + (long) rows * (8 + 16 + (long) columns * Double.BYTES);
+	}
+	
 	/**
 	 * Quick method to print the values of the array in a readable format.<br>
 	 * Rounds each value to 4 decimal places, starts and ends each lines with [ and ] respectively.
@@ -354,7 +376,7 @@ public class Matrix {
 		for(int row = 0; row < rows; row++) {
 			System.out.print("[");
 			for(int col = 0; col < columns; col++) {
-				System.out.printf("%.4f", matrix[row][col]);
+				System.out.printf("%.4f", getValue(row, col));
 				
 				if(col < columns - 1) System.out.print(", ");
 			}
@@ -367,17 +389,18 @@ public class Matrix {
 	
 	@Override
 	public String toString() {
-		String ret = "";
+		//StringBuilder keeps writing linear in the size of the matrix
+		StringBuilder ret = new StringBuilder();
 		
 		for(int row = 0; row < rows; row++) {
 			for(int col = 0; col < columns; col++) {
-				ret += matrix[row][col];
-				if(col < columns - 1) ret += ",";
+				ret.append(getValue(row, col));
+				if(col < columns - 1) ret.append(',');
 			}
 			
-			if(row < rows - 1) ret += "\n";
+			if(row < rows - 1) ret.append('\n');
 		}
 		
-		return ret;
+		return ret.toString();
 	}
 }
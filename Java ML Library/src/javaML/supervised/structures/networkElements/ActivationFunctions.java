@@ -1,5 +1,6 @@
 package javaML.supervised.structures.networkElements;
 
+import javaML.supervised.Activation;
 
 /**
  * A collection of purely math classes for Neural Network activation functions<br>
@@ -59,6 +60,41 @@ public abstract class ActivationFunctions {
 		
 		return ret;
 	}
+	
+	/**
+	 * Function to activate an array of values in place, exactly as a NeuronLayer activates its values
+	 * @param code Activation function to be used
+	 * @param values array of unactivated values, replaced by their activated values
+	 * @param derivatives array the derivatives of the unactivated values are written to, or null if they are not
+	 * needed
+	 * @param length Number of values to activate, starting at the first value of the arrays
+	 */
+	public static void activate(Activation code, double[] values, double[] derivatives, int length) {
+		ActivationFunctions f = of(code);
+		
+		for(int index = 0; index < length; index++) {
+			if(derivatives != null) derivatives[index] = f.derivative(values[index]);
+			values[index] = f.activate(values[index]);
+		}
+	}
+	
+	/**
+	 * Function to get the activation function identified by an activation constant
+	 * @param code Activation constant
+	 * @return Activation function, Linear for any unknown constant
+	 */
+	static ActivationFunctions of(Activation code) {
+		switch(code) {
+		case RELU:
+			return new ReLU();
+		case SIGMOID:
+			return new Sigmoid();
+		case TANH:
+			return new Tanh();
+		default:
+			return new Linear();
+		}
+	}
 }
 
 /**
@@ -0,0 +1,99 @@
+package javaML.supervised.structures.networkElements;
+
+/**
+ * The Adam class holds the constants and the arithmetic of the Adam (Adaptive moment estimation) optimizer used
+ * by the ConnectionLayers to adjust their weights.<br>
+ * Every weight keeps a running mean of its gradients (the first moment), a running mean of its squared gradients
+ * (the second moment) and the number of times it has been adjusted. Both moments start at 0, so they are divided
+ * by a bias correction that depends on that number.
+ * <br><br>
+ * Anything that adjusts weights outside of a ConnectionLayer, such as the ModelBatch, uses these functions so
+ * that it applies exactly the same steps.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class Adam {
+	
+	/**
+	 * Decay of the first and second moments
+	 */
+	public static final double BETA_1 = 0.9, BETA_2 = 0.999;
+	
+	/**
+	 * Added to the root of the second moment so the step never divides by 0
+	 */
+	public static final double EPSILON = 1e-4;
+	
+	/**
+	 * Largest number of adjustments stored for a weight, past which the bias corrections stay the same
+	 */
+	public static final int MAX_ITERATION = 100000;
+	
+	private Adam() { }
+	
+	/**
+	 * Function to get the number of adjustments stored for a weight after it is adjusted
+	 * @param stored Number of adjustments stored before the weight is adjusted
+	 * @return Number of adjustments to be stored, capped at MAX_ITERATION
+	 */
+	public static int nextIteration(int stored) {
+		return Math.min(stored + 1, MAX_ITERATION);
+	}
+	
+	/**
+	 * Function to get the bias correction of the first moment
+	 * @param iteration Number of the adjustment, the stored number of adjustments plus 1
+	 * @return Value the first moment is divided by
+	 */
+	public static double correction1(int iteration) {
+		return 1 - Math.pow(BETA_1, iteration);
+	}
+	
+	/**
+	 * Function to get the bias correction of the second moment
+	 * @param iteration Number of the adjustment, the stored number of adjustments plus 1
+	 * @return Value the second moment is divided by
+	 */
+	public static double correction2(int iteration) {
+		return 1 - Math.pow(BETA_2, iteration);
+	}
+	
+	/**
+	 * Function to update the first moment of a weight with a gradient
+	 * @param m First moment before the update
+	 * @param gradient Gradient of the weight
+	 * @return Updated first moment
+	 */
+	public static double firstMoment(double m, double gradient) {
+		return m * BETA_1 + (1 - BETA_1) * gradient;
+	}
+	
+	/**
+	 * Function to update the second moment of a weight with a gradient
+	 * @param v Second moment before the update
+	 * @param gradient Gradient of the weight
+	 * @return Updated second moment
+	 */
+	public static double secondMoment(double v, double gradient) {
+		return v * BETA_2 + (1 - BETA_2) * Math.pow(gradient, 2);
+	}
+	
+	/**
+	 * Function to get the adjustment of a weight from its updated moments, before it is scaled by the learning
+	 * rate
+	 * @param m Updated first moment
+	 * @param v Updated second moment
+	 * @param correction1 Bias correction of the first moment
+	 * @param correction2 Bias correction of the second moment
+	 * @return Adjustment of the weight
+	 */
+	public static double step(double m, double v, double correction1, double correction2) {
+		double m_hat = m / correction1;
+		double v_hat = v / correction2;
+		
+		return m_hat / (Math.sqrt(v_hat) + EPSILON);
+	}
+}
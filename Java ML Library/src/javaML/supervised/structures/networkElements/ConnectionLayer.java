@@ -28,12 +28,13 @@ public class ConnectionLayer {
 	protected final NeuronLayer destination;
 	protected Matrix layer;
 	
-	//Variables for Adam Adaptive learning rate
+	//Incremented every time the layer Matrix is replaced, used to find layers that changed
+	private long version = 0;
+	
+	//Variables for Adam Adaptive learning rate, see the Adam class for its constants
 	
 	private Matrix m_t, v_t;
 	private Matrix iteration;
-	private final double BETA_1 = 0.9, BETA_2 = 0.999;
-	private final double EPSILON = 1e-4;
 	
 	
 	//Nearly Identical constructors that each control how ConnectionLayers are allowed to be defined
@@ -44,9 +45,20 @@ public class ConnectionLayer {
 	 * @param destination Hidden Layer
 	 */
 	public ConnectionLayer(InputLayer source, HiddenLayer destination) {
+		this(source, destination, false);
+	}
+	
+	/**
+	 * Constructor for a ConnectionLayer leading from Input to Hidden Layer
+	 * @param source Input Layer
+	 * @param destination Hidden Layer
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public ConnectionLayer(InputLayer source, HiddenLayer destination, boolean deferWeights) {
 		this.source = source;
 		this.destination = destination;
-		initialize();
+		initialize(deferWeights);
 	}
 	
 	/**
@@ -55,9 +67,20 @@ public class ConnectionLayer {
 	 * @param destination Hidden Layer
 	 */
 	public ConnectionLayer(HiddenLayer source, HiddenLayer destination) {
+		this(source, destination, false);
+	}
+	
+	/**
+	 * Constructor for a ConnectionLayer leading from Hidden to Hidden Layers
+	 * @param source Hidden Layer
+	 * @param destination Hidden Layer
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public ConnectionLayer(HiddenLayer source, HiddenLayer destination, boolean deferWeights) {
 		this.source = source;
 		this.destination = destination;
-		initialize();
+		initialize(deferWeights);
 	}
 	
 	/**
@@ -66,9 +89,20 @@ public class ConnectionLayer {
 	 * @param destination Output Layer
 	 */
 	public ConnectionLayer(HiddenLayer source, OutputLayer destination) {
+		this(source, destination, false);
+	}
+	
+	/**
+	 * Constructor for a ConnectionLayer leading from Hidden to Output Layer
+	 * @param source Hidden Layer
+	 * @param destination Output Layer
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public ConnectionLayer(HiddenLayer source, OutputLayer destination, boolean deferWeights) {
 		this.source = source;
 		this.destination = destination;
-		initialize();
+		initialize(deferWeights);
 	}
 	
 	/**
@@ -76,9 +110,19 @@ public class ConnectionLayer {
 	 * @param layer Recurrent Layer
 	 */
 	protected ConnectionLayer(RecurrentLayer layer) {
+		this(layer, false);
+	}
+	
+	/**
+	 * Constructor for a ConnectionLayer leading from and to a Recurrent Layer
+	 * @param layer Recurrent Layer
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	protected ConnectionLayer(RecurrentLayer layer, boolean deferWeights) {
 		this.source = layer;
 		this.destination = layer;
-		initialize();
+		initialize(deferWeights);
 	}
 	
 	/**
@@ -88,15 +132,29 @@ public class ConnectionLayer {
 	 * @param destination Output Layer
 	 */
 	public ConnectionLayer(InputLayer source, OutputLayer destination) {
+		this(source, destination, false);
+	}
+	
+	/**
+	 * Constructor for a Connection Layer leading from Input to Output Layer<br>
+	 * Recommended not to be used, as this implies the nonexistence of hidden layers of any kind
+	 * @param source Input Layer
+	 * @param destination Output Layer
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public ConnectionLayer(InputLayer source, OutputLayer destination, boolean deferWeights) {
 		this.source = source;
 		this.destination = destination;
-		initialize();
+		initialize(deferWeights);
 	}
 	
 	/**
 	 * Basic Function for initializing the connection layers
+	 * @param deferWeights set to true to hold a Matrix of the correct dimensions without any values until
+	 * setMatrix() is called
 	 */
-	private void initialize() {
+	private void initialize(boolean deferWeights) {
 		
 		// NOTE: getLayerSize() returns the the normal size of a NeuronLayer
 		// getTrueSize() returns the size of the layer plus a bias that may or may not exist
@@ -106,9 +164,17 @@ public class ConnectionLayer {
 		destSize = destination.getLayerSize();
 		sourceSize = source.getTrueSize();
 		
-		// Initialize all matrix values to random
-		layer = new Matrix(destSize, sourceSize, Matrix.FILL_RANDOM);
-		
+		// Initialize all matrix values to random, unless the weights are about to be replaced
+		if(deferWeights) layer = new UnsetMatrix(destSize, sourceSize);
+		else layer = new Matrix(destSize, sourceSize, Matrix.FILL_RANDOM);
+	}
+	
+	/**
+	 * Function to initialize the Adam optimizer state.<br>
+	 * Called the first time weights are adjusted so that networks which are only used for inference never
+	 * allocate the optimizer matrices
+	 */
+	private void initializeAdam() {
 		iteration = new Matrix(destSize, sourceSize, Matrix.FILL_ZERO);
 		m_t = new Matrix(destSize, sourceSize, Matrix.FILL_ZERO);
 		v_t = new Matrix(destSize, sourceSize, Matrix.FILL_ZERO);
@@ -134,6 +200,19 @@ public class ConnectionLayer {
 	 * weights. Higher learning rates typically lead to faster learning but lower precision and vice versa
 	 */
 	public void adjustWeights(final double lr) {
+		setMatrix(Matrix.add(layer, computeAdjustments(lr)));
+	}
+	
+	/**
+	 * Function to compute how much every weight should be adjusted by from the errors of the batch<br>
+	 * The optimizer state is advanced as if the adjustments were applied, but the weights are not changed, so
+	 * the adjustments should be applied exactly once
+	 * @param lr Learning rate
+	 * @return Matrix of the adjustment of every weight
+	 */
+	public Matrix computeAdjustments(final double lr) {
+		if(m_t == null) initializeAdam();
+		
 		Matrix gradients = new Matrix(layer.getRows(), layer.getColumns(), Matrix.FILL_ZERO);
 		
 		// Triple nested for loop :( O(n^3)
@@ -147,31 +226,7 @@ public class ConnectionLayer {
 					// Gradient is equal to the sum of source values multiplied by the destination errors
 					double gradient = source.getValues(count).getValue(col) * destination.getErrors(count).getValue(row);
 					
-					
-					/*********************************************
-					 * 
-					 * EXPERIMENTAL
-					 * Introduce ADAM (Adaptive moment estimation)
-					 * Adaptive Learning Rate Optimization
-					 * 
-					 *********************************************/
-					
-					int currIteration = (int) iteration.getValue(row, col) + 1;
-					
-					iteration.setValue(currIteration, row, col);
-					iteration.setValue(Math.min(currIteration, 100000), row, col);
-					
-					double m = m_t.getValue(row, col) * BETA_1 + (1 - BETA_1) * gradient;
-					double v = v_t.getValue(row, col) * BETA_2 + (1 - BETA_2) * Math.pow(gradient, 2);
-					
-					m_t.setValue(m, row, col);
-					v_t.setValue(v, row, col);
-					
-					double m_hat = m / (1 - Math.pow(BETA_1, currIteration));
-					double v_hat = v / (1 - Math.pow(BETA_2, currIteration));
-					
-					adamErr += m_hat / (Math.sqrt(v_hat) + EPSILON);
-					
+					adamErr += adamStep(row, col, gradient);
 				}
 				
 				// Scale by lr
@@ -180,8 +235,94 @@ public class ConnectionLayer {
 			}
 		}
 		
-		layer = Matrix.add(layer, gradients);
+		return gradients;
+	}
+	
+	/**
+	 * Function to get the number of values the gradients of this layer take up in a gradient buffer
+	 * @return One gradient for every weight at every timestep in memory
+	 */
+	public int getGradientSize() {
+		return destSize * sourceSize * source.getMemoryLength();
+	}
+	
+	/**
+	 * Function to write the gradients adjustWeights() would apply into a buffer instead of applying them, so the
+	 * gradients of several copies of a network can be combined before they are applied with applyGradients()
+	 * @param dest Buffer the gradients are written to
+	 * @param offset Position of the first gradient of this layer in the buffer
+	 */
+	public void computeGradients(double[] dest, int offset) {
+		int memory = source.getMemoryLength();
+		
+		for(int count = 0; count < memory; count++) {
+			Vector values = source.getValues(count);
+			Vector errors = destination.getErrors(count);
+			
+			// Gradients are ordered by weight and then by timestep, the order adjustWeights() applies them in
+			for(int row = 0; row < destSize; row++) {
+				double error = errors.getValue(row);
+				int index = offset + row * sourceSize * memory + count;
+				
+				for(int col = 0; col < sourceSize; col++) {
+					dest[index] = values.getValue(col) * error;
+					index += memory;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Function to adjust the weights of the layer with gradients written by computeGradients()
+	 * @param src Buffer holding the gradients
+	 * @param offset Position of the first gradient of this layer in the buffer
+	 * @param lr Learning rate
+	 */
+	public void applyGradients(double[] src, int offset, final double lr) {
+		if(m_t == null) initializeAdam();
+		
+		Matrix gradients = new Matrix(layer.getRows(), layer.getColumns(), Matrix.FILL_ZERO);
+		int memory = source.getMemoryLength();
+		
+		for(int row = 0; row < destSize; row++) {
+			for(int col = 0; col < sourceSize; col++) {
+				double adamErr = 0;
+				for(int count = 0; count < memory; count++) adamErr += adamStep(row, col, src[offset++]);
+				
+				adamErr *= -lr;
+				gradients.setValue(adamErr, row, col);
+			}
+		}
+		
+		setMatrix(Matrix.add(layer, gradients));
+	}
+	
+	/**
+	 * Helper function to update the Adam optimizer state of a weight with a gradient
+	 * @return Adjustment of the weight before it is scaled by the learning rate
+	 */
+	private double adamStep(int row, int col, double gradient) {
+		
+		/*********************************************
+		 * 
+		 * EXPERIMENTAL
+		 * Introduce ADAM (Adaptive moment estimation)
+		 * Adaptive Learning Rate Optimization
+		 * 
+		 *********************************************/
+		
+		int stored = (int) iteration.getValue(row, col);
+		int currIteration = stored + 1;
+		
+		iteration.setValue(Adam.nextIteration(stored), row, col);
 		
+		double m = Adam.firstMoment(m_t.getValue(row, col), gradient);
+		double v = Adam.secondMoment(v_t.getValue(row, col), gradient);
+		
+		m_t.setValue(m, row, col);
+		v_t.setValue(v, row, col);
+		
+		return Adam.step(m, v, Adam.correction1(currIteration), Adam.correction2(currIteration));
 	}
 	
 	/**
@@ -213,7 +354,7 @@ public class ConnectionLayer {
 	 * @param arr 2D array form of new Matrix
 	 */
 	public void setMatrix(double[][] arr) {
-		this.layer = new Matrix(arr);
+		this.setMatrix(new Matrix(arr));
 	}
 	
 	/**
@@ -222,10 +363,87 @@ public class ConnectionLayer {
 	 */
 	public void setMatrix(Matrix mat) {
 		this.layer = mat;
+		this.version++;
+	}
+	
+	/**
+	 * Function to estimate the heap memory used by the layer Matrix and the state of the Adam optimizer
+	 * @return Estimated size in bytes
+	 */
+	public long getFootprint() {
+		long ret = layer.getFootprint();
+		if(m_t != null) ret += m_t.getFootprint() + v_t.getFootprint() + iteration.getFootprint();
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to get the version of the layer Matrix.<br>
+	 * The version increases every time the Matrix is replaced, whether by setMatrix() or by adjustWeights(), so
+	 * two equal versions mean the weights have not changed in between
+	 * @return Current version of the layer Matrix
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+	
+	/**
+	 * Function to copy the state of the Adam optimizer
+	 * @return Array of copies of the {m_t, v_t, iteration} matrices, or null if the weights of this layer have
+	 * never been adjusted
+	 */
+	public Matrix[] getOptimizerState() {
+		if(m_t == null) return null;
+		
+		return new Matrix[] {new Matrix(m_t.getMatrix()), new Matrix(v_t.getMatrix()), 
+				new Matrix(iteration.getMatrix())};
+	}
+	
+	/**
+	 * Function to replace the state of the Adam optimizer with one previously returned by getOptimizerState()
+	 * @param state Array of {m_t, v_t, iteration} matrices, or null to reset the optimizer
+	 */
+	public void setOptimizerState(Matrix[] state) {
+		if(state == null) {
+			m_t = null;
+			v_t = null;
+			iteration = null;
+			return;
+		}
+		
+		m_t = new Matrix(state[0].getMatrix());
+		v_t = new Matrix(state[1].getMatrix());
+		iteration = new Matrix(state[2].getMatrix());
 	}
 	
 	@Override
 	public String toString() {
 		return layer.toString() + "\n";
 	}
+	
+	/**
+	 * Matrix held by a ConnectionLayer whose weights have not been set yet.<br>
+	 * Only knows its dimensions, reading any value is an error
+	 */
+	private static final class UnsetMatrix extends Matrix {
+		
+		private UnsetMatrix(int rows, int columns) {
+			super(rows, columns);
+		}
+		
+		@Override
+		public double getValue(int row, int col) {
+			throw new IllegalStateException("Weights of the ConnectionLayer have not been set");
+		}
+		
+		@Override
+		public double[][] getMatrix() {
+			throw new IllegalStateException("Weights of the ConnectionLayer have not been set");
+		}
+		
+		@Override
+		public long getFootprint() {
+			return 0;
+		}
+	}
 }
@@ -2,6 +2,7 @@ package javaML.supervised.structures.networkElements;
 
 import java.util.LinkedList;
 import javaML.supervised.Activation;
+import javaML.supervised.LayerType;
 import javaML.supervised.structures.*;
 
 /**
@@ -77,6 +78,14 @@ public abstract class NeuronLayer {
 	 */
 	public abstract void runActivation();
 	
+	/**
+	 * Function to get the LayerType constant that describes this layer.<br>
+	 * This is the same identifier that is written as the first value of the layer's toString() line, and is
+	 * used when saving and rebuilding networks from files
+	 * @return LayerType of the layer
+	 */
+	public abstract LayerType getLayerType();
+	
 	@Override
 	public abstract String toString();
 	
@@ -102,23 +111,7 @@ public abstract class NeuronLayer {
 	 * Helper function that initializes the functionality of the activation function
 	 */
 	private void initializeActivation() {
-		switch(activationCode) {
-		case LINEAR:
-			function = new Linear();
-			break;
-		case RELU:
-			function = new ReLU();
-			break;
-		case SIGMOID:
-			function = new Sigmoid();
-			break;
-		case TANH:
-			function = new Tanh();
-			break;
-		default:
-			function = new Linear();
-			break;
-		}
+		function = ActivationFunctions.of(activationCode);
 		
 		unactivated = new Vector(layerSize, Matrix.FILL_ZERO);
 		errorVec = new Vector(layerSize, Matrix.FILL_ZERO);
@@ -131,6 +124,58 @@ public abstract class NeuronLayer {
 		this.initializeLists();
 	}
 	
+	/**
+	 * Function to get the number of vectors returned by getHistory()
+	 * @return Length of the history array
+	 */
+	protected int getHistoryLength() {
+		return memoryLength * 3 + 2;
+	}
+	
+	/**
+	 * Function to copy the entire memory of the layer.<br>
+	 * The history consists of the activations, derivatives and errors at every timestep in memory, followed by
+	 * the values and errors that are still being accumulated. Together with the ConnectionLayer weights this is
+	 * everything needed to resume training a recurrent network exactly where it left off.
+	 * @return Array of copies of every vector held by the layer
+	 */
+	public double[][] getHistory() {
+		double[][] ret = new double[getHistoryLength()][];
+		
+		for(int index = 0; index < memoryLength; index++) {
+			ret[index] = activations.get(index).getVector().clone();
+			ret[index + memoryLength] = derivatives.get(index).getVector().clone();
+			ret[index + memoryLength * 2] = errors.get(index).getVector().clone();
+		}
+		
+		ret[memoryLength * 3] = unactivated.getVector().clone();
+		ret[memoryLength * 3 + 1] = errorVec.getVector().clone();
+		
+		return ret;
+	}
+	
+	/**
+	 * Function to replace the entire memory of the layer with one previously returned by getHistory()
+	 * @param history Array of vectors in the same order as returned by getHistory()
+	 */
+	public void setHistory(double[][] history) {
+		if(history.length != getHistoryLength()) 
+			throw new IllegalArgumentException("History does not match the memory of the layer");
+		
+		activations = new LinkedList<>();
+		derivatives = new LinkedList<>();
+		errors = new LinkedList<>();
+		
+		for(int index = 0; index < memoryLength; index++) {
+			activations.add(new Vector(history[index]));
+			derivatives.add(new Vector(history[index + memoryLength]));
+			errors.add(new Vector(history[index + memoryLength * 2]));
+		}
+		
+		unactivated = new Vector(history[memoryLength * 3]);
+		errorVec = new Vector(history[memoryLength * 3 + 1]);
+	}
+	
 	/**
 	 * Function called during forward pass to pass information from layers connecting into this one.<br>
 	 * This function does not activate values in as some cases layers have multiple input vectors that all need
@@ -293,7 +338,7 @@ public abstract class NeuronLayer {
 	 * Function to get the size of the standardized (no bias) layer
 	 * @return Size of the layer excluding bias
 	 */
-	protected int getLayerSize() {
+	public int getLayerSize() {
 		return this.layerSize;
 	}
 	
@@ -305,6 +350,22 @@ public abstract class NeuronLayer {
 		return this.trueSize;
 	}
 	
+	/**
+	 * Function to get the activation function identifier used by the layer
+	 * @return Activation constant of the layer
+	 */
+	public Activation getActivation() {
+		return this.activationCode;
+	}
+	
+	/**
+	 * Function to check whether the layer includes a bias node
+	 * @return true if the layer has a bias
+	 */
+	public boolean hasBias() {
+		return this.bias;
+	}
+	
 	/**
 	 * Function to get the length for which memory is saved in the Layer
 	 * @return Memory Length
@@ -140,6 +140,32 @@ public abstract class Unit {
 		return this.cLayers[0].getMatrix();
 	}
 	
+	/**
+	 * Function to get the entry point (NeuronLayer) for the Unit<br>
+	 * The entry layer is the layer that describes the Unit when it is written to a file
+	 * @return Returns the first NeuronLayer of the Unit
+	 */
+	public NeuronLayer getEntry() {
+		return this.nLayers[0];
+	}
+	
+	/**
+	 * Function to get all NeuronLayers contained in the Unit
+	 * @return Array of the Unit's NeuronLayers, starting with the entry layer
+	 */
+	public NeuronLayer[] getNeuronLayers() {
+		return this.nLayers;
+	}
+	
+	/**
+	 * Function to get all ConnectionLayers contained in the Unit, in the same order expected by
+	 * setConnectionMatrices()
+	 * @return Array of the Unit's ConnectionLayers
+	 */
+	public ConnectionLayer[] getConnectionLayers() {
+		return this.cLayers;
+	}
+	
 	/**
 	 * Function to get the exit point (NeuronLayer) for the Unit
 	 * @return Returns the last NeuronLayer of the Unit
@@ -150,14 +176,14 @@ public abstract class Unit {
 	
 	@Override
 	public String toString() {
-		String ret = "";
+		StringBuilder ret = new StringBuilder();
 		
-		ret += nLayers[0];
-		ret += "-\n";
-		for(ConnectionLayer c: cLayers) ret += c + "-\n";
-		ret += "--\n";
+		ret.append(nLayers[0]);
+		ret.append("-\n");
+		for(ConnectionLayer c: cLayers) ret.append(c).append("-\n");
+		ret.append("--\n");
 		
-		return ret;
+		return ret.toString();
 	}
 	
 }
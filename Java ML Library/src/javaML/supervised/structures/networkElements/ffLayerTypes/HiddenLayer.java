@@ -60,6 +60,11 @@ public class HiddenLayer extends NeuronLayer {
 		this.activate();
 	}
 
+	@Override
+	public LayerType getLayerType() {
+		return LayerType.HIDDEN;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("%s,%d,%s,%d\n", LayerType.HIDDEN, layerSize, activationCode, bias ? 1 : 0);
@@ -69,6 +69,11 @@ public class InputLayer extends NeuronLayer {
 		this.pushValues(inputs);
 	}
 
+	@Override
+	public LayerType getLayerType() {
+		return LayerType.INPUT;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("%s,%d,%s,%d\n", LayerType.INPUT, layerSize, activationCode, bias ? 1 : 0);
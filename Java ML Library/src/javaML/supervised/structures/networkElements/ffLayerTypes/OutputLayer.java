@@ -76,6 +76,11 @@ public class OutputLayer extends NeuronLayer {
 		this.activate();
 	}
 
+	@Override
+	public LayerType getLayerType() {
+		return LayerType.OUTPUT;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("%s,%d,%s,%d\n", LayerType.OUTPUT, layerSize, activationCode, bias ? 1 : 0);
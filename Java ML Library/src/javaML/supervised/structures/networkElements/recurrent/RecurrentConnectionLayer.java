@@ -27,7 +27,18 @@ public class RecurrentConnectionLayer extends ConnectionLayer{
 	 * @param layer RecurrentLayer for which to be connected on
 	 */
 	public RecurrentConnectionLayer(RecurrentLayer layer) {
-		super(layer);
+		this(layer, false);
+	}
+	
+	/**
+	 * Constructor for simple RecurrentLayers in which the ConnectionLayer will lead to and from the same basic
+	 * layer, however will operate on 2 separate timesteps.
+	 * @param layer RecurrentLayer for which to be connected on
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public RecurrentConnectionLayer(RecurrentLayer layer, boolean deferWeights) {
+		super(layer, deferWeights);
 		this.rLayerSrc = layer;
 		this.rLayerDest = layer;
 	}
@@ -39,13 +50,25 @@ public class RecurrentConnectionLayer extends ConnectionLayer{
 	 * @param dest destination can be any type of HiddenLayer
 	 */
 	public RecurrentConnectionLayer(RecurrentLayer src, HiddenLayer dest) {
-		super(src, dest);
+		this(src, dest, false);
+	}
+	
+	/**
+	 * Constructor for a more specialized RecurrentConnectionLayer typically found in advanced recurrent models
+	 * such as GRUs or LSTMs
+	 * @param src RecurrentLayer source will always be necessary
+	 * @param dest destination can be any type of HiddenLayer
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public RecurrentConnectionLayer(RecurrentLayer src, HiddenLayer dest, boolean deferWeights) {
+		super(src, dest, deferWeights);
 		this.rLayerSrc = src;
 		this.rLayerDest = dest;
 	}
 	
 	@Override
-	public void adjustWeights(double lr) {
+	public Matrix computeAdjustments(double lr) {
 		Matrix gradients = new Matrix(layer.getRows(), layer.getColumns(), Matrix.FILL_ZERO);
 		
 		for(int row = 0; row < destSize; row++) {
@@ -68,6 +91,39 @@ public class RecurrentConnectionLayer extends ConnectionLayer{
 			}
 		}
 		
-		layer = Matrix.add(layer, gradients);
+		return gradients;
+	}
+	
+	@Override
+	public int getGradientSize() {
+		return destSize * sourceSize;
+	}
+	
+	@Override
+	public void computeGradients(double[] dest, int offset) {
+		for(int row = 0; row < destSize; row++) {
+			for(int col = 0; col < sourceSize; col++) {
+				double gradient = 0;
+				for(int count = 0; count < rLayerSrc.getMemoryLength() - 1; count++) {
+					gradient += rLayerSrc.getValues(count).getValue(col) * 
+							rLayerDest.getErrors(count + 1).getValue(row);
+				}
+				
+				dest[offset++] = gradient;
+			}
+		}
+	}
+	
+	@Override
+	public void applyGradients(double[] src, int offset, double lr) {
+		Matrix gradients = new Matrix(layer.getRows(), layer.getColumns(), Matrix.FILL_ZERO);
+		
+		for(int row = 0; row < destSize; row++) {
+			for(int col = 0; col < sourceSize; col++) {
+				gradients.setValue(src[offset++] * -lr, row, col);
+			}
+		}
+		
+		setMatrix(Matrix.add(layer, gradients));
 	}
 }
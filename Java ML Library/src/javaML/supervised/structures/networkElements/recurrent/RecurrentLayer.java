@@ -85,6 +85,11 @@ public class RecurrentLayer extends HiddenLayer{
 		return super.getValues(index);
 	}
 	
+	@Override
+	public LayerType getLayerType() {
+		return LayerType.RECURRENT;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("%s,%d,%s,%d\n", LayerType.RECURRENT, layerSize, activationCode, bias ? 1 : 0);
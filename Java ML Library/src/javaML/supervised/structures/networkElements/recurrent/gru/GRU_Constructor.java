@@ -36,8 +36,20 @@ public class GRU_Constructor {
 	 * @return Returns the constructed GRU_Unit to add the the network layer stack
 	 */
 	public static GRU_Unit construct(NeuronLayer previousLayer, int layerSize, int memoryLength) {
+		return construct(previousLayer, layerSize, memoryLength, false);
+	}
+	
+	/**
+	 * Function to build a GRU Layer whose weights may be replaced right after it is built
+	 * @param previousLayer Neuron Layer which will connect directly into the GRU
+	 * @param layerSize Layer size to be used by all internal GRU NeuronLayers
+	 * @param memoryLength memory length of the network
+	 * @param deferWeights set to true to skip generating random weights for every ConnectionLayer
+	 * @return Returns the constructed GRU_Unit to add the the network layer stack
+	 */
+	public static GRU_Unit construct(NeuronLayer previousLayer, int layerSize, int memoryLength, boolean deferWeights) {
 		HiddenLayer[] nLayers = constructNLayers(layerSize, memoryLength);
-		ConnectionLayer[] cLayers = constructCLayers(nLayers, previousLayer);
+		ConnectionLayer[] cLayers = constructCLayers(nLayers, previousLayer, deferWeights);
 		
 		return new GRU_Unit(nLayers, cLayers);
 	}
@@ -74,9 +86,11 @@ public class GRU_Constructor {
 	 * Creates the 6 internal connection layers within the GRU model
 	 * @param nLayers Array of NeuronLayers which will serve as the endpoints for the ConnectionLayers
 	 * @param previousLayer entry layer to be connected to the GRU layers
+	 * @param deferWeights set to true to skip generating random weights
 	 * @return Returns the array of ConnectionLayers inside the GRU
 	 */
-	private static ConnectionLayer[] constructCLayers(HiddenLayer[] nLayers, NeuronLayer previousLayer) {
+	private static ConnectionLayer[] constructCLayers(HiddenLayer[] nLayers, NeuronLayer previousLayer,
+			boolean deferWeights) {
 		InputLayer input = null;
 		HiddenLayer hidden = null;
 
@@ -103,18 +117,18 @@ public class GRU_Constructor {
 		ConnectionLayer ixr, ixu, ixin, hxr, hxu, rxin;
 		
 		if(input == null) {
-			ixr = new ConnectionLayer(hidden, reset);
-			ixu = new ConnectionLayer(hidden, nLayers[1]);
-			ixin = new ConnectionLayer(hidden, nLayers[2]);
+			ixr = new ConnectionLayer(hidden, reset, deferWeights);
+			ixu = new ConnectionLayer(hidden, nLayers[1], deferWeights);
+			ixin = new ConnectionLayer(hidden, nLayers[2], deferWeights);
 		} else {
-			ixr = new ConnectionLayer(input, reset);
-			ixu = new ConnectionLayer(input, nLayers[1]);
-			ixin = new ConnectionLayer(input, nLayers[2]);
+			ixr = new ConnectionLayer(input, reset, deferWeights);
+			ixu = new ConnectionLayer(input, nLayers[1], deferWeights);
+			ixin = new ConnectionLayer(input, nLayers[2], deferWeights);
 		}
 		
-		hxr = new RecurrentConnectionLayer(output, nLayers[0]);
-		hxu = new RecurrentConnectionLayer(output, nLayers[1]);
-		rxin = new GRU_InternalConnectionLayer(reset, nLayers[2]);
+		hxr = new RecurrentConnectionLayer(output, nLayers[0], deferWeights);
+		hxu = new RecurrentConnectionLayer(output, nLayers[1], deferWeights);
+		rxin = new GRU_InternalConnectionLayer(reset, nLayers[2], deferWeights);
 		
 		return new ConnectionLayer[] {ixr, hxr, ixu, hxu, ixin, rxin};
 	}
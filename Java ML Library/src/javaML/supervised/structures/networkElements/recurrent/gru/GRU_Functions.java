@@ -0,0 +1,132 @@
+package javaML.supervised.structures.networkElements.recurrent.gru;
+
+/**
+ * The GRU_Functions class holds the element-wise arithmetic of the GRU Cell, for both its forward pass and its
+ * error calculation.<br>
+ * The GRU layers use these functions on the vectors of a single network, and the ModelBatch uses them on the
+ * values of many networks stacked next to each other. Since every operation is element-wise, the same functions
+ * work on either layout, and both always compute exactly the same values.
+ * <br><br>
+ * Every function works on the first length values of its arrays, so vectors that still have their bias at the
+ * end can be passed as they are.
+ *
+ * @author Caleb Devon<br>
+ * Added on 10/19/2026
+ *
+ */
+
+public final class GRU_Functions {
+	
+	private GRU_Functions() { }
+	
+	/**
+	 * Function to multiply values by the output of a gate<br>
+	 * Used by the reset layer on the previous output of the GRU, and by the intermediate layer on the output of
+	 * the update gate
+	 * @param values Values to be gated
+	 * @param gate Activations of the gate
+	 * @param dest Array the gated values are written to
+	 * @param length Number of values
+	 */
+	public static void gate(double[] values, double[] gate, double[] dest, int length) {
+		for(int index = 0; index < length; index++) dest[index] = values[index] * gate[index];
+	}
+	
+	/**
+	 * Function to get 1 - z for the activations z of the update gate, the share of the previous output that is
+	 * kept
+	 * @param update Activations of the update gate
+	 * @param dest Array the results are written to
+	 * @param length Number of values
+	 */
+	public static void complement(double[] update, double[] dest, int length) {
+		for(int index = 0; index < length; index++) dest[index] = complement(update[index]);
+	}
+	
+	/**
+	 * Function to calculate the output of the GRU, the previous output scaled by 1 - z added to the gated
+	 * intermediate values
+	 * @param previous Output of the GRU in the previous timestep
+	 * @param complement 1 - z of the update gate
+	 * @param gated Intermediate values multiplied by the update gate
+	 * @param dest Array the output is written to
+	 * @param length Number of values
+	 */
+	public static void output(double[] previous, double[] complement, double[] gated, double[] dest, int length) {
+		for(int index = 0; index < length; index++) dest[index] = previous[index] * complement[index] + gated[index];
+	}
+	
+	/**
+	 * Function to add the errors passed back to the output layer from the next timestep of the GRU
+	 * @param resetErrors Errors of the reset gate in the next timestep, multiplied by its transposed recurrent
+	 * matrix
+	 * @param updateErrors Errors of the update gate in the next timestep, multiplied by its transposed recurrent
+	 * matrix
+	 * @param intermediateErrors Errors of the intermediate layer in the next timestep, multiplied by the
+	 * transposed matrix from the reset layer
+	 * @param futureReset Activations of the reset gate in the next timestep
+	 * @param futureUpdate Activations of the update gate in the next timestep
+	 * @param futureErrors Errors of the output layer in the next timestep
+	 * @param dest Array of errors the results are added to
+	 * @param length Number of values
+	 */
+	public static void outputErrors(double[] resetErrors, double[] updateErrors, double[] intermediateErrors,
+			double[] futureReset, double[] futureUpdate, double[] futureErrors, double[] dest, int length) {
+		for(int index = 0; index < length; index++) {
+			double gates = resetErrors[index] + updateErrors[index];
+			double future = intermediateErrors[index] * futureReset[index] +
+					complement(futureUpdate[index]) * futureErrors[index];
+			
+			dest[index] += gates + future;
+		}
+	}
+	
+	/**
+	 * Function to add the errors of the intermediate layer
+	 * @param errors Errors of the output layer
+	 * @param update Activations of the update gate
+	 * @param derivatives Derivatives of the intermediate layer
+	 * @param dest Array of errors the results are added to
+	 * @param length Number of values
+	 */
+	public static void intermediateErrors(double[] errors, double[] update, double[] derivatives, double[] dest,
+			int length) {
+		for(int index = 0; index < length; index++) dest[index] += (errors[index] * update[index]) * derivatives[index];
+	}
+	
+	/**
+	 * Function to add the errors of the update gate
+	 * @param errors Errors of the output layer
+	 * @param intermediate Activations of the intermediate layer
+	 * @param previous Output of the GRU in the previous timestep
+	 * @param derivatives Derivatives of the update gate
+	 * @param dest Array of errors the results are added to
+	 * @param length Number of values
+	 */
+	public static void updateErrors(double[] errors, double[] intermediate, double[] previous, double[] derivatives,
+			double[] dest, int length) {
+		for(int index = 0; index < length; index++) {
+			dest[index] += (errors[index] * (intermediate[index] + previous[index] * -1)) * derivatives[index];
+		}
+	}
+	
+	/**
+	 * Function to add the errors of the reset gate
+	 * @param errors Errors of the intermediate layer multiplied by the transposed matrix from the reset layer
+	 * @param previous Output of the GRU in the previous timestep
+	 * @param derivatives Derivatives of the reset gate
+	 * @param dest Array of errors the results are added to
+	 * @param length Number of values
+	 */
+	public static void resetErrors(double[] errors, double[] previous, double[] derivatives, double[] dest,
+			int length) {
+		for(int index = 0; index < length; index++) dest[index] += (errors[index] * previous[index]) * derivatives[index];
+	}
+	
+	/**
+	 * Helper function to get 1 - z of a single activation of the update gate
+	 */
+	private static double complement(double update) {
+		return 1 + update * -1;
+	}
+}
@@ -30,7 +30,21 @@ public class GRU_InternalConnectionLayer extends ConnectionLayer {
 	 * @param destination Destination NeuronLayer (Can be any HiddenLayer)
 	 */
 	public GRU_InternalConnectionLayer(GRU_InternalLayer source, HiddenLayer destination) {
-		super(source, destination);
+		this(source, destination, false);
+	}
+	
+	/**
+	 * Constructor for the GRU_InternalConnectionLayer.<br>
+	 * Source must be a GRU_InternalLayer however the Destination can be any HiddenLayer
+	 * variant (such as the GRU_OutputLayer which is categorized as Recurrent).
+	 * 
+	 * @param source Source NeuronLayer (Must be GRU_InternalLayer)
+	 * @param destination Destination NeuronLayer (Can be any HiddenLayer)
+	 * @param deferWeights set to true to skip generating random weights, for a layer whose weights are replaced
+	 * by setMatrix() right after it is built
+	 */
+	public GRU_InternalConnectionLayer(GRU_InternalLayer source, HiddenLayer destination, boolean deferWeights) {
+		super(source, destination, deferWeights);
 		this.source = source;
 	}
 	
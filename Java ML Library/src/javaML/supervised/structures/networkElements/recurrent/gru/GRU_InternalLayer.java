@@ -79,6 +79,39 @@ public abstract class GRU_InternalLayer extends HiddenLayer {
 		this.initialize();
 	}
 	
+	@Override
+	protected int getHistoryLength() {
+		return super.getHistoryLength() + memoryLength + 1;
+	}
+	
+	@Override
+	public double[][] getHistory() {
+		double[][] ret = super.getHistory();
+		int start = super.getHistoryLength();
+		
+		//Intermediate values and the hidden state are appended to the standard history
+		for(int index = 0; index < memoryLength; index++) {
+			ret[start + index] = intermediateVals.get(index).getVector().clone();
+		}
+		
+		ret[start + memoryLength] = hiddenState.getVector().clone();
+		
+		return ret;
+	}
+	
+	@Override
+	public void setHistory(double[][] history) {
+		super.setHistory(history);
+		int start = super.getHistoryLength();
+		
+		intermediateVals = new LinkedList<>();
+		for(int index = 0; index < memoryLength; index++) {
+			intermediateVals.add(new Vector(history[start + index]));
+		}
+		
+		hiddenState = new Vector(history[start + memoryLength]);
+	}
+	
 	/**
 	 * Function to get the results of intermediate calculation
 	 * @return List of intermediate vectors at each timestep in memory
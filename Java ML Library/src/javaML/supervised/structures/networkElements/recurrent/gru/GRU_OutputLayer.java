@@ -57,11 +57,11 @@ public class GRU_OutputLayer extends RecurrentLayer {
 		//the outputlayer output is calculated through 2 consecutive vector operations
 		//defined by the GRU algorithm
 		
-		Vector operationVec = activations.getLast();
-		operationVec = Vector.linearMultiply(operationVec, removeBias(updateVals)).getAsVector();
-		operationVec = Vector.add(operationVec, removeBias(intermediateVals));
+		double[] operation = new double[layerSize];
+		GRU_Functions.output(activations.getLast().getVector(), updateVals.getVector(), intermediateVals.getVector(), 
+				operation, layerSize);
 		
-		this.pushValues(operationVec);
+		this.pushValues(new Vector(operation));
 		this.activate();
 		
 	}
@@ -92,18 +92,37 @@ public class GRU_OutputLayer extends RecurrentLayer {
 		Vector updateE = super.removeBias(Matrix.multiply(errorMats[1], errorVecs[1]).getAsVector());
 		
 		Vector InterE = super.removeBias(Matrix.multiply(errorMats[2], errorVecs[2]).getAsVector());
-		InterE = Vector.linearMultiply(InterE, super.removeBias(outputVecs[0])).getAsVector();
 		
-		Vector one = new Vector(layerSize, Vector.FILL_ONE);
-		Vector inverse = Vector.scale(super.removeBias(outputVecs[1]), -1);
-		inverse = Vector.add(one, inverse);
+		double[] errors = new double[layerSize];
+		GRU_Functions.outputErrors(resetE.getVector(), updateE.getVector(), InterE.getVector(), 
+				outputVecs[0].getVector(), outputVecs[1].getVector(), errorVecs[3].getVector(), errors, layerSize);
 		
-		Vector futureE = Vector.linearMultiply(inverse, errorVecs[3]).getAsVector();
+		super.addErrors(new Vector(errors));
+	}
+	
+	@Override
+	protected int getHistoryLength() {
+		return super.getHistoryLength() + 2;
+	}
+	
+	@Override
+	public double[][] getHistory() {
+		double[][] ret = super.getHistory();
+		int start = super.getHistoryLength();
+		
+		ret[start] = updateVals.getVector().clone();
+		ret[start + 1] = intermediateVals.getVector().clone();
 		
-		Vector err1 = Vector.add(resetE, updateE);
-		Vector err2 = Vector.add(InterE, futureE);
+		return ret;
+	}
+	
+	@Override
+	public void setHistory(double[][] history) {
+		super.setHistory(history);
+		int start = super.getHistoryLength();
 		
-		super.addErrors(Vector.add(err1, err2));
+		updateVals = new Vector(history[start]);
+		intermediateVals = new Vector(history[start + 1]);
 	}
 	
 	@Override
@@ -44,20 +44,20 @@ public class IntermediateLayer extends GRU_InternalLayer {
 
 	@Override
 	public void calculateErrors(Vector errorVec, Matrix errorMat, int memIndex) {
-		update = super.removeBias(update);
+		double[] error = new double[layerSize];
+		GRU_Functions.intermediateErrors(errorVec.getVector(), update.getVector(), 
+				this.getDerivatives(memIndex).getVector(), error, layerSize);
 		
-		Vector error = Vector.linearMultiply(errorVec, update).getAsVector();
-		error = Vector.linearMultiply(error, this.getDerivatives(memIndex)).getAsVector();
-		
-		super.addErrors(error);
+		super.addErrors(new Vector(error));
 	}
 
 	@Override
 	public void runActivation() {
 		super.activate();
 		
-		Vector intermediate = Vector.linearMultiply(removeBias(hiddenState), activations.getLast()).getAsVector();
-		intermediateVals.addLast(intermediate);
+		double[] intermediate = new double[layerSize];
+		GRU_Functions.gate(hiddenState.getVector(), activations.getLast().getVector(), intermediate, layerSize);
+		intermediateVals.addLast(new Vector(intermediate));
 		intermediateVals.pollFirst();
 		
 	}
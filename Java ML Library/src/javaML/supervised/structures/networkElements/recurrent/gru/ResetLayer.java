@@ -47,16 +47,16 @@ public class ResetLayer extends GRU_InternalLayer {
 	@Override
 	public void calculateErrors(Vector errorVec, Matrix errorMat, int memIndex) {
 		
-		previous = super.removeBias(previous);
-		
 		Matrix conT = Matrix.transpose(errorMat);
 		
-		Vector currErrors = Matrix.multiply(conT, errorVec).getAsVector();
-		currErrors = super.removeBias(currErrors);
-		currErrors = Vector.linearMultiply(currErrors, previous).getAsVector();
-		currErrors = Vector.linearMultiply(currErrors, this.getDerivatives(memIndex)).getAsVector();
+		Vector passed = Matrix.multiply(conT, errorVec).getAsVector();
+		
+		//Only the first layerSize values are used, so the biases of the vectors are ignored
+		double[] currErrors = new double[layerSize];
+		GRU_Functions.resetErrors(passed.getVector(), previous.getVector(), this.getDerivatives(memIndex).getVector(), 
+				currErrors, layerSize);
 		
-		super.addErrors(currErrors);
+		super.addErrors(new Vector(currErrors));
 		
 	}
 
@@ -65,12 +65,18 @@ public class ResetLayer extends GRU_InternalLayer {
 		// TODO Auto-generated method stub
 		super.activate();
 		
-		Vector intermediate = Vector.linearMultiply(removeBias(hiddenState), activations.getLast()).getAsVector();
-		intermediateVals.addLast(intermediate);
+		double[] intermediate = new double[layerSize];
+		GRU_Functions.gate(hiddenState.getVector(), activations.getLast().getVector(), intermediate, layerSize);
+		intermediateVals.addLast(new Vector(intermediate));
 		intermediateVals.pollFirst();
 		
 	}
 	
+	@Override
+	public LayerType getLayerType() {
+		return LayerType.GRU;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("%s,%d,%s,%d\n", LayerType.GRU, layerSize, Activation.INVALID, 0);
@@ -50,25 +50,20 @@ public class UpdateLayer extends GRU_InternalLayer {
 
 	@Override
 	public void calculateErrors(Vector errorVec, Matrix errorMat, int memIndex) {
-		Vector invert = Vector.scale(previous, -1);
-		Vector mult = Vector.add(intermediate, invert);
+		double[] errors = new double[layerSize];
+		GRU_Functions.updateErrors(errorVec.getVector(), intermediate.getVector(), previous.getVector(), 
+				this.getDerivatives(memIndex).getVector(), errors, layerSize);
 		
-		mult = super.removeBias(mult);
-		
-		Vector errors = Vector.linearMultiply(errorVec, mult).getAsVector();
-		errors = Vector.linearMultiply(errors, this.getDerivatives(memIndex)).getAsVector();
-		
-		super.addErrors(errors);
+		super.addErrors(new Vector(errors));
 	}
 
 	@Override
 	public void runActivation() {
 		super.activate();
 		
-		Vector intermediate = new Vector(layerSize, Vector.FILL_ONE);
-		Vector sub = Vector.scale(this.activations.getLast(), -1);
-		intermediate = Vector.add(intermediate, sub);
-		intermediateVals.addLast(intermediate);
+		double[] intermediate = new double[layerSize];
+		GRU_Functions.complement(this.activations.getLast().getVector(), intermediate, layerSize);
+		intermediateVals.addLast(new Vector(intermediate));
 		intermediateVals.pollFirst();
 		
 	}